@@ -0,0 +1,87 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.asn1.ASN1EncodableVector;
+import org.bouncycastle2.asn1.ASN1InputStream;
+import org.bouncycastle2.asn1.DERInteger;
+import org.bouncycastle2.asn1.DERObject;
+import org.bouncycastle2.asn1.DERObjectIdentifier;
+import org.bouncycastle2.asn1.DEROctetString;
+import org.bouncycastle2.asn1.DERSequence;
+import org.bouncycastle2.asn1.DERSet;
+import org.bouncycastle2.asn1.DERUTF8String;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and DER encoding of a structure shaped roughly like a certificate's
+ * list of attributes: a sequence of entries, each a small sequence holding an OID,
+ * an integer, a string, an octet string and a set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ASN1InputStreamBenchmark
+{
+    @Param({ "10", "100", "1000" })
+    public int entries;
+
+    private byte[]    encoding;
+    private DERObject object;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        ASN1EncodableVector outer = new ASN1EncodableVector();
+
+        for (int i = 0; i != entries; i++)
+        {
+            ASN1EncodableVector inner = new ASN1EncodableVector();
+            ASN1EncodableVector set = new ASN1EncodableVector();
+
+            set.add(new DERInteger(i * 7));
+            set.add(new DERUTF8String("value " + i));
+
+            inner.add(new DERObjectIdentifier("1.2.840.113549.1.9." + (i % 32)));
+            inner.add(new DERInteger(BigInteger.valueOf(i).shiftLeft(64)));
+            inner.add(new DERUTF8String("entry number " + i));
+            inner.add(new DEROctetString(BenchmarkUtil.randomBytes(20)));
+            inner.add(new DERSet(set));
+
+            outer.add(new DERSequence(inner));
+        }
+
+        object = new DERSequence(outer);
+        encoding = object.getEncoded();
+    }
+
+    @Benchmark
+    public DERObject parse()
+        throws IOException
+    {
+        return new ASN1InputStream(encoding).readObject();
+    }
+
+    @Benchmark
+    public byte[] encode()
+        throws IOException
+    {
+        return object.getEncoded();
+    }
+}
@@ -0,0 +1,23 @@
+package org.bouncycastle2.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Shared set up code. The data is pseudo-random with a fixed seed so runs are comparable.
+ */
+class BenchmarkUtil
+{
+    private static final Random random = new Random(0x5eedL);
+
+    static byte[] randomBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+
+        synchronized (random)
+        {
+            random.nextBytes(bytes);
+        }
+
+        return bytes;
+    }
+}
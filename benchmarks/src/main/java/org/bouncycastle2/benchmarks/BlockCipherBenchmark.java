@@ -0,0 +1,61 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.crypto.BlockCipher;
+import org.bouncycastle2.crypto.engines.AESFastEngine;
+import org.bouncycastle2.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw block encryption with AESFastEngine, one block at a time over the payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockCipherBenchmark
+{
+    @Param({ "128", "256" })
+    public int keySize;
+
+    @Param({ "16", "1024", "16384" })
+    public int payloadSize;
+
+    private BlockCipher engine;
+    private byte[]      in;
+    private byte[]      out;
+
+    @Setup
+    public void setup()
+    {
+        engine = new AESFastEngine();
+        engine.init(true, new KeyParameter(BenchmarkUtil.randomBytes(keySize / 8)));
+
+        in = BenchmarkUtil.randomBytes(payloadSize);
+        out = new byte[payloadSize];
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+    {
+        for (int off = 0; off < in.length; off += 16)
+        {
+            engine.processBlock(in, off, out, off);
+        }
+
+        return out;
+    }
+}
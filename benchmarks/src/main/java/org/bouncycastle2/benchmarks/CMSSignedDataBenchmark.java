@@ -0,0 +1,105 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.cms.CMSProcessableByteArray;
+import org.bouncycastle2.cms.CMSSignedData;
+import org.bouncycastle2.cms.CMSSignedDataGenerator;
+import org.bouncycastle2.cms.SignerId;
+import org.bouncycastle2.cms.SignerInformationStore;
+import org.bouncycastle2.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation, and parsing plus verification, of an encapsulated CMS SignedData
+ * message with a configurable number of RSA signers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CMSSignedDataBenchmark
+{
+    @Param({ "1", "4" })
+    public int signers;
+
+    @Param({ "1024", "65536" })
+    public int payloadSize;
+
+    private Provider               provider;
+    private CMSSignedDataGenerator generator;
+    private KeyPair[]              keyPairs;
+    private byte[][]               keyIds;
+    private byte[]                 content;
+    private byte[]                 encoding;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        provider = new BouncyCastleProvider();
+
+        KeyPairGenerator kpGen = KeyPairGenerator.getInstance("RSA", provider);
+
+        kpGen.initialize(2048);
+
+        generator = new CMSSignedDataGenerator();
+        keyPairs = new KeyPair[signers];
+        keyIds = new byte[signers][];
+
+        for (int i = 0; i != signers; i++)
+        {
+            keyPairs[i] = kpGen.generateKeyPair();
+            keyIds[i] = BenchmarkUtil.randomBytes(20);
+            generator.addSigner(keyPairs[i].getPrivate(), keyIds[i], CMSSignedDataGenerator.DIGEST_SHA256);
+        }
+
+        content = BenchmarkUtil.randomBytes(payloadSize);
+        encoding = generate().getEncoded();
+    }
+
+    private CMSSignedData generate()
+        throws Exception
+    {
+        return generator.generate(CMSSignedDataGenerator.DATA, new CMSProcessableByteArray(content), true, provider);
+    }
+
+    @Benchmark
+    public CMSSignedData sign()
+        throws Exception
+    {
+        return generate();
+    }
+
+    @Benchmark
+    public boolean parseAndVerify()
+        throws Exception
+    {
+        CMSSignedData          s = new CMSSignedData(encoding);
+        SignerInformationStore store = s.getSignerInfos();
+        boolean                result = true;
+
+        // signer infos are a DER SET, so the encoded order is not the order they were added in
+        for (int i = 0; i != signers; i++)
+        {
+            result &= store.get(new SignerId(keyIds[i])).verify(keyPairs[i].getPublic(), provider);
+        }
+
+        return result;
+    }
+}
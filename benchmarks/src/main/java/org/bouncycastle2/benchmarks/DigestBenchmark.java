@@ -0,0 +1,70 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.digests.SHA1Digest;
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.crypto.digests.SHA512Digest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing a whole payload, including the final padding block.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigestBenchmark
+{
+    @Param({ "SHA-1", "SHA-256", "SHA-512" })
+    public String algorithm;
+
+    @Param({ "64", "1024", "16384" })
+    public int payloadSize;
+
+    private Digest digest;
+    private byte[] in;
+    private byte[] out;
+
+    @Setup
+    public void setup()
+    {
+        if (algorithm.equals("SHA-1"))
+        {
+            digest = new SHA1Digest();
+        }
+        else if (algorithm.equals("SHA-256"))
+        {
+            digest = new SHA256Digest();
+        }
+        else
+        {
+            digest = new SHA512Digest();
+        }
+
+        in = BenchmarkUtil.randomBytes(payloadSize);
+        out = new byte[digest.getDigestSize()];
+    }
+
+    @Benchmark
+    public byte[] digest()
+    {
+        digest.update(in, 0, in.length);
+        digest.doFinal(out, 0);
+
+        return out;
+    }
+}
@@ -0,0 +1,79 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.asn1.sec.SECNamedCurves;
+import org.bouncycastle2.asn1.x9.X9ECParameters;
+import org.bouncycastle2.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle2.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle2.crypto.params.ECDomainParameters;
+import org.bouncycastle2.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle2.crypto.params.ParametersWithRandom;
+import org.bouncycastle2.crypto.signers.ECDSASigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ECDSA signature generation and verification over a fixed message hash.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ECDSABenchmark
+{
+    @Param({ "secp256r1", "secp384r1", "secp256k1" })
+    public String curve;
+
+    private ECDSASigner  signer;
+    private ECDSASigner  verifier;
+    private byte[]       hash;
+    private BigInteger[] sig;
+
+    @Setup
+    public void setup()
+    {
+        X9ECParameters     x9 = SECNamedCurves.getByName(curve);
+        ECDomainParameters domain = new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN(), x9.getH());
+        ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+        SecureRandom       random = new SecureRandom();
+
+        kpGen.init(new ECKeyGenerationParameters(domain, random));
+
+        AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+        signer = new ECDSASigner();
+        signer.init(true, new ParametersWithRandom(kp.getPrivate(), random));
+
+        verifier = new ECDSASigner();
+        verifier.init(false, kp.getPublic());
+
+        hash = BenchmarkUtil.randomBytes(32);
+        sig = signer.generateSignature(hash);
+    }
+
+    @Benchmark
+    public BigInteger[] sign()
+    {
+        return signer.generateSignature(hash);
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        return verifier.verifySignature(hash, sig[0], sig[1]);
+    }
+}
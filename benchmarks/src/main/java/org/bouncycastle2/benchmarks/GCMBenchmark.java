@@ -0,0 +1,91 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.crypto.InvalidCipherTextException;
+import org.bouncycastle2.crypto.engines.AESFastEngine;
+import org.bouncycastle2.crypto.modes.GCMBlockCipher;
+import org.bouncycastle2.crypto.modes.gcm.BasicGCMMultiplier;
+import org.bouncycastle2.crypto.modes.gcm.GCMMultiplier;
+import org.bouncycastle2.crypto.modes.gcm.Tables4BitGCMMultiplier;
+import org.bouncycastle2.crypto.modes.gcm.Tables64kGCMMultiplier;
+import org.bouncycastle2.crypto.modes.gcm.Tables8kGCMMultiplier;
+import org.bouncycastle2.crypto.params.AEADParameters;
+import org.bouncycastle2.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES-GCM encryption of one message per invocation, including the init, which
+ * recomputes H and the multiplier's tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GCMBenchmark
+{
+    @Param({ "Basic", "Tables8k", "Tables64k", "Tables4Bit" })
+    public String multiplier;
+
+    @Param({ "64", "1024", "16384" })
+    public int payloadSize;
+
+    private GCMBlockCipher cipher;
+    private AEADParameters params;
+    private byte[]         in;
+    private byte[]         out;
+
+    @Setup
+    public void setup()
+    {
+        GCMMultiplier m;
+
+        if (multiplier.equals("Basic"))
+        {
+            m = new BasicGCMMultiplier();
+        }
+        else if (multiplier.equals("Tables8k"))
+        {
+            m = new Tables8kGCMMultiplier();
+        }
+        else if (multiplier.equals("Tables64k"))
+        {
+            m = new Tables64kGCMMultiplier();
+        }
+        else
+        {
+            m = new Tables4BitGCMMultiplier();
+        }
+
+        cipher = new GCMBlockCipher(new AESFastEngine(), m);
+        params = new AEADParameters(new KeyParameter(BenchmarkUtil.randomBytes(16)), 128, BenchmarkUtil.randomBytes(12), null);
+
+        in = BenchmarkUtil.randomBytes(payloadSize);
+        out = new byte[payloadSize + 16];
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+        throws InvalidCipherTextException
+    {
+        cipher.init(true, params);
+
+        int len = cipher.processBytes(in, 0, in.length, out, 0);
+
+        cipher.doFinal(out, len);
+
+        return out;
+    }
+}
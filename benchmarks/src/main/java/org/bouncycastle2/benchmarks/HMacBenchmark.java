@@ -0,0 +1,69 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.crypto.macs.HMac;
+import org.bouncycastle2.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HMAC-SHA256 over a payload. The "init" benchmark also re-keys the MAC each
+ * time, which is what key derivation functions such as PBKDF2 do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HMacBenchmark
+{
+    @Param({ "32", "1024", "16384" })
+    public int payloadSize;
+
+    private HMac         mac;
+    private KeyParameter key;
+    private byte[]       in;
+    private byte[]       out;
+
+    @Setup
+    public void setup()
+    {
+        mac = new HMac(new SHA256Digest());
+        key = new KeyParameter(BenchmarkUtil.randomBytes(32));
+        mac.init(key);
+
+        in = BenchmarkUtil.randomBytes(payloadSize);
+        out = new byte[mac.getMacSize()];
+    }
+
+    @Benchmark
+    public byte[] mac()
+    {
+        mac.update(in, 0, in.length);
+        mac.doFinal(out, 0);
+
+        return out;
+    }
+
+    @Benchmark
+    public byte[] initAndMac()
+    {
+        mac.init(key);
+        mac.update(in, 0, in.length);
+        mac.doFinal(out, 0);
+
+        return out;
+    }
+}
@@ -0,0 +1,75 @@
+package org.bouncycastle2.benchmarks;
+
+import org.bouncycastle2.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle2.crypto.engines.RSABlindedEngine;
+import org.bouncycastle2.crypto.engines.RSAEngine;
+import org.bouncycastle2.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle2.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle2.crypto.params.RSAKeyParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The raw RSA private (blinded, CRT) and public operations on a single block.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RSABenchmark
+{
+    @Param({ "1024", "2048", "4096" })
+    public int keySize;
+
+    private RSABlindedEngine privEngine;
+    private RSAEngine        pubEngine;
+    private byte[]           block;
+    private byte[]           sig;
+
+    @Setup
+    public void setup()
+    {
+        RSAKeyPairGenerator kpGen = new RSAKeyPairGenerator();
+
+        kpGen.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x10001), new SecureRandom(), keySize, 25));
+
+        AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+        privEngine = new RSABlindedEngine();
+        privEngine.init(true, kp.getPrivate());
+
+        pubEngine = new RSAEngine();
+        pubEngine.init(false, (RSAKeyParameters)kp.getPublic());
+
+        block = BenchmarkUtil.randomBytes(privEngine.getInputBlockSize());
+        block[0] &= 0x7f;
+        sig = privEngine.processBlock(block, 0, block.length);
+    }
+
+    @Benchmark
+    public byte[] privateOperation()
+    {
+        return privEngine.processBlock(block, 0, block.length);
+    }
+
+    @Benchmark
+    public byte[] publicOperation()
+    {
+        return pubEngine.processBlock(sig, 0, sig.length);
+    }
+}
@@ -45,7 +45,8 @@ public class TimeStampTokenGenerator
 
     GeneralName tsa = null;
     
-    private String  tsaPolicyOID;
+    private ASN1ObjectIdentifier tsaPolicy;
+    private Accuracy             accuracy;
 
     PrivateKey      key;
     X509Certificate cert;
@@ -59,6 +60,10 @@ public class TimeStampTokenGenerator
     private List attrCerts = new ArrayList();
     private SignerInfoGenerator signerInfoGen;
 
+    private Store certCollection;
+    private Store crlCollection;
+    private Store attrCertCollection;
+
     /**
      *
      */
@@ -68,7 +73,7 @@ public class TimeStampTokenGenerator
         throws IllegalArgumentException, TSPException
     {
         this.signerInfoGen = signerInfoGen;
-        this.tsaPolicyOID = tsaPolicy.getId();
+        this.tsaPolicy = tsaPolicy;
 
         if (!signerInfoGen.hasAssociatedCertificate())
         {
@@ -79,7 +84,7 @@ public class TimeStampTokenGenerator
 
         try
         {
-            final ESSCertID essCertid = new ESSCertID(MessageDigest.getInstance("SHA-1").digest(signerInfoGen.getAssociatedCertificate().getEncoded()));
+            final SigningCertificate signingCert = new SigningCertificate(new ESSCertID(MessageDigest.getInstance("SHA-1").digest(signerInfoGen.getAssociatedCertificate().getEncoded())));
 
             this.signerInfoGen = new SignerInfoGenerator(signerInfoGen, new CMSAttributeTableGenerator()
             {
@@ -88,7 +93,7 @@ public class TimeStampTokenGenerator
                 {
                     AttributeTable table = signerInfoGen.getSignedAttributeTableGenerator().getAttributes(parameters);
 
-                    return table.add(PKCSObjectIdentifiers.id_aa_signingCertificate, new SigningCertificate(essCertid));
+                    return table.add(PKCSObjectIdentifiers.id_aa_signingCertificate, signingCert);
                 }
             }, signerInfoGen.getUnsignedAttributeTableGenerator());
 
@@ -133,7 +138,7 @@ public class TimeStampTokenGenerator
         this.key = key;
         this.cert = cert;
         this.digestOID = digestOID;
-        this.tsaPolicyOID = tsaPolicyOID;
+        this.tsaPolicy = new ASN1ObjectIdentifier(tsaPolicyOID);
         this.unsignedAttr = unsignedAttr;
 
         //
@@ -209,6 +214,8 @@ public class TimeStampTokenGenerator
                 throw new TSPException("cannot encode CRL: " + e.getMessage(), e);
             }
         }
+
+        resetCollections();
     }
 
     /**
@@ -220,6 +227,8 @@ public class TimeStampTokenGenerator
         Store certStore)
     {
         certs.addAll(certStore.getMatches(null));
+
+        resetCollections();
     }
 
     /**
@@ -230,6 +239,8 @@ public class TimeStampTokenGenerator
         Store crlStore)
     {
         crls.addAll(crlStore.getMatches(null));
+
+        resetCollections();
     }
 
     /**
@@ -240,21 +251,26 @@ public class TimeStampTokenGenerator
         Store attrStore)
     {
         attrCerts.addAll(attrStore.getMatches(null));
+
+        resetCollections();
     }
 
     public void setAccuracySeconds(int accuracySeconds)
     {
         this.accuracySeconds = accuracySeconds;
+        this.accuracy = null;
     }
 
     public void setAccuracyMillis(int accuracyMillis)
     {
         this.accuracyMillis = accuracyMillis;
+        this.accuracy = null;
     }
 
     public void setAccuracyMicros(int accuracyMicros)
     {
         this.accuracyMicros = accuracyMicros;
+        this.accuracy = null;
     }
 
     public void setOrdering(boolean ordering)
@@ -320,8 +336,7 @@ public class TimeStampTokenGenerator
         AlgorithmIdentifier algID = new AlgorithmIdentifier(digestAlgOID, new DERNull());
         MessageImprint      messageImprint = new MessageImprint(algID, request.getMessageImprintDigest());
 
-        Accuracy accuracy = null;
-        if (accuracySeconds > 0 || accuracyMillis > 0 || accuracyMicros > 0)
+        if (accuracy == null && (accuracySeconds > 0 || accuracyMillis > 0 || accuracyMicros > 0))
         {
             DERInteger seconds = null;
             if (accuracySeconds > 0)
@@ -356,7 +371,7 @@ public class TimeStampTokenGenerator
             nonce = new DERInteger(request.getNonce());
         }
 
-        ASN1ObjectIdentifier tsaPolicy = new ASN1ObjectIdentifier(tsaPolicyOID);
+        ASN1ObjectIdentifier tsaPolicy = this.tsaPolicy;
         if (request.getReqPolicy() != null)
         {
             tsaPolicy = new ASN1ObjectIdentifier(request.getReqPolicy());
@@ -371,16 +386,23 @@ public class TimeStampTokenGenerator
         {
             CMSSignedDataGenerator  signedDataGenerator = new CMSSignedDataGenerator();
 
+            if (certCollection == null)
+            {
+                certCollection = new CollectionStore(certs);
+                crlCollection = new CollectionStore(crls);
+                attrCertCollection = new CollectionStore(attrCerts);
+            }
+
             if (request.getCertReq())
             {
                 // TODO: do we need to check certs non-empty?
-                signedDataGenerator.addCertificates(new CollectionStore(certs));
-                signedDataGenerator.addCRLs(new CollectionStore(crls));
-                signedDataGenerator.addAttributeCertificates(new CollectionStore(attrCerts));
+                signedDataGenerator.addCertificates(certCollection);
+                signedDataGenerator.addCRLs(crlCollection);
+                signedDataGenerator.addAttributeCertificates(attrCertCollection);
             }
             else
             {
-                signedDataGenerator.addCRLs(new CollectionStore(crls));
+                signedDataGenerator.addCRLs(crlCollection);
             }
 
             signedDataGenerator.addSignerInfoGenerator(signerInfoGen);
@@ -401,6 +423,13 @@ public class TimeStampTokenGenerator
         }
     }
 
+    private void resetCollections()
+    {
+        certCollection = null;
+        crlCollection = null;
+        attrCertCollection = null;
+    }
+
     private String getSigAlgorithm(
         PrivateKey key,
         String     digestOID)
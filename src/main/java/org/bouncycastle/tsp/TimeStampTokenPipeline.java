@@ -0,0 +1,318 @@
+package org.bouncycastle.tsp;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generator of time stamp tokens for servers handling many requests at once.
+ * <p>
+ * TimeStampTokenGenerator, and the SignerInfoGenerator and ContentSigner behind it, can only be
+ * used by one thread at a time. A pipeline is given one generator per worker thread, each set up
+ * with its own SignerInfoGenerator, and requests are handed to whichever worker is free next
+ * through a bounded queue. Once the queue is full {@link #submit(TimeStampRequest)} blocks, and
+ * {@link #trySubmit(TimeStampRequest)} returns null, until a worker catches up, so a burst of
+ * requests cannot build up without limit. Throughput grows with the number of generators up to
+ * the number of processors available.
+ * <p>
+ * Serial numbers are allocated from a counter as each token is generated, so they are unique
+ * and increase in the order tokens are produced. The generation time is the time the worker
+ * picks the request up. Requests are not validated here, that is still the job of the caller.
+ * <p>
+ * The time between a request being submitted and its token being ready is recorded for the most
+ * recent requests and can be read back with {@link #getLatency(double)}.
+ */
+public class TimeStampTokenPipeline
+{
+    private static final int LATENCY_SAMPLES = 4096;
+
+    private final BlockingQueue   queue;
+    private final Thread[]        workers;
+    private final AtomicLong      serialNumbers;
+    private final AtomicInteger   activeWorkers;
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicLong      completed = new AtomicLong();
+
+    private volatile boolean      closed;
+
+    /**
+     * Create and start a pipeline.
+     *
+     * @param generators the generators to use, one for each worker thread. Each must have its own
+     * SignerInfoGenerator and must not be used elsewhere while the pipeline is running.
+     * @param queueSize the maximum number of requests waiting for a worker.
+     * @param firstSerialNumber the serial number for the first token generated.
+     */
+    public TimeStampTokenPipeline(
+        TimeStampTokenGenerator[] generators,
+        int                       queueSize,
+        long                      firstSerialNumber)
+    {
+        if (generators.length == 0)
+        {
+            throw new IllegalArgumentException("at least one generator required");
+        }
+        if (queueSize <= 0)
+        {
+            throw new IllegalArgumentException("queueSize must be greater than zero");
+        }
+        if (firstSerialNumber < 0)
+        {
+            throw new IllegalArgumentException("firstSerialNumber must not be negative");
+        }
+
+        this.queue = new ArrayBlockingQueue(queueSize);
+        this.serialNumbers = new AtomicLong(firstSerialNumber);
+        this.workers = new Thread[generators.length];
+        this.activeWorkers = new AtomicInteger(generators.length);
+
+        for (int i = 0; i != generators.length; i++)
+        {
+            workers[i] = new Thread(new Worker(generators[i]), "TimeStampTokenPipeline-" + i);
+            workers[i].setDaemon(true);
+        }
+
+        for (int i = 0; i != workers.length; i++)
+        {
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queue a request for a token, waiting for space in the queue if it is full.
+     *
+     * @param request the request to generate a token for.
+     * @return a Future giving the TimeStampToken, or an ExecutionException wrapping the
+     * TSPException if generation failed.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws IllegalStateException if the pipeline has been shut down.
+     */
+    public Future submit(
+        TimeStampRequest request)
+        throws InterruptedException
+    {
+        checkOpen();
+
+        Job job = new Job(request);
+
+        queue.put(job);
+
+        cancelIfStopped(job);
+
+        return job.task;
+    }
+
+    /**
+     * Queue a request for a token if there is space in the queue.
+     *
+     * @param request the request to generate a token for.
+     * @return a Future giving the TimeStampToken, null if the queue is full.
+     * @throws IllegalStateException if the pipeline has been shut down.
+     */
+    public Future trySubmit(
+        TimeStampRequest request)
+    {
+        checkOpen();
+
+        Job job = new Job(request);
+
+        if (!queue.offer(job))
+        {
+            return null;
+        }
+
+        cancelIfStopped(job);
+
+        return job.task;
+    }
+
+    /**
+     * Return the number of requests waiting for a worker.
+     */
+    public int getQueueLength()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Return the serial number the next token generated will have.
+     */
+    public BigInteger getNextSerialNumber()
+    {
+        return BigInteger.valueOf(serialNumbers.get());
+    }
+
+    /**
+     * Return a percentile of the time taken to produce a token, from submission to completion,
+     * over the most recent requests.
+     *
+     * @param percentile the percentile required, for example 99 or 99.9.
+     * @return the latency in nanoseconds, -1 if no tokens have been produced yet.
+     */
+    public long getLatency(
+        double percentile)
+    {
+        if (percentile <= 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("percentile must be greater than 0 and no more than 100");
+        }
+
+        int count = (int)Math.min(completed.get(), LATENCY_SAMPLES);
+
+        if (count == 0)
+        {
+            return -1;
+        }
+
+        long[] samples = new long[count];
+
+        for (int i = 0; i != count; i++)
+        {
+            samples[i] = latencies.get(i);
+        }
+
+        Arrays.sort(samples);
+
+        int index = (int)Math.ceil(percentile * count / 100) - 1;
+
+        return samples[Math.max(index, 0)];
+    }
+
+    /**
+     * Stop accepting requests. Requests already queued are still processed, after which the
+     * worker threads exit. A request submitted while the pipeline is shutting down is either
+     * processed or has its Future cancelled.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for queue space.
+     */
+    public void shutdown()
+        throws InterruptedException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+
+        for (int i = 0; i != workers.length; i++)
+        {
+            queue.put(Job.STOP);
+        }
+    }
+
+    private void checkOpen()
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("pipeline has been shut down");
+        }
+    }
+
+    private void cancelIfStopped(
+        Job job)
+    {
+        // the last worker to exit cancels whatever is left in the queue, but a job can be
+        // put there after it has looked. It is then up to the submitter to take it back out.
+        if (activeWorkers.get() == 0)
+        {
+            queue.remove(job);
+            job.task.cancel(false);
+        }
+    }
+
+    private void recordLatency(
+        long latency)
+    {
+        int index = (int)(completed.getAndIncrement() % LATENCY_SAMPLES);
+
+        latencies.set(index, latency);
+    }
+
+    private class Worker
+        implements Runnable
+    {
+        private final TimeStampTokenGenerator generator;
+
+        Worker(
+            TimeStampTokenGenerator generator)
+        {
+            this.generator = generator;
+        }
+
+        public void run()
+        {
+            try
+            {
+                for (;;)
+                {
+                    Job job = (Job)queue.take();
+
+                    if (job == Job.STOP)
+                    {
+                        break;
+                    }
+
+                    job.generator = generator;
+                    job.serialNumbers = serialNumbers;
+                    job.task.run();
+
+                    recordLatency(System.nanoTime() - job.submitted);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // treat as a shutdown.
+            }
+
+            if (activeWorkers.decrementAndGet() == 0)
+            {
+                // a request can slip in while shutdown is in progress - don't leave it hanging,
+                // anything put after this is dealt with by cancelIfStopped().
+                Object o;
+
+                while ((o = queue.poll()) != null)
+                {
+                    ((Job)o).task.cancel(false);
+                }
+            }
+        }
+    }
+
+    private static class Job
+        implements Callable
+    {
+        static final Job STOP = new Job(null);
+
+        final TimeStampRequest request;
+        final FutureTask       task;
+        final long             submitted;
+
+        TimeStampTokenGenerator generator;
+        AtomicLong              serialNumbers;
+
+        Job(
+            TimeStampRequest request)
+        {
+            this.request = request;
+            this.task = new FutureTask(this);
+            this.submitted = System.nanoTime();
+        }
+
+        public Object call()
+            throws TSPException
+        {
+            BigInteger serialNumber = BigInteger.valueOf(serialNumbers.getAndIncrement());
+
+            return generator.generate(request, serialNumber, new Date());
+        }
+    }
+}
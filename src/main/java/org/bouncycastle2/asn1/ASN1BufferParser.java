@@ -0,0 +1,546 @@
+package org.bouncycastle2.asn1;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An ASN.1 parser working directly on a ByteBuffer, such as a MappedByteBuffer over a file.
+ * <p>
+ * Unlike ASN1InputStream, which reads each nested object through another layer of input stream
+ * and copies every primitive's contents out of it, this parser only moves a position around the
+ * buffer. Objects can be skipped or returned as views of their encoding without copying anything,
+ * and the contents of constructed objects can be walked in the same way, so only the objects of
+ * interest are decoded. For example the certificates in a large PKCS#7 bundle can be located and
+ * handed on as encodings without building the rest of the structure.
+ * <p>
+ * readObject() decodes the next object in the same way ASN1InputStream does. The contents of
+ * primitive objects are copied once, straight from the buffer. Indefinite length encodings are
+ * located in the buffer and then decoded with an ASN1InputStream over that part of it.
+ * <p>
+ * Like ASN1InputStream, readObject() returns null once the last object has been read.
+ */
+public class ASN1BufferParser
+    implements DERTags
+{
+    private final ByteBuffer buf;
+
+    /**
+     * Create a parser for the bytes between the passed in buffer's position and its limit. The
+     * buffer's own position and limit are not changed.
+     *
+     * @param buffer buffer containing ASN.1 encoded data.
+     */
+    public ASN1BufferParser(
+        ByteBuffer buffer)
+    {
+        this.buf = buffer.slice();
+    }
+
+    /**
+     * Create a parser for the passed in byte array.
+     *
+     * @param input array containing ASN.1 encoded data.
+     */
+    public ASN1BufferParser(
+        byte[] input)
+    {
+        this(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Create a parser over a read-only mapping of a file. The mapping stays valid after this
+     * method returns, the file is closed.
+     *
+     * @param file the file containing ASN.1 encoded data.
+     * @return a parser for the file's contents.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public static ASN1BufferParser map(
+        File file)
+        throws IOException
+    {
+        FileInputStream fIn = new FileInputStream(file);
+
+        try
+        {
+            FileChannel channel = fIn.getChannel();
+
+            return new ASN1BufferParser(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        finally
+        {
+            fIn.close();
+        }
+    }
+
+    /**
+     * Return true if there are bytes left to parse.
+     */
+    public boolean hasMoreObjects()
+    {
+        return buf.hasRemaining();
+    }
+
+    /**
+     * Return the identifier octet of the next object without moving past it.
+     *
+     * @return the next tag octet, -1 if there are no more objects.
+     */
+    public int peekTag()
+    {
+        if (!buf.hasRemaining())
+        {
+            return -1;
+        }
+
+        return buf.get(buf.position()) & 0xff;
+    }
+
+    /**
+     * Skip the next object.
+     *
+     * @throws IOException if the encoding is corrupted or truncated.
+     */
+    public void skipObject()
+        throws IOException
+    {
+        readEncoded();
+    }
+
+    /**
+     * Return a read-only view of the complete encoding of the next object, tag and length
+     * octets included. No data is copied.
+     *
+     * @return the next object's encoding, null if there are no more objects.
+     * @throws IOException if the encoding is corrupted or truncated.
+     */
+    public ByteBuffer readEncoded()
+        throws IOException
+    {
+        if (!buf.hasRemaining())
+        {
+            return null;
+        }
+
+        int start = buf.position();
+        int tag = readTag();
+
+        readTagNumber(tag);
+
+        int length = readLength();
+
+        if (length < 0)
+        {
+            checkIndefinite(tag);
+            skipIndefiniteContents();
+        }
+        else
+        {
+            buf.position(buf.position() + length);
+        }
+
+        return slice(start, buf.position());
+    }
+
+    /**
+     * Return a parser over the contents of the next object, which must be constructed and
+     * use the definite length form - such as a SEQUENCE, SET or explicitly tagged object.
+     * No data is copied.
+     *
+     * @return a parser for the next object's contents, null if there are no more objects.
+     * @throws IOException if the next object is not of the right form, or is corrupted.
+     */
+    public ASN1BufferParser readContents()
+        throws IOException
+    {
+        if (!buf.hasRemaining())
+        {
+            return null;
+        }
+
+        int tag = readTag();
+
+        if ((tag & CONSTRUCTED) == 0)
+        {
+            throw new IOException("constructed object expected, tag " + tag + " found");
+        }
+
+        readTagNumber(tag);
+
+        int length = readLength();
+
+        if (length < 0)
+        {
+            throw new IOException("definite length object expected");
+        }
+
+        int start = buf.position();
+
+        buf.position(start + length);
+
+        return new ASN1BufferParser(slice(start, start + length));
+    }
+
+    /**
+     * Decode the next object.
+     *
+     * @return the next object, null if there are no more objects.
+     * @throws IOException if the encoding is corrupted or truncated.
+     */
+    public DERObject readObject()
+        throws IOException
+    {
+        if (!buf.hasRemaining())
+        {
+            return null;
+        }
+
+        int start = buf.position();
+        int tag = readTag();
+        int tagNo = readTagNumber(tag);
+        int length = readLength();
+
+        if (length < 0) // indefinite length method
+        {
+            checkIndefinite(tag);
+            skipIndefiniteContents();
+
+            ByteBuffer encoding = slice(start, buf.position());
+
+            return new ASN1InputStream(new BufferInputStream(encoding), encoding.remaining()).readObject();
+        }
+
+        int end = buf.position() + length;
+
+        try
+        {
+            return buildObject(tag, tagNo, end);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ASN1Exception("corrupted stream detected", e);
+        }
+        finally
+        {
+            buf.position(end);
+        }
+    }
+
+    /**
+     * build an object given its tag and the position its contents end at.
+     */
+    private DERObject buildObject(
+        int tag,
+        int tagNo,
+        int end)
+        throws IOException
+    {
+        boolean isConstructed = (tag & CONSTRUCTED) != 0;
+
+        if ((tag & APPLICATION) != 0)
+        {
+            return new DERApplicationSpecific(isConstructed, tagNo, readBytes(end));
+        }
+
+        if ((tag & TAGGED) != 0)
+        {
+            if (!isConstructed)
+            {
+                // Note: !CONSTRUCTED => IMPLICIT
+                return new DERTaggedObject(false, tagNo, new DEROctetString(readBytes(end)));
+            }
+
+            ASN1EncodableVector v = buildEncodableVector(end);
+
+            return v.size() == 1
+                ?   new DERTaggedObject(true, tagNo, v.get(0))
+                :   new DERTaggedObject(false, tagNo, DERFactory.createSequence(v));
+        }
+
+        if (isConstructed)
+        {
+            switch (tagNo)
+            {
+                case OCTET_STRING:
+                    return new BERConstructedOctetString(buildEncodableVector(end).v);
+                case SEQUENCE:
+                    return DERFactory.createSequence(buildEncodableVector(end));
+                case SET:
+                    return DERFactory.createSet(buildEncodableVector(end), false);
+                case EXTERNAL:
+                    return new DERExternal(buildEncodableVector(end));
+                default:
+                    return new DERUnknownTag(true, tagNo, readBytes(end));
+            }
+        }
+
+        return ASN1InputStream.createPrimitiveDERObject(tagNo, readBytes(end));
+    }
+
+    private ASN1EncodableVector buildEncodableVector(
+        int end)
+        throws IOException
+    {
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        int                 limit = buf.limit();
+
+        buf.limit(end);
+
+        try
+        {
+            DERObject o;
+
+            while ((o = readObject()) != null)
+            {
+                v.add(o);
+            }
+        }
+        finally
+        {
+            buf.limit(limit);
+        }
+
+        return v;
+    }
+
+    private byte[] readBytes(
+        int end)
+    {
+        byte[] bytes = new byte[end - buf.position()];
+
+        buf.get(bytes);
+
+        return bytes;
+    }
+
+    private int readTag()
+        throws IOException
+    {
+        int tag = buf.get() & 0xff;
+
+        if (tag == 0)
+        {
+            throw new IOException("unexpected end-of-contents marker");
+        }
+
+        return tag;
+    }
+
+    private int read()
+    {
+        if (!buf.hasRemaining())
+        {
+            return -1;
+        }
+
+        return buf.get() & 0xff;
+    }
+
+    private int readTagNumber(
+        int tag)
+        throws IOException
+    {
+        int tagNo = tag & 0x1f;
+
+        //
+        // with tagged object tag number is bottom 5 bits, or stored at the start of the content
+        //
+        if (tagNo == 0x1f)
+        {
+            tagNo = 0;
+
+            int b = read();
+
+            // X.690-0207 8.1.2.4.2
+            // "c) bits 7 to 1 of the first subsequent octet shall not all be zero."
+            if ((b & 0x7f) == 0) // Note: -1 will pass
+            {
+                throw new IOException("corrupted stream - invalid high tag number found");
+            }
+
+            while ((b >= 0) && ((b & 0x80) != 0))
+            {
+                tagNo |= (b & 0x7f);
+                tagNo <<= 7;
+                b = read();
+            }
+
+            if (b < 0)
+            {
+                throw new EOFException("EOF found inside tag value.");
+            }
+
+            tagNo |= (b & 0x7f);
+        }
+
+        return tagNo;
+    }
+
+    /**
+     * Read a length, checking that a definite length fits in what is left of the buffer.
+     */
+    private int readLength()
+        throws IOException
+    {
+        int length = read();
+        if (length < 0)
+        {
+            throw new EOFException("EOF found when length expected");
+        }
+
+        if (length == 0x80)
+        {
+            return -1;      // indefinite-length encoding
+        }
+
+        if (length > 127)
+        {
+            int size = length & 0x7f;
+
+            // Note: The invalid long form "0xff" (see X.690 8.1.3.5c) will be caught here
+            if (size > 4)
+            {
+                throw new IOException("DER length more than 4 bytes: " + size);
+            }
+
+            length = 0;
+            for (int i = 0; i < size; i++)
+            {
+                int next = read();
+
+                if (next < 0)
+                {
+                    throw new EOFException("EOF found reading length");
+                }
+
+                length = (length << 8) + next;
+            }
+
+            if (length < 0)
+            {
+                throw new IOException("corrupted stream - negative length found");
+            }
+        }
+
+        if (length > buf.remaining())
+        {
+            throw new EOFException("DEF length " + length + " object truncated by " + (length - buf.remaining()));
+        }
+
+        return length;
+    }
+
+    private void checkIndefinite(
+        int tag)
+        throws IOException
+    {
+        if ((tag & CONSTRUCTED) == 0)
+        {
+            throw new IOException("indefinite length primitive encoding encountered");
+        }
+    }
+
+    /**
+     * Move past the contents of an indefinite length object, up to and including the
+     * end-of-contents octets.
+     */
+    private void skipIndefiniteContents()
+        throws IOException
+    {
+        for (;;)
+        {
+            int tag = read();
+
+            if (tag < 0)
+            {
+                throw new EOFException("EOF found before end-of-contents marker");
+            }
+
+            if (tag == 0)
+            {
+                if (read() != 0)
+                {
+                    throw new IOException("malformed end-of-contents marker");
+                }
+
+                return;
+            }
+
+            readTagNumber(tag);
+
+            int length = readLength();
+
+            if (length < 0)
+            {
+                checkIndefinite(tag);
+                skipIndefiniteContents();
+            }
+            else
+            {
+                buf.position(buf.position() + length);
+            }
+        }
+    }
+
+    private ByteBuffer slice(
+        int start,
+        int end)
+    {
+        ByteBuffer view = buf.duplicate();
+
+        view.limit(end);
+        view.position(start);
+
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Input stream reading from a ByteBuffer, used to hand indefinite length
+     * encodings to ASN1InputStream.
+     */
+    private static class BufferInputStream
+        extends InputStream
+    {
+        private final ByteBuffer buf;
+
+        BufferInputStream(
+            ByteBuffer buf)
+        {
+            this.buf = buf;
+        }
+
+        public int read()
+        {
+            if (!buf.hasRemaining())
+            {
+                return -1;
+            }
+
+            return buf.get() & 0xff;
+        }
+
+        public int read(byte[] b, int off, int len)
+        {
+            if (!buf.hasRemaining())
+            {
+                return -1;
+            }
+
+            len = Math.min(len, buf.remaining());
+
+            buf.get(b, off, len);
+
+            return len;
+        }
+
+        public int available()
+        {
+            return buf.remaining();
+        }
+    }
+}
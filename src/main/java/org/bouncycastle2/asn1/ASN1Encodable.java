@@ -42,10 +42,11 @@ public abstract class ASN1Encodable
     {
         if (encoding.equals(DER))
         {
-            ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
+            DERObject               obj = this.getDERObject();
+            ByteArrayOutputStream   bOut = new ByteArrayOutputStream(obj.encodedLength());
             DEROutputStream         dOut = new DEROutputStream(bOut);
             
-            dOut.writeObject(this);
+            dOut.writeObject(obj);
             
             return bOut.toByteArray();
         }
@@ -1,7 +1,8 @@
 package org.bouncycastle2.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.Vector;
 
@@ -252,9 +253,10 @@ abstract public class ASN1Set
     }
 
     /**
-     * return true if a <= b (arrays are assumed padded with zeros).
+     * compare two encodings as unsigned octet strings, where a shorter array
+     * that is a prefix of a longer one sorts first (arrays are assumed padded with zeros).
      */
-    private boolean lessThanOrEqual(
+    private static int compare(
          byte[] a,
          byte[] b)
     {
@@ -263,70 +265,73 @@ abstract public class ASN1Set
         {
             if (a[i] != b[i])
             {
-                return (a[i] & 0xff) < (b[i] & 0xff);
+                return (a[i] & 0xff) < (b[i] & 0xff) ? -1 : 1;
             }
         }
-        return len == a.length;
+        return a.length - b.length;
     }
 
-    private byte[] getEncoded(
-        DEREncodable obj)
+    protected void sort()
     {
-        ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-        ASN1OutputStream        aOut = new ASN1OutputStream(bOut);
+        sortEncodings();
+    }
 
-        try
-        {
-            aOut.writeObject(obj);
-        }
-        catch (IOException e)
+    /**
+     * Sort the elements into ascending order of their DER encodings, as DER requires, encoding
+     * each element only once. The sort is stable so elements with equal encodings keep
+     * their order.
+     *
+     * @return the DER encodings of the elements in sorted order, or null if there was nothing
+     * to sort.
+     */
+    byte[][] sortEncodings()
+    {
+        int size = set.size();
+
+        if (size < 2)
         {
-            throw new IllegalArgumentException("cannot encode object added to SET");
+            return null;
         }
 
-        return bOut.toByteArray();
-    }
+        final byte[][]  encodings = new byte[size][];
+        Object[]        elements = new Object[size];
+        Integer[]       order = new Integer[size];
 
-    protected void sort()
-    {
-        if (set.size() > 1)
+        for (int i = 0; i != size; i++)
         {
-            boolean    swapped = true;
-            int        lastSwap = set.size() - 1;
+            elements[i] = set.elementAt(i);
+            order[i] = new Integer(i);
 
-            while (swapped)
+            try
             {
-                int    index = 0;
-                int    swapIndex = 0;
-                byte[] a = getEncoded((DEREncodable)set.elementAt(0));
-                
-                swapped = false;
-
-                while (index != lastSwap)
-                {
-                    byte[] b = getEncoded((DEREncodable)set.elementAt(index + 1));
-
-                    if (lessThanOrEqual(a, b))
-                    {
-                        a = b;
-                    }
-                    else
-                    {
-                        Object  o = set.elementAt(index);
+                // the DER encoding, so the bytes can be written out as they are by DERSet.
+                encodings[i] = DEROutputStream.toDERObject(elements[i]).getEncoded(DER);
+            }
+            catch (IOException e)
+            {
+                throw new IllegalArgumentException("cannot encode object added to SET");
+            }
+        }
 
-                        set.setElementAt(set.elementAt(index + 1), index);
-                        set.setElementAt(o, index + 1);
+        Arrays.sort(order, new Comparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ASN1Set.compare(encodings[((Integer)o1).intValue()], encodings[((Integer)o2).intValue()]);
+            }
+        });
 
-                        swapped = true;
-                        swapIndex = index;
-                    }
+        byte[][] sorted = new byte[size][];
 
-                    index++;
-                }
+        for (int i = 0; i != size; i++)
+        {
+            int pos = order[i].intValue();
 
-                lastSwap = swapIndex;
-            }
+            set.setElementAt(elements[pos], i);
+            sorted[i] = encodings[pos];
         }
+
+        return sorted;
     }
 
     protected void addObject(
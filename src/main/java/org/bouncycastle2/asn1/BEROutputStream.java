@@ -12,6 +12,11 @@ public class BEROutputStream
         super(os);
     }
 
+    DEROutputStream getDERSubStream()
+    {
+        return new DEROutputStream(out);
+    }
+
     public void writeObject(
         Object    obj)
         throws IOException
@@ -89,6 +89,11 @@ public class DERInteger
     {
         out.writeEncoded(INTEGER, bytes);
     }
+
+    int encodedLength()
+    {
+        return 1 + DEROutputStream.getLengthSize(bytes.length) + bytes.length;
+    }
     
     public int hashCode()
     {
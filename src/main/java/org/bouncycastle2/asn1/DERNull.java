@@ -22,4 +22,9 @@ public class DERNull
     {
         out.writeEncoded(NULL, zeroBytes);
     }
+
+    int encodedLength()
+    {
+        return 2;
+    }
 }
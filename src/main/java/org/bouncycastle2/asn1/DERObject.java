@@ -1,6 +1,7 @@
 package org.bouncycastle2.asn1;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public abstract class DERObject
     extends ASN1Encodable
@@ -17,4 +18,37 @@ public abstract class DERObject
     
     abstract void encode(DEROutputStream out)
         throws IOException;
+
+    /**
+     * Return the length of the DER encoding of this object, including the tag and length octets.
+     * <p>
+     * Constructed types use this to write their length octets before their contents, rather than
+     * encoding the contents into a buffer first. The default counts the bytes written by encode(),
+     * types which know their length directly override it.
+     */
+    int encodedLength()
+        throws IOException
+    {
+        LengthCounter counter = new LengthCounter();
+
+        new DEROutputStream(counter).writeObject(this);
+
+        return counter.length;
+    }
+
+    private static class LengthCounter
+        extends OutputStream
+    {
+        int length;
+
+        public void write(int b)
+        {
+            length++;
+        }
+
+        public void write(byte[] buf, int off, int len)
+        {
+            length += len;
+        }
+    }
 }
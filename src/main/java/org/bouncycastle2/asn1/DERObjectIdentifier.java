@@ -10,6 +10,8 @@ public class DERObjectIdentifier
 {
     String      identifier;
 
+    private byte[] body;
+
     /**
      * return an OID from the passed in object
      *
@@ -170,36 +172,53 @@ public class DERObjectIdentifier
 
     }
 
-    void encode(
-        DEROutputStream out)
+    /**
+     * Return the contents octets of the encoding, calculated on first use.
+     */
+    private synchronized byte[] getBody()
         throws IOException
     {
-        OIDTokenizer            tok = new OIDTokenizer(identifier);
-        ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-        DEROutputStream         dOut = new DEROutputStream(bOut);
+        if (body == null)
+        {
+            OIDTokenizer            tok = new OIDTokenizer(identifier);
+            ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
 
-        writeField(bOut, 
-                    Integer.parseInt(tok.nextToken()) * 40
-                    + Integer.parseInt(tok.nextToken()));
+            writeField(bOut, 
+                        Integer.parseInt(tok.nextToken()) * 40
+                        + Integer.parseInt(tok.nextToken()));
 
-        while (tok.hasMoreTokens())
-        {
-            String token = tok.nextToken();
-            if (token.length() < 18) 
-            {
-                writeField(bOut, Long.parseLong(token));
-            }
-            else
+            while (tok.hasMoreTokens())
             {
-                writeField(bOut, new BigInteger(token));
+                String token = tok.nextToken();
+                if (token.length() < 18) 
+                {
+                    writeField(bOut, Long.parseLong(token));
+                }
+                else
+                {
+                    writeField(bOut, new BigInteger(token));
+                }
             }
+
+            body = bOut.toByteArray();
         }
 
-        dOut.close();
+        return body;
+    }
 
-        byte[]  bytes = bOut.toByteArray();
+    void encode(
+        DEROutputStream out)
+        throws IOException
+    {
+        out.writeEncoded(OBJECT_IDENTIFIER, getBody());
+    }
+
+    int encodedLength()
+        throws IOException
+    {
+        int length = getBody().length;
 
-        out.writeEncoded(OBJECT_IDENTIFIER, bytes);
+        return 1 + DEROutputStream.getLengthSize(length) + length;
     }
 
     public int hashCode()
@@ -27,6 +27,11 @@ public class DEROctetString
         out.writeEncoded(OCTET_STRING, string);
     }
 
+    int encodedLength()
+    {
+        return 1 + DEROutputStream.getLengthSize(string.length) + string.length;
+    }
+
     static void encode(
         DEROutputStream derOut,
         byte[]          bytes)
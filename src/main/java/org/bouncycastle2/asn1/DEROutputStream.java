@@ -13,7 +13,7 @@ public class DEROutputStream
         super(os);
     }
 
-    private void writeLength(
+    void writeLength(
         int length)
         throws IOException
     {
@@ -40,6 +40,50 @@ public class DEROutputStream
         }
     }
 
+    /**
+     * Return the number of octets writeLength() will use for the passed in length.
+     */
+    static int getLengthSize(
+        int length)
+    {
+        int size = 1;
+
+        if (length > 127)
+        {
+            int val = length;
+
+            while (val != 0)
+            {
+                val >>>= 8;
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Return the number of octets writeTag() will use for the passed in tag number.
+     */
+    static int getTagSize(
+        int tagNo)
+    {
+        int size = 1;
+
+        if (tagNo >= 31)
+        {
+            size++;
+
+            while (tagNo > 127)
+            {
+                tagNo >>= 7;
+                size++;
+            }
+        }
+
+        return size;
+    }
+
     void writeEncoded(
         int     tag,
         byte[]  bytes)
@@ -91,6 +135,41 @@ public class DEROutputStream
         write(bytes);
     }
 
+    /**
+     * Return a stream for writing the contents of a DER constructed object. Here that is
+     * this stream, streams that would write BER encodings return a DER stream over their
+     * underlying output.
+     */
+    DEROutputStream getDERSubStream()
+    {
+        return this;
+    }
+
+    /**
+     * Return the DERObject written for obj by writeObject().
+     */
+    static DERObject toDERObject(
+        Object    obj)
+        throws IOException
+    {
+        if (obj == null)
+        {
+            return DERNull.INSTANCE;
+        }
+        else if (obj instanceof DERObject)
+        {
+            return (DERObject)obj;
+        }
+        else if (obj instanceof DEREncodable)
+        {
+            return ((DEREncodable)obj).getDERObject();
+        }
+        else
+        {
+            throw new IOException("object not DEREncodable");
+        }
+    }
+
     protected void writeNull()
         throws IOException
     {
@@ -1,12 +1,14 @@
 package org.bouncycastle2.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Enumeration;
 
 public class DERSequence
     extends ASN1Sequence
 {
+    private DERObject[] derObjects;
+    private int         bodyLength;
+
     /**
      * create an empty sequence
      */
@@ -59,22 +61,73 @@ public class DERSequence
         DEROutputStream out)
         throws IOException
     {
-        // TODO Intermediate buffer could be avoided if we could calculate expected length
-        ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-        DEROutputStream         dOut = new DEROutputStream(bOut);
-        Enumeration             e = this.getObjects();
+        out.write(SEQUENCE | CONSTRUCTED);
+        out.writeLength(getBodyLength());
 
-        while (e.hasMoreElements())
-        {
-            Object    obj = e.nextElement();
+        encodeBody(out.getDERSubStream());
+    }
+
+    int encodedLength()
+        throws IOException
+    {
+        int length = getBodyLength();
+
+        return 1 + DEROutputStream.getLengthSize(length) + length;
+    }
+
+    /**
+     * Return the length of the contents octets.
+     */
+    synchronized int getBodyLength()
+        throws IOException
+    {
+        getDERObjects();
+
+        return bodyLength;
+    }
 
-            dOut.writeObject(obj);
+    /**
+     * Write the contents octets, the DER encodings of the elements.
+     */
+    synchronized void encodeBody(
+        DEROutputStream dOut)
+        throws IOException
+    {
+        DERObject[] objs = getDERObjects();
+
+        for (int i = 0; i != objs.length; i++)
+        {
+            objs[i].encode(dOut);
         }
 
-        dOut.close();
+        derObjects = null;
+    }
 
-        byte[]  bytes = bOut.toByteArray();
+    /**
+     * The elements are resolved to DERObjects, and their lengths added up, when the length
+     * is first needed and kept until the body has been written - getDERObject() on an
+     * ASN1Encodable will usually build a new object every time it is called. Nothing is kept
+     * after that, as the elements may change before the next encoding.
+     */
+    private synchronized DERObject[] getDERObjects()
+        throws IOException
+    {
+        if (derObjects == null)
+        {
+            DERObject[]  objs = new DERObject[size()];
+            Enumeration  e = this.getObjects();
+            int          length = 0;
+
+            for (int i = 0; i != objs.length; i++)
+            {
+                objs[i] = DEROutputStream.toDERObject(e.nextElement());
+                length += objs[i].encodedLength();
+            }
+
+            bodyLength = length;
+            derObjects = objs;
+        }
 
-        out.writeEncoded(SEQUENCE | CONSTRUCTED, bytes);
+        return derObjects;
     }
 }
@@ -1,6 +1,5 @@
 package org.bouncycastle2.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Enumeration;
 
@@ -10,6 +9,10 @@ import java.util.Enumeration;
 public class DERSet
     extends ASN1Set
 {
+    private byte[][]    encodings;
+    private DERObject[] derObjects;
+    private int         bodyLength;
+
     /**
      * create an empty set
      */
@@ -67,6 +70,16 @@ public class DERSet
         }
     }
 
+    /**
+     * Sort the elements, keeping the encodings calculated for the sort so they can be
+     * written out as they are the first time the set is encoded.
+     */
+    protected synchronized void sort()
+    {
+        encodings = sortEncodings();
+        derObjects = null;
+    }
+
     /*
      * A note on the implementation:
      * <p>
@@ -79,22 +92,92 @@ public class DERSet
         DEROutputStream out)
         throws IOException
     {
-        // TODO Intermediate buffer could be avoided if we could calculate expected length
-        ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-        DEROutputStream         dOut = new DEROutputStream(bOut);
-        Enumeration             e = this.getObjects();
+        out.write(SET | CONSTRUCTED);
+        out.writeLength(getBodyLength());
 
-        while (e.hasMoreElements())
-        {
-            Object    obj = e.nextElement();
+        encodeBody(out.getDERSubStream());
+    }
+
+    int encodedLength()
+        throws IOException
+    {
+        int length = getBodyLength();
+
+        return 1 + DEROutputStream.getLengthSize(length) + length;
+    }
+
+    /**
+     * Return the length of the contents octets.
+     */
+    synchronized int getBodyLength()
+        throws IOException
+    {
+        getDERObjects();
 
-            dOut.writeObject(obj);
+        return bodyLength;
+    }
+
+    /**
+     * Write the contents octets, the DER encodings of the elements.
+     */
+    synchronized void encodeBody(
+        DEROutputStream dOut)
+        throws IOException
+    {
+        DERObject[] objs = getDERObjects();
+
+        for (int i = 0; i != objs.length; i++)
+        {
+            if (objs[i] != null)
+            {
+                objs[i].encode(dOut);
+            }
+            else
+            {
+                dOut.write(encodings[i]);
+            }
         }
 
-        dOut.close();
+        encodings = null;
+        derObjects = null;
+    }
+
+    /**
+     * The elements are resolved to DERObjects, and their lengths added up, when the length
+     * is first needed and kept until the body has been written - getDERObject() on an
+     * ASN1Encodable will usually build a new object every time it is called. Elements with
+     * an encoding kept from sorting are left unresolved, but those encodings are only used
+     * for the first encoding of the set. Nothing is kept after that, as the elements may
+     * change before the next encoding.
+     */
+    private synchronized DERObject[] getDERObjects()
+        throws IOException
+    {
+        if (derObjects == null)
+        {
+            DERObject[]  objs = new DERObject[size()];
+            Enumeration  e = this.getObjects();
+            int          length = 0;
+
+            for (int i = 0; i != objs.length; i++)
+            {
+                Object obj = e.nextElement();
 
-        byte[]  bytes = bOut.toByteArray();
+                if (encodings != null && encodings[i] != null)
+                {
+                    length += encodings[i].length;
+                }
+                else
+                {
+                    objs[i] = DEROutputStream.toDERObject(obj);
+                    length += objs[i].encodedLength();
+                }
+            }
+
+            bodyLength = length;
+            derObjects = objs;
+        }
 
-        out.writeEncoded(SET | CONSTRUCTED, bytes);
+        return derObjects;
     }
 }
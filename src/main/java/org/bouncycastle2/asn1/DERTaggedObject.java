@@ -12,6 +12,8 @@ public class DERTaggedObject
 {
     private static final byte[] ZERO_BYTES = new byte[0];
 
+    private DERObject derObject;
+
     /**
      * @param tagNo the tag number for this object.
      * @param obj the tagged object.
@@ -52,14 +54,35 @@ public class DERTaggedObject
     {
         if (!empty)
         {
-            byte[] bytes = obj.getDERObject().getEncoded(DER);
+            DERObject       inner = getInnerObject();
+            DEROutputStream dOut = out.getDERSubStream();
 
             if (explicit)
             {
-                out.writeEncoded(CONSTRUCTED | TAGGED, tagNo, bytes);
+                out.writeTag(CONSTRUCTED | TAGGED, tagNo);
+                out.writeLength(inner.encodedLength());
+                inner.encode(dOut);
+            }
+            else if (inner instanceof DERSequence)
+            {
+                DERSequence seq = (DERSequence)inner;
+
+                out.writeTag(CONSTRUCTED | TAGGED, tagNo);
+                out.writeLength(seq.getBodyLength());
+                seq.encodeBody(dOut);
+            }
+            else if (inner instanceof DERSet)
+            {
+                DERSet set = (DERSet)inner;
+
+                out.writeTag(CONSTRUCTED | TAGGED, tagNo);
+                out.writeLength(set.getBodyLength());
+                set.encodeBody(dOut);
             }
             else
             {
+                byte[] bytes = inner.getEncoded(DER);
+
                 //
                 // need to mark constructed types...
                 //
@@ -76,10 +99,67 @@ public class DERTaggedObject
                 out.writeTag(flags, tagNo);
                 out.write(bytes, 1, bytes.length - 1);
             }
+
+            releaseInnerObject();
         }
         else
         {
             out.writeEncoded(CONSTRUCTED | TAGGED, tagNo, ZERO_BYTES);
         }
     }
+
+    int encodedLength()
+        throws IOException
+    {
+        int tagLength = DEROutputStream.getTagSize(tagNo);
+
+        if (empty)
+        {
+            return tagLength + 1;
+        }
+
+        DERObject inner = getInnerObject();
+        int       length;
+
+        if (explicit)
+        {
+            length = inner.encodedLength();
+        }
+        else if (inner instanceof DERSequence)
+        {
+            length = ((DERSequence)inner).getBodyLength();
+        }
+        else if (inner instanceof DERSet)
+        {
+            length = ((DERSet)inner).getBodyLength();
+        }
+        else
+        {
+            // implicit tagging replaces the object's own (single octet) tag
+            return tagLength + inner.encodedLength() - 1;
+        }
+
+        return tagLength + DEROutputStream.getLengthSize(length) + length;
+    }
+
+    /**
+     * The tagged object is resolved when the length is first needed and kept until it has
+     * been written, as getDERObject() on an ASN1Encodable will usually build a new object
+     * every time it is called. It is not kept after that, as the object may change before
+     * the next encoding.
+     */
+    private synchronized DERObject getInnerObject()
+    {
+        if (derObject == null)
+        {
+            derObject = obj.getDERObject();
+        }
+
+        return derObject;
+    }
+
+    private synchronized void releaseInnerObject()
+    {
+        derObject = null;
+    }
 }
@@ -72,4 +72,21 @@ public class LazyDERSequence
     {
         out.writeEncoded(SEQUENCE | CONSTRUCTED, encoded);
     }
+
+    int encodedLength()
+    {
+        return 1 + DEROutputStream.getLengthSize(encoded.length) + encoded.length;
+    }
+
+    int getBodyLength()
+    {
+        return encoded.length;
+    }
+
+    void encodeBody(
+        DEROutputStream dOut)
+        throws IOException
+    {
+        dOut.write(encoded);
+    }
 }
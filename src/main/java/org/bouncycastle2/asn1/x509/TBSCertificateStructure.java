@@ -22,6 +22,10 @@ import org.bouncycastle2.asn1.pkcs.PKCSObjectIdentifiers;
  * <p>
  * Note: issuerUniqueID and subjectUniqueID are both deprecated by the IETF. This class
  * will parse them, but you really shouldn't be creating new ones.
+ * <p>
+ * The names, the public key info and the optional fields are only decoded when they are
+ * first asked for, so code that just needs the serial number, validity or signature
+ * algorithm of a certificate does not pay for the rest of it.
  */
 public class TBSCertificateStructure
     extends ASN1Encodable
@@ -40,6 +44,9 @@ public class TBSCertificateStructure
     DERBitString            subjectUniqueId;
     X509Extensions          extensions;
 
+    private int             seqStart;
+    private boolean         extrasDecoded;
+
     public static TBSCertificateStructure getInstance(
         ASN1TaggedObject obj,
         boolean          explicit)
@@ -65,8 +72,6 @@ public class TBSCertificateStructure
     public TBSCertificateStructure(
         ASN1Sequence  seq)
     {
-        int         seqStart = 0;
-
         this.seq = seq;
 
         //
@@ -85,7 +90,6 @@ public class TBSCertificateStructure
         serialNumber = DERInteger.getInstance(seq.getObjectAt(seqStart + 1));
 
         signature = AlgorithmIdentifier.getInstance(seq.getObjectAt(seqStart + 2));
-        issuer = X509Name.getInstance(seq.getObjectAt(seqStart + 3));
 
         //
         // before and after dates
@@ -94,13 +98,14 @@ public class TBSCertificateStructure
 
         startDate = Time.getInstance(dates.getObjectAt(0));
         endDate = Time.getInstance(dates.getObjectAt(1));
+    }
 
-        subject = X509Name.getInstance(seq.getObjectAt(seqStart + 5));
-
-        //
-        // public key info.
-        //
-        subjectPublicKeyInfo = SubjectPublicKeyInfo.getInstance(seq.getObjectAt(seqStart + 6));
+    private synchronized void decodeExtras()
+    {
+        if (extrasDecoded)
+        {
+            return;
+        }
 
         for (int extras = seq.size() - (seqStart + 6) - 1; extras > 0; extras--)
         {
@@ -118,6 +123,8 @@ public class TBSCertificateStructure
                 extensions = X509Extensions.getInstance(extra);
             }
         }
+
+        extrasDecoded = true;
     }
 
     public int getVersion()
@@ -140,8 +147,13 @@ public class TBSCertificateStructure
         return signature;
     }
 
-    public X509Name getIssuer()
+    public synchronized X509Name getIssuer()
     {
+        if (issuer == null)
+        {
+            issuer = X509Name.getInstance(seq.getObjectAt(seqStart + 3));
+        }
+
         return issuer;
     }
 
@@ -155,28 +167,44 @@ public class TBSCertificateStructure
         return endDate;
     }
 
-    public X509Name getSubject()
+    public synchronized X509Name getSubject()
     {
+        if (subject == null)
+        {
+            subject = X509Name.getInstance(seq.getObjectAt(seqStart + 5));
+        }
+
         return subject;
     }
 
-    public SubjectPublicKeyInfo getSubjectPublicKeyInfo()
+    public synchronized SubjectPublicKeyInfo getSubjectPublicKeyInfo()
     {
+        if (subjectPublicKeyInfo == null)
+        {
+            subjectPublicKeyInfo = SubjectPublicKeyInfo.getInstance(seq.getObjectAt(seqStart + 6));
+        }
+
         return subjectPublicKeyInfo;
     }
 
     public DERBitString getIssuerUniqueId()
     {
+        decodeExtras();
+
         return issuerUniqueId;
     }
 
     public DERBitString getSubjectUniqueId()
     {
+        decodeExtras();
+
         return subjectUniqueId;
     }
 
     public X509Extensions getExtensions()
     {
+        decodeExtras();
+
         return extensions;
     }
 
@@ -54,7 +54,6 @@ public class X509CertificateStructure
         //
         if (seq.size() == 3)
         {
-            tbsCert = TBSCertificateStructure.getInstance(seq.getObjectAt(0));
             sigAlgId = AlgorithmIdentifier.getInstance(seq.getObjectAt(1));
 
             sig = DERBitString.getInstance(seq.getObjectAt(2));
@@ -65,44 +64,52 @@ public class X509CertificateStructure
         }
     }
 
-    public TBSCertificateStructure getTBSCertificate()
+    /**
+     * Return the TBSCertificate, which is decoded the first time it is asked for.
+     */
+    public synchronized TBSCertificateStructure getTBSCertificate()
     {
+        if (tbsCert == null)
+        {
+            tbsCert = TBSCertificateStructure.getInstance(seq.getObjectAt(0));
+        }
+
         return tbsCert;
     }
 
     public int getVersion()
     {
-        return tbsCert.getVersion();
+        return getTBSCertificate().getVersion();
     }
 
     public DERInteger getSerialNumber()
     {
-        return tbsCert.getSerialNumber();
+        return getTBSCertificate().getSerialNumber();
     }
 
     public X509Name getIssuer()
     {
-        return tbsCert.getIssuer();
+        return getTBSCertificate().getIssuer();
     }
 
     public Time getStartDate()
     {
-        return tbsCert.getStartDate();
+        return getTBSCertificate().getStartDate();
     }
 
     public Time getEndDate()
     {
-        return tbsCert.getEndDate();
+        return getTBSCertificate().getEndDate();
     }
 
     public X509Name getSubject()
     {
-        return tbsCert.getSubject();
+        return getTBSCertificate().getSubject();
     }
 
     public SubjectPublicKeyInfo getSubjectPublicKeyInfo()
     {
-        return tbsCert.getSubjectPublicKeyInfo();
+        return getTBSCertificate().getSubjectPublicKeyInfo();
     }
 
     public AlgorithmIdentifier getSignatureAlgorithm()
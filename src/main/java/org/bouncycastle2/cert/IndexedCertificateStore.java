@@ -0,0 +1,375 @@
+package org.bouncycastle2.cert;
+
+import org.bouncycastle2.asn1.ASN1Object;
+import org.bouncycastle2.asn1.ASN1OctetString;
+import org.bouncycastle2.asn1.x509.X509Extension;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.digests.SHA1Digest;
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.util.Arrays;
+import org.bouncycastle2.util.Selector;
+import org.bouncycastle2.util.Store;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
+import java.security.cert.CertSelector;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A collection backed store of certificates with indexes for the usual ways of looking a
+ * certificate up.
+ * <p>
+ * The store may hold X509CertificateHolder and java.security.cert.X509Certificate objects.
+ * Selectors that are X509CertSelectors - including X509CertStoreSelector and SignerId - are
+ * answered from an index on, in order of preference, the certificate itself, the serial number,
+ * the subject key identifier or the subject. The index entries found are then passed through the
+ * selector, so the result is always the same as a scan of the collection would give, in the same
+ * order. Entries that are not certificates, or cannot be indexed, are always passed to the
+ * selector. Any other selector, or an X509CertSelector with none of those criteria set, falls back
+ * to a scan.
+ * <p>
+ * Each index is built the first time it is needed. Subjects are indexed in the canonical form
+ * defined by X500Principal, so names that only differ in encoding are found together. For
+ * X509CertificateHolder objects without a subject key identifier extension the SHA-1 hash of the
+ * public key info is also indexed, as SignerId allows for that.
+ */
+public class IndexedCertificateStore
+    implements Store
+{
+    private static final int CERTIFICATE = 0;
+    private static final int SERIAL_NUMBER = 1;
+    private static final int SUBJECT_KEY_ID = 2;
+    private static final int SUBJECT = 3;
+
+    private final List   local;
+    private final Map[]  indexes = new Map[4];
+    private final List[] unindexed = new List[4];
+
+    /**
+     * Basic constructor.
+     *
+     * @param collection - initial contents for the store, this is copied.
+     */
+    public IndexedCertificateStore(
+        Collection collection)
+    {
+        local = new ArrayList(collection);
+    }
+
+    /**
+     * Return the matches in the collection for the passed in selector.
+     *
+     * @param selector the selector to match against.
+     * @return a possibly empty collection of matching objects.
+     */
+    public Collection getMatches(Selector selector)
+    {
+        if (selector == null)
+        {
+            return new ArrayList(local);
+        }
+
+        List candidates = local;
+
+        if (selector instanceof X509CertSelector)
+        {
+            candidates = getCandidates((X509CertSelector)selector);
+        }
+
+        List col = new ArrayList();
+
+        for (int i = 0; i != candidates.size(); i++)
+        {
+            Object obj = candidates.get(i);
+
+            if (selector.match(obj))
+            {
+                col.add(obj);
+            }
+        }
+
+        return col;
+    }
+
+    /**
+     * Return the certificates in the collection matching the passed in JCA selector. Objects in
+     * the collection that are not java.security.cert.Certificates are never returned.
+     *
+     * @param selector the selector to match against, null to return all certificates.
+     * @return a possibly empty collection of matching certificates.
+     */
+    public Collection getCertificates(CertSelector selector)
+    {
+        List candidates = local;
+
+        if (selector instanceof X509CertSelector)
+        {
+            candidates = getCandidates((X509CertSelector)selector);
+        }
+
+        List col = new ArrayList();
+
+        for (int i = 0; i != candidates.size(); i++)
+        {
+            Object obj = candidates.get(i);
+
+            if ((obj instanceof Certificate) && (selector == null || selector.match((Certificate)obj)))
+            {
+                col.add(obj);
+            }
+        }
+
+        return col;
+    }
+
+    /**
+     * Return the candidates for a selector from the most specific index we can use, the whole
+     * collection if none apply.
+     */
+    private List getCandidates(X509CertSelector selector)
+    {
+        Object key;
+
+        try
+        {
+            if (selector.getCertificate() != null)
+            {
+                key = new IndexKey(hash(new SHA256Digest(), selector.getCertificate().getEncoded()));
+
+                return lookUp(CERTIFICATE, key);
+            }
+            if (selector.getSerialNumber() != null)
+            {
+                return lookUp(SERIAL_NUMBER, selector.getSerialNumber());
+            }
+            if (selector.getSubjectKeyIdentifier() != null)
+            {
+                key = new IndexKey(ASN1OctetString.getInstance(ASN1Object.fromByteArray(selector.getSubjectKeyIdentifier())).getOctets());
+
+                return lookUp(SUBJECT_KEY_ID, key);
+            }
+            if (selector.getSubjectAsBytes() != null)
+            {
+                return lookUp(SUBJECT, new X500Principal(selector.getSubjectAsBytes()).getName(X500Principal.CANONICAL));
+            }
+        }
+        catch (Exception e)
+        {
+            // criteria we can't interpret - let the selector decide.
+        }
+
+        return local;
+    }
+
+    /**
+     * Return the entries for key from the index of the given type, together with any entries
+     * that could not be indexed, in collection order.
+     */
+    private List lookUp(int type, Object key)
+    {
+        List positions;
+        List others;
+
+        synchronized (this)
+        {
+            positions = (List)getIndex(type).get(key);
+            others = unindexed[type];
+        }
+
+        if (positions == null)
+        {
+            positions = Collections.EMPTY_LIST;
+        }
+
+        List entries = new ArrayList(positions.size() + others.size());
+        int  i = 0, j = 0;
+
+        while (i < positions.size() || j < others.size())
+        {
+            if (j == others.size()
+                || (i < positions.size() && ((Integer)positions.get(i)).intValue() < ((Integer)others.get(j)).intValue()))
+            {
+                entries.add(local.get(((Integer)positions.get(i++)).intValue()));
+            }
+            else
+            {
+                entries.add(local.get(((Integer)others.get(j++)).intValue()));
+            }
+        }
+
+        return entries;
+    }
+
+    private Map getIndex(int type)
+    {
+        if (indexes[type] == null)
+        {
+            Map  index = new HashMap();
+            List others = new ArrayList();
+
+            for (int i = 0; i != local.size(); i++)
+            {
+                Object  obj = local.get(i);
+                Integer position = new Integer(i);
+
+                if (!(obj instanceof X509CertificateHolder || obj instanceof X509Certificate))
+                {
+                    others.add(position);
+                    continue;
+                }
+
+                Object key;
+                Object keyHash = null;
+
+                try
+                {
+                    key = getKey(type, obj);
+
+                    if (type == SUBJECT_KEY_ID && obj instanceof X509CertificateHolder)
+                    {
+                        // SignerId also accepts the hash of the public key info.
+                        X509CertificateHolder cert = (X509CertificateHolder)obj;
+
+                        if (cert.getExtension(X509Extension.subjectKeyIdentifier) == null)
+                        {
+                            keyHash = new IndexKey(hash(new SHA1Digest(), cert.getSubjectPublicKeyInfo().getDEREncoded()));
+                        }
+                    }
+                }
+                catch (Exception e)
+                {
+                    // malformed entry - leave it to the selector.
+                    others.add(position);
+                    continue;
+                }
+
+                addPosition(index, key, position);
+                addPosition(index, keyHash, position);
+            }
+
+            indexes[type] = index;
+            unindexed[type] = others;
+        }
+
+        return indexes[type];
+    }
+
+    private static void addPosition(Map index, Object key, Integer position)
+    {
+        if (key == null)
+        {
+            return;
+        }
+
+        List positions = (List)index.get(key);
+
+        if (positions == null)
+        {
+            positions = new ArrayList(1);
+            index.put(key, positions);
+        }
+
+        positions.add(position);
+    }
+
+    private static Object getKey(int type, Object obj)
+        throws IOException, CertificateEncodingException
+    {
+        if (obj instanceof X509CertificateHolder)
+        {
+            X509CertificateHolder cert = (X509CertificateHolder)obj;
+
+            switch (type)
+            {
+            case CERTIFICATE:
+                return new IndexKey(hash(new SHA256Digest(), cert.getEncoded()));
+            case SERIAL_NUMBER:
+                return cert.getSerialNumber();
+            case SUBJECT_KEY_ID:
+                X509Extension ext = cert.getExtension(X509Extension.subjectKeyIdentifier);
+
+                if (ext != null)
+                {
+                    return new IndexKey(ASN1OctetString.getInstance(ext.getParsedValue()).getOctets());
+                }
+                return null;
+            default:
+                return new X500Principal(cert.getSubject().getEncoded()).getName(X500Principal.CANONICAL);
+            }
+        }
+
+        if (obj instanceof X509Certificate)
+        {
+            X509Certificate cert = (X509Certificate)obj;
+
+            switch (type)
+            {
+            case CERTIFICATE:
+                return new IndexKey(hash(new SHA256Digest(), cert.getEncoded()));
+            case SERIAL_NUMBER:
+                return cert.getSerialNumber();
+            case SUBJECT_KEY_ID:
+                byte[] ext = cert.getExtensionValue(X509Extension.subjectKeyIdentifier.getId());
+
+                if (ext != null)
+                {
+                    ASN1OctetString keyId = ASN1OctetString.getInstance(ASN1Object.fromByteArray(
+                        ASN1OctetString.getInstance(ASN1Object.fromByteArray(ext)).getOctets()));
+
+                    return new IndexKey(keyId.getOctets());
+                }
+                return null;
+            default:
+                return cert.getSubjectX500Principal().getName(X500Principal.CANONICAL);
+            }
+        }
+
+        return null;
+    }
+
+    private static byte[] hash(Digest digest, byte[] data)
+    {
+        byte[] hash = new byte[digest.getDigestSize()];
+
+        digest.update(data, 0, data.length);
+        digest.doFinal(hash, 0);
+
+        return hash;
+    }
+
+    private static class IndexKey
+    {
+        private final byte[] value;
+        private final int    hashCode;
+
+        IndexKey(byte[] value)
+        {
+            this.value = value;
+            this.hashCode = Arrays.hashCode(value);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof IndexKey))
+            {
+                return false;
+            }
+
+            return Arrays.areEqual(value, ((IndexKey)o).value);
+        }
+    }
+}
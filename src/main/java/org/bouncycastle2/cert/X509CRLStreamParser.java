@@ -0,0 +1,259 @@
+package org.bouncycastle2.cert;
+
+import org.bouncycastle2.asn1.ASN1Sequence;
+import org.bouncycastle2.asn1.ASN1SequenceParser;
+import org.bouncycastle2.asn1.ASN1StreamParser;
+import org.bouncycastle2.asn1.ASN1TaggedObjectParser;
+import org.bouncycastle2.asn1.DERBitString;
+import org.bouncycastle2.asn1.DEREncodable;
+import org.bouncycastle2.asn1.DEREnumerated;
+import org.bouncycastle2.asn1.DERInteger;
+import org.bouncycastle2.asn1.DERGeneralizedTime;
+import org.bouncycastle2.asn1.DERUTCTime;
+import org.bouncycastle2.asn1.x500.X500Name;
+import org.bouncycastle2.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle2.asn1.x509.TBSCertList;
+import org.bouncycastle2.asn1.x509.Time;
+import org.bouncycastle2.asn1.x509.X509Extension;
+import org.bouncycastle2.asn1.x509.X509Extensions;
+import org.bouncycastle2.operator.ContentVerifier;
+import org.bouncycastle2.operator.ContentVerifierProvider;
+import org.bouncycastle2.operator.OperatorCreationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streaming parser for large X.509 CRLs.
+ * <p>
+ * Rather than building the full CertificateList object tree, the parser walks the encoding with
+ * an {@link ASN1StreamParser}, decoding one revoked certificate entry at a time and recording its
+ * serial number, revocation date and reason code in an {@link X509RevocationIndex}. If a
+ * ContentVerifierProvider is given the encoded TBSCertList is passed to the verifier as it is
+ * read, so the signature is checked without the CRL ever being held in memory.
+ */
+public class X509CRLStreamParser
+{
+    private final ContentVerifierProvider verifierProvider;
+
+    /**
+     * Create a parser that does not verify the CRL signature.
+     */
+    public X509CRLStreamParser()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a parser that verifies the CRL signature using the passed in provider.
+     *
+     * @param verifierProvider a ContentVerifierProvider for the CRL issuer's key.
+     */
+    public X509CRLStreamParser(ContentVerifierProvider verifierProvider)
+    {
+        this.verifierProvider = verifierProvider;
+    }
+
+    /**
+     * Parse a DER encoded CRL from the passed in stream.
+     *
+     * @param in the stream to read the CRL from.
+     * @return an index of the CRL's revoked certificates.
+     * @throws IOException in the event of corrupted data, or an incorrect structure.
+     * @throws CertException if the signature cannot be processed or does not verify.
+     */
+    public X509RevocationIndex parse(InputStream in)
+        throws IOException, CertException
+    {
+        try
+        {
+            return parseCRL(new RecordingInputStream(in));
+        }
+        catch (ClassCastException e)
+        {
+            throw new CertIOException("malformed data: " + e.getMessage(), e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new CertIOException("malformed data: " + e.getMessage(), e);
+        }
+    }
+
+    private X509RevocationIndex parseCRL(RecordingInputStream rIn)
+        throws IOException, CertException
+    {
+        X509RevocationIndex index = new X509RevocationIndex();
+        ASN1StreamParser    parser = new ASN1StreamParser(rIn);
+        ASN1SequenceParser  crlParser = (ASN1SequenceParser)parser.readObject();
+
+        if (crlParser == null)
+        {
+            throw new CertIOException("malformed data: no CRL found");
+        }
+
+        //
+        // the TBSCertList header is read before we know the signature algorithm, so buffer it.
+        //
+        ByteArrayOutputStream tbsPrefix = new ByteArrayOutputStream();
+
+        rIn.setOutput(tbsPrefix);
+
+        ASN1SequenceParser tbsParser = (ASN1SequenceParser)crlParser.readObject();
+        DEREncodable       obj = tbsParser.readObject();
+
+        if (obj instanceof DERInteger)
+        {
+            obj = tbsParser.readObject();
+        }
+
+        AlgorithmIdentifier tbsSigAlgId = AlgorithmIdentifier.getInstance(((ASN1SequenceParser)obj).getLoadedObject());
+        ContentVerifier     verifier = null;
+        OutputStream        sOut = null;
+
+        if (verifierProvider != null)
+        {
+            try
+            {
+                verifier = verifierProvider.get(tbsSigAlgId);
+            }
+            catch (OperatorCreationException e)
+            {
+                throw new CertException("unable to process signature: " + e.getMessage(), e);
+            }
+
+            sOut = verifier.getOutputStream();
+            sOut.write(tbsPrefix.toByteArray());
+        }
+
+        rIn.setOutput(sOut);
+
+        index.setIssuer(X500Name.getInstance(((ASN1SequenceParser)tbsParser.readObject()).getLoadedObject()));
+        index.setThisUpdate(Time.getInstance(tbsParser.readObject()).getDate());
+
+        obj = tbsParser.readObject();
+
+        if (obj instanceof DERUTCTime || obj instanceof DERGeneralizedTime)
+        {
+            index.setNextUpdate(Time.getInstance(obj).getDate());
+            obj = tbsParser.readObject();
+        }
+
+        if (obj instanceof ASN1SequenceParser)
+        {
+            readEntries((ASN1SequenceParser)obj, index);
+            obj = tbsParser.readObject();
+        }
+
+        if (obj instanceof ASN1TaggedObjectParser)
+        {
+            index.setExtensions(X509Extensions.getInstance(((ASN1TaggedObjectParser)obj).getLoadedObject()));
+            obj = tbsParser.readObject();
+        }
+
+        if (obj != null)
+        {
+            throw new CertIOException("malformed data: unexpected object in TBSCertList");
+        }
+
+        rIn.setOutput(null);
+
+        AlgorithmIdentifier sigAlgId = AlgorithmIdentifier.getInstance(((ASN1SequenceParser)crlParser.readObject()).getLoadedObject());
+        DERBitString        sig = DERBitString.getInstance(crlParser.readObject());
+
+        if (!tbsSigAlgId.equals(sigAlgId))
+        {
+            throw new CertException("signature invalid - algorithm identifier mismatch");
+        }
+
+        if (verifier != null)
+        {
+            sOut.close();
+
+            if (!verifier.verify(sig.getBytes()))
+            {
+                throw new CertException("CRL signature does not verify");
+            }
+        }
+
+        index.setSignatureAlgorithm(sigAlgId);
+        index.seal();
+
+        return index;
+    }
+
+    private void readEntries(ASN1SequenceParser revokedParser, X509RevocationIndex index)
+        throws IOException
+    {
+        DEREncodable obj;
+
+        while ((obj = revokedParser.readObject()) != null)
+        {
+            TBSCertList.CRLEntry entry = new TBSCertList.CRLEntry(ASN1Sequence.getInstance(((ASN1SequenceParser)obj).getLoadedObject()));
+            int                  reason = X509RevocationIndex.NO_REASON;
+            X509Extensions       exts = entry.getExtensions();
+
+            if (exts != null)
+            {
+                X509Extension ext = exts.getExtension(X509Extensions.ReasonCode);
+
+                if (ext != null)
+                {
+                    reason = DEREnumerated.getInstance(ext.getParsedValue()).getValue().intValue();
+                }
+            }
+
+            index.addEntry(entry.getUserCertificate().getValue().toByteArray(),
+                entry.getRevocationDate().getDate().getTime(), reason);
+        }
+    }
+
+    /**
+     * Input stream that copies whatever is read through it to an output stream that can be
+     * changed, or turned off, as parsing progresses.
+     */
+    private static class RecordingInputStream
+        extends InputStream
+    {
+        private final InputStream in;
+
+        private OutputStream out;
+
+        RecordingInputStream(InputStream in)
+        {
+            this.in = in;
+        }
+
+        void setOutput(OutputStream out)
+        {
+            this.out = out;
+        }
+
+        public int read()
+            throws IOException
+        {
+            int b = in.read();
+
+            if (b >= 0 && out != null)
+            {
+                out.write(b);
+            }
+
+            return b;
+        }
+
+        public int read(byte[] buf, int off, int len)
+            throws IOException
+        {
+            int count = in.read(buf, off, len);
+
+            if (count > 0 && out != null)
+            {
+                out.write(buf, off, count);
+            }
+
+            return count;
+        }
+    }
+}
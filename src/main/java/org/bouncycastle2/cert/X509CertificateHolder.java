@@ -1,12 +1,14 @@
 package org.bouncycastle2.cert;
 
-import org.bouncycastle2.asn1.ASN1Object;
+import org.bouncycastle2.asn1.ASN1InputStream;
 import org.bouncycastle2.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle2.asn1.ASN1ParsingException;
 import org.bouncycastle2.asn1.cms.IssuerAndSerialNumber;
 import org.bouncycastle2.asn1.x500.X500Name;
 import org.bouncycastle2.asn1.x509.*;
 import org.bouncycastle2.operator.ContentVerifier;
 import org.bouncycastle2.operator.ContentVerifierProvider;
+import org.bouncycastle2.util.Arrays;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -17,18 +19,27 @@ import java.util.Set;
 
 /**
  * Holding class for an X.509 Certificate structure.
+ * <p>
+ * A holder created from an encoding keeps it and decodes the certificate's fields as they are
+ * asked for, so holders are cheap to create and index. Equality and the hash code are based on
+ * the encoding.
  */
 public class X509CertificateHolder
 {
     private X509CertificateStructure x509Certificate;
-    private X509Extensions extensions;
+    private boolean                  hashValueSet;
+    private int                      hashValue;
 
     private static X509CertificateStructure parseBytes(byte[] certEncoding)
         throws IOException
     {
         try
         {
-            return X509CertificateStructure.getInstance(ASN1Object.fromByteArray(certEncoding));
+            return X509CertificateStructure.getInstance(new ASN1InputStream(certEncoding, true).readObject());
+        }
+        catch (ASN1ParsingException e)
+        {
+            throw new CertIOException("malformed data: " + e.getMessage(), e);
         }
         catch (ClassCastException e)
         {
@@ -60,7 +71,11 @@ public class X509CertificateHolder
     public X509CertificateHolder(X509CertificateStructure x509Certificate)
     {
         this.x509Certificate = x509Certificate;
-        this.extensions = x509Certificate.getTBSCertificate().getExtensions();
+    }
+
+    private X509Extensions getExtensions()
+    {
+        return x509Certificate.getTBSCertificate().getExtensions();
     }
 
     public int getVersion()
@@ -75,7 +90,7 @@ public class X509CertificateHolder
      */
     public boolean hasExtensions()
     {
-        return extensions != null;
+        return getExtensions() != null;
     }
 
     /**
@@ -87,6 +102,8 @@ public class X509CertificateHolder
      */
     public X509Extension getExtension(ASN1ObjectIdentifier oid)
     {
+        X509Extensions extensions = getExtensions();
+
         if (extensions != null)
         {
             return extensions.getExtension(oid);
@@ -103,7 +120,7 @@ public class X509CertificateHolder
      */
     public List getExtensionOIDs()
     {
-        return CertUtils.getExtensionOIDs(extensions);
+        return CertUtils.getExtensionOIDs(getExtensions());
     }
 
     /**
@@ -114,7 +131,7 @@ public class X509CertificateHolder
      */
     public Set getCriticalExtensionOIDs()
     {
-        return CertUtils.getCriticalExtensionOIDs(extensions);
+        return CertUtils.getCriticalExtensionOIDs(getExtensions());
     }
 
     /**
@@ -125,7 +142,7 @@ public class X509CertificateHolder
      */
     public Set getNonCriticalExtensionOIDs()
     {
-        return CertUtils.getNonCriticalExtensionOIDs(extensions);
+        return CertUtils.getNonCriticalExtensionOIDs(getExtensions());
     }
 
     public IssuerAndSerialNumber getIssuerAndSerialNumber()
@@ -286,12 +303,37 @@ public class X509CertificateHolder
 
         X509CertificateHolder other = (X509CertificateHolder)o;
 
-        return this.x509Certificate.equals(other.x509Certificate);
+        if (this.hashCode() != other.hashCode())
+        {
+            return false;
+        }
+
+        try
+        {
+            return Arrays.areEqual(this.getEncoded(), other.getEncoded());
+        }
+        catch (IOException e)
+        {
+            return this.x509Certificate.equals(other.x509Certificate);
+        }
     }
 
-    public int hashCode()
+    public synchronized int hashCode()
     {
-        return this.x509Certificate.hashCode();
+        if (!hashValueSet)
+        {
+            try
+            {
+                hashValue = Arrays.hashCode(this.getEncoded());
+            }
+            catch (IOException e)
+            {
+                hashValue = this.x509Certificate.hashCode();
+            }
+            hashValueSet = true;
+        }
+
+        return hashValue;
     }
 
     /**
@@ -0,0 +1,425 @@
+package org.bouncycastle2.cert;
+
+import org.bouncycastle2.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle2.asn1.x500.X500Name;
+import org.bouncycastle2.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle2.asn1.x509.X509Extension;
+import org.bouncycastle2.asn1.x509.X509Extensions;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact revocation index for an X.509 CRL, as produced by {@link X509CRLStreamParser}.
+ * <p>
+ * Only the serial number, revocation date and reason code of each entry are kept. The serial
+ * numbers are stored as their DER contents octets in a single sorted byte array so the memory
+ * used is proportional to the number of entries rather than to the size of the CRL's ASN.1 tree.
+ * <p>
+ * Entries are keyed on serial number alone, so the certificate issuer extension used in indirect
+ * CRLs is not retained.
+ */
+public class X509RevocationIndex
+{
+    /**
+     * Value returned by {@link #getRevocationReason(BigInteger)} if the certificate is not on the
+     * CRL, or its entry carries no reason code.
+     */
+    public static final int NO_REASON = -1;
+
+    private X500Name            issuer;
+    private Date                thisUpdate;
+    private Date                nextUpdate;
+    private AlgorithmIdentifier sigAlgId;
+    private X509Extensions      extensions;
+
+    private int     count;
+    private byte[]  serials = new byte[1024];
+    private int[]   offsets = new int[65];
+    private long[]  dates = new long[64];
+    private byte[]  reasons = new byte[64];
+
+    X509RevocationIndex()
+    {
+    }
+
+    void setIssuer(X500Name issuer)
+    {
+        this.issuer = issuer;
+    }
+
+    void setThisUpdate(Date thisUpdate)
+    {
+        this.thisUpdate = thisUpdate;
+    }
+
+    void setNextUpdate(Date nextUpdate)
+    {
+        this.nextUpdate = nextUpdate;
+    }
+
+    void setSignatureAlgorithm(AlgorithmIdentifier sigAlgId)
+    {
+        this.sigAlgId = sigAlgId;
+    }
+
+    void setExtensions(X509Extensions extensions)
+    {
+        this.extensions = extensions;
+    }
+
+    void addEntry(byte[] serial, long revocationDate, int reason)
+    {
+        if (count == dates.length)
+        {
+            int size = count * 2;
+
+            dates = copy(dates, size);
+            reasons = copy(reasons, size);
+            offsets = copy(offsets, size + 1);
+        }
+
+        int off = offsets[count];
+
+        if (off + serial.length > serials.length)
+        {
+            serials = copy(serials, Math.max(serials.length * 2, off + serial.length));
+        }
+
+        System.arraycopy(serial, 0, serials, off, serial.length);
+
+        offsets[count + 1] = off + serial.length;
+        dates[count] = revocationDate;
+        reasons[count] = (byte)reason;
+        count++;
+    }
+
+    /**
+     * Sort the accumulated entries by serial number and trim the storage to size.
+     */
+    void seal()
+    {
+        int[] order = new int[count];
+
+        for (int i = 0; i != count; i++)
+        {
+            order[i] = i;
+        }
+
+        heapSort(order);
+
+        byte[]  sSerials = new byte[offsets[count]];
+        int[]   sOffsets = new int[count + 1];
+        long[]  sDates = new long[count];
+        byte[]  sReasons = new byte[count];
+
+        for (int i = 0; i != count; i++)
+        {
+            int pos = order[i];
+            int len = offsets[pos + 1] - offsets[pos];
+
+            System.arraycopy(serials, offsets[pos], sSerials, sOffsets[i], len);
+            sOffsets[i + 1] = sOffsets[i] + len;
+            sDates[i] = dates[pos];
+            sReasons[i] = reasons[pos];
+        }
+
+        serials = sSerials;
+        offsets = sOffsets;
+        dates = sDates;
+        reasons = sReasons;
+    }
+
+    /**
+     * Return the issuer of the CRL.
+     *
+     * @return the CRL issuer.
+     */
+    public X500Name getIssuer()
+    {
+        return issuer;
+    }
+
+    /**
+     * Return the thisUpdate date of the CRL.
+     *
+     * @return the date the CRL was issued.
+     */
+    public Date getThisUpdate()
+    {
+        return thisUpdate;
+    }
+
+    /**
+     * Return the nextUpdate date of the CRL, if present.
+     *
+     * @return the date the next CRL is due, null if not given.
+     */
+    public Date getNextUpdate()
+    {
+        return nextUpdate;
+    }
+
+    /**
+     * Return the algorithm the CRL was signed with.
+     *
+     * @return the signature algorithm identifier.
+     */
+    public AlgorithmIdentifier getSignatureAlgorithm()
+    {
+        return sigAlgId;
+    }
+
+    /**
+     * Return whether or not the CRL contains extensions.
+     *
+     * @return true if extension are present, false otherwise.
+     */
+    public boolean hasExtensions()
+    {
+        return extensions != null;
+    }
+
+    /**
+     * Look up the CRL extension associated with the passed in OID.
+     *
+     * @param oid the OID of the extension of interest.
+     *
+     * @return the extension if present, null otherwise.
+     */
+    public X509Extension getExtension(ASN1ObjectIdentifier oid)
+    {
+        if (extensions != null)
+        {
+            return extensions.getExtension(oid);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a list of ASN1ObjectIdentifier objects representing the OIDs of the
+     * extensions contained in the CRL.
+     *
+     * @return a list of extension OIDs.
+     */
+    public List getExtensionOIDs()
+    {
+        return CertUtils.getExtensionOIDs(extensions);
+    }
+
+    /**
+     * Returns a set of ASN1ObjectIdentifier objects representing the OIDs of the
+     * critical extensions contained in the CRL.
+     *
+     * @return a set of critical extension OIDs.
+     */
+    public Set getCriticalExtensionOIDs()
+    {
+        return CertUtils.getCriticalExtensionOIDs(extensions);
+    }
+
+    /**
+     * Return the number of entries on the CRL.
+     *
+     * @return the revoked certificate count.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Return whether a certificate with the passed in serial number is on the CRL.
+     *
+     * @param serialNumber the serial number of interest.
+     * @return true if the serial number is listed, false otherwise.
+     */
+    public boolean isRevoked(BigInteger serialNumber)
+    {
+        return indexOf(serialNumber.toByteArray()) >= 0;
+    }
+
+    /**
+     * Return the revocation date for the passed in serial number.
+     *
+     * @param serialNumber the serial number of interest.
+     * @return the revocation date, null if the serial number is not listed.
+     */
+    public Date getRevocationDate(BigInteger serialNumber)
+    {
+        int index = indexOf(serialNumber.toByteArray());
+
+        if (index < 0)
+        {
+            return null;
+        }
+
+        return new Date(dates[index]);
+    }
+
+    /**
+     * Return the CRLReason code for the passed in serial number.
+     *
+     * @param serialNumber the serial number of interest.
+     * @return the reason code, or NO_REASON if the serial number is not listed or has no reason code.
+     */
+    public int getRevocationReason(BigInteger serialNumber)
+    {
+        int index = indexOf(serialNumber.toByteArray());
+
+        if (index < 0)
+        {
+            return NO_REASON;
+        }
+
+        return reasons[index];
+    }
+
+    private int indexOf(byte[] serial)
+    {
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(serials, offsets[mid], offsets[mid + 1], serial, 0, serial.length);
+
+            if (cmp < 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                if (cmp == 0)
+                {
+                    found = mid;       // keep looking left for the earliest duplicate
+                }
+                high = mid - 1;
+            }
+        }
+
+        return found;
+    }
+
+    private int compare(int i, int j)
+    {
+        int cmp = compare(serials, offsets[i], offsets[i + 1], serials, offsets[j], offsets[j + 1]);
+
+        if (cmp != 0)
+        {
+            return cmp;
+        }
+
+        return i < j ? -1 : (i == j ? 0 : 1);     // duplicates keep CRL order
+    }
+
+    /**
+     * DER integer encodings are minimal, so ordering by length and then by unsigned octets
+     * gives a total order on serial numbers that needs no decoding.
+     */
+    private static int compare(byte[] a, int aOff, int aEnd, byte[] b, int bOff, int bEnd)
+    {
+        int aLen = aEnd - aOff;
+        int bLen = bEnd - bOff;
+
+        if (aLen != bLen)
+        {
+            return aLen < bLen ? -1 : 1;
+        }
+
+        for (int i = 0; i != aLen; i++)
+        {
+            int av = a[aOff + i] & 0xff;
+            int bv = b[bOff + i] & 0xff;
+
+            if (av != bv)
+            {
+                return av < bv ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    private void heapSort(int[] order)
+    {
+        int n = order.length;
+
+        for (int i = n / 2 - 1; i >= 0; i--)
+        {
+            siftDown(order, i, n);
+        }
+
+        for (int end = n - 1; end > 0; end--)
+        {
+            int tmp = order[0];
+
+            order[0] = order[end];
+            order[end] = tmp;
+
+            siftDown(order, 0, end);
+        }
+    }
+
+    private void siftDown(int[] order, int root, int n)
+    {
+        int value = order[root];
+
+        for (;;)
+        {
+            int child = 2 * root + 1;
+
+            if (child >= n)
+            {
+                break;
+            }
+
+            if (child + 1 < n && compare(order[child + 1], order[child]) > 0)
+            {
+                child++;
+            }
+
+            if (compare(order[child], value) <= 0)
+            {
+                break;
+            }
+
+            order[root] = order[child];
+            root = child;
+        }
+
+        order[root] = value;
+    }
+
+    private static byte[] copy(byte[] data, int size)
+    {
+        byte[] tmp = new byte[size];
+
+        System.arraycopy(data, 0, tmp, 0, Math.min(data.length, size));
+
+        return tmp;
+    }
+
+    private static int[] copy(int[] data, int size)
+    {
+        int[] tmp = new int[size];
+
+        System.arraycopy(data, 0, tmp, 0, Math.min(data.length, size));
+
+        return tmp;
+    }
+
+    private static long[] copy(long[] data, int size)
+    {
+        long[] tmp = new long[size];
+
+        System.arraycopy(data, 0, tmp, 0, Math.min(data.length, size));
+
+        return tmp;
+    }
+}
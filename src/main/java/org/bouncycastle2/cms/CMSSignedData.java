@@ -7,23 +7,29 @@ import org.bouncycastle2.asn1.cms.SignerInfo;
 import org.bouncycastle2.asn1.x509.AttributeCertificate;
 import org.bouncycastle2.asn1.x509.CertificateList;
 import org.bouncycastle2.asn1.x509.X509CertificateStructure;
+import org.bouncycastle2.cert.IndexedCertificateStore;
 import org.bouncycastle2.cert.X509AttributeCertificateHolder;
 import org.bouncycastle2.cert.X509CertificateHolder;
 import org.bouncycastle2.operator.DefaultSignatureAlgorithmIdentifierFinder;
+import org.bouncycastle2.operator.DigestCalculator;
+import org.bouncycastle2.operator.OperatorCreationException;
 import org.bouncycastle2.operator.SignatureAlgorithmIdentifierFinder;
 import org.bouncycastle2.util.CollectionStore;
 import org.bouncycastle2.util.Store;
+import org.bouncycastle2.util.io.TeeOutputStream;
 import org.bouncycastle2.x509.NoSuchStoreException;
 import org.bouncycastle2.x509.X509Store;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.Provider;
 import java.security.cert.CertStore;
 import java.security.cert.CertStoreException;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * general class for handling a pkcs7-signature message.
@@ -212,6 +218,121 @@ public class CMSSignedData
         return signerInfoStore;
     }
 
+    /**
+     * Verify all the signers on the message, running one verification task per signer on the
+     * passed in executor.
+     * <p>
+     * Where the content is available it is read once, with a digest being calculated for each
+     * distinct digest algorithm used by the signers with signed attributes, and each of those
+     * signers is then verified against the digest for its algorithm. Signers without signed
+     * attributes sign the content directly and are verified against the content as usual.
+     *
+     * @param verifierProvider provider of a verifier for each signer.
+     * @param executor the executor to run the verifications on.
+     * @return a map of SignerId to SignerVerificationResult, in signer order. Where signers share
+     * an id the entry is for the first of them that failed, or the first if they all verified.
+     * @throws CMSException if the content cannot be read, or the verifications are interrupted.
+     */
+    public Map verifySignatures(
+        SignerInformationVerifierProvider verifierProvider,
+        Executor                          executor)
+        throws CMSException
+    {
+        Collection signers = getSignerInfos().getSigners();
+
+        if (hashes == null && signedContent != null)
+        {
+            signers = digestContent(signers, verifierProvider);
+        }
+
+        return ConcurrentSignerVerifier.verify(signers, verifierProvider, executor);
+    }
+
+    /**
+     * Calculate the digests of the content in a single pass, returning signers with signed
+     * attributes rebuilt to use the precalculated digest for their algorithm.
+     */
+    private Collection digestContent(
+        Collection                        signers,
+        SignerInformationVerifierProvider verifierProvider)
+        throws CMSException
+    {
+        Map calculators = new HashMap();
+
+        for (Iterator it = signers.iterator(); it.hasNext();)
+        {
+            SignerInformation signer = (SignerInformation)it.next();
+
+            if (signer.getSignedAttributes() != null && calculators.get(signer.getDigestAlgOID()) == null)
+            {
+                try
+                {
+                    calculators.put(signer.getDigestAlgOID(),
+                        verifierProvider.get(signer.getSID()).getDigestCalculator(signer.getDigestAlgorithmID()));
+                }
+                catch (OperatorCreationException e)
+                {
+                    // leave it to the verification of the signer to report.
+                }
+            }
+        }
+
+        if (calculators.isEmpty())
+        {
+            return signers;
+        }
+
+        OutputStream out = null;
+
+        for (Iterator it = calculators.values().iterator(); it.hasNext();)
+        {
+            OutputStream calcOut = ((DigestCalculator)it.next()).getOutputStream();
+
+            out = (out == null) ? calcOut : new TeeOutputStream(out, calcOut);
+        }
+
+        try
+        {
+            signedContent.write(out);
+
+            out.close();
+        }
+        catch (IOException e)
+        {
+            throw new CMSException("can't process content to calculate digests.", e);
+        }
+
+        Map digests = new HashMap();
+
+        for (Iterator it = calculators.keySet().iterator(); it.hasNext();)
+        {
+            Object oid = it.next();
+
+            digests.put(oid, ((DigestCalculator)calculators.get(oid)).getDigest());
+        }
+
+        List                               digested = new ArrayList(signers.size());
+        ASN1ObjectIdentifier               contentType = signedData.getEncapContentInfo().getContentType();
+        SignatureAlgorithmIdentifierFinder sigAlgFinder = new DefaultSignatureAlgorithmIdentifierFinder();
+
+        for (Iterator it = signers.iterator(); it.hasNext();)
+        {
+            SignerInformation signer = (SignerInformation)it.next();
+            byte[]            digest = (byte[])digests.get(signer.getDigestAlgOID());
+
+            if (signer.getSignedAttributes() != null && digest != null)
+            {
+                digested.add(new SignerInformation(signer.toASN1Structure(), contentType, null, new BaseDigestCalculator(digest), sigAlgFinder));
+            }
+            else
+            {
+                digested.add(signer);
+            }
+        }
+
+        return digested;
+    }
+
     /**
      * return a X509Store containing the attribute certificates, if any, contained
      * in this message.
@@ -398,10 +519,10 @@ public class CMSSignedData
                 }
             }
 
-            return new CollectionStore(certList);
+            return new IndexedCertificateStore(certList);
         }
 
-        return new CollectionStore(new ArrayList());
+        return new IndexedCertificateStore(new ArrayList());
     }
 
     public Store getCRLs()
@@ -11,6 +11,7 @@ import org.bouncycastle2.asn1.x509.CertificateList;
 import org.bouncycastle2.asn1.x509.X509CertificateStructure;
 import org.bouncycastle2.cert.X509AttributeCertificateHolder;
 import org.bouncycastle2.cert.X509CRLHolder;
+import org.bouncycastle2.cert.IndexedCertificateStore;
 import org.bouncycastle2.cert.X509CertificateHolder;
 import org.bouncycastle2.operator.DefaultSignatureAlgorithmIdentifierFinder;
 import org.bouncycastle2.operator.SignatureAlgorithmIdentifierFinder;
@@ -31,6 +32,7 @@ import java.security.Provider;
 import java.security.cert.CertStore;
 import java.security.cert.CertStoreException;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * Parsing class for an CMS Signed Data object from an input stream.
@@ -262,6 +264,26 @@ public class CMSSignedDataParser
         return _signerInfoStore;
     }
 
+    /**
+     * Verify all the signers on the message, running one verification task per signer on the
+     * passed in executor. The signers are verified against the digests calculated as the content
+     * was read, so the content is only read once however many signers there are. As with
+     * getSignerInfos() the signed content must have been read before this method is called.
+     *
+     * @param verifierProvider provider of a verifier for each signer.
+     * @param executor the executor to run the verifications on.
+     * @return a map of SignerId to SignerVerificationResult, in signer order. Where signers share
+     * an id the entry is for the first of them that failed, or the first if they all verified.
+     * @throws CMSException if the signer infos cannot be read, or the verifications are interrupted.
+     */
+    public Map verifySignatures(
+        SignerInformationVerifierProvider verifierProvider,
+        Executor                          executor)
+        throws CMSException
+    {
+        return ConcurrentSignerVerifier.verify(getSignerInfos().getSigners(), verifierProvider, executor);
+    }
+
     /**
      * return a X509Store containing the attribute certificates, if any, contained
      * in this message.
@@ -455,10 +477,10 @@ public class CMSSignedDataParser
                 }
             }
 
-            return new CollectionStore(certList);
+            return new IndexedCertificateStore(certList);
         }
 
-        return new CollectionStore(new ArrayList());
+        return new IndexedCertificateStore(new ArrayList());
     }
 
     public Store getCRLs()
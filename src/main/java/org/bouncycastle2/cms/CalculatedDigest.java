@@ -0,0 +1,53 @@
+package org.bouncycastle2.cms;
+
+import org.bouncycastle2.crypto.Digest;
+
+/**
+ * A Digest which just gives back a digest value calculated elsewhere, so a lightweight Signer
+ * can check a signature over content it has not seen. Data passed to update() is ignored.
+ */
+class CalculatedDigest
+    implements Digest
+{
+    private final Digest digest;
+    private final byte[] value;
+
+    /**
+     * @param digest the algorithm the value was calculated with, used for its name and size.
+     * @param value the digest value.
+     */
+    CalculatedDigest(Digest digest, byte[] value)
+    {
+        this.digest = digest;
+        this.value = value;
+    }
+
+    public String getAlgorithmName()
+    {
+        return digest.getAlgorithmName();
+    }
+
+    public int getDigestSize()
+    {
+        return digest.getDigestSize();
+    }
+
+    public void update(byte in)
+    {
+    }
+
+    public void update(byte[] in, int inOff, int len)
+    {
+    }
+
+    public int doFinal(byte[] out, int outOff)
+    {
+        System.arraycopy(value, 0, out, outOff, value.length);
+
+        return value.length;
+    }
+
+    public void reset()
+    {
+    }
+}
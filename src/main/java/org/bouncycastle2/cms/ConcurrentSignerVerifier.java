@@ -0,0 +1,118 @@
+package org.bouncycastle2.cms;
+
+import org.bouncycastle2.operator.OperatorCreationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Verify a group of signers, one task per signer, on an Executor.
+ */
+class ConcurrentSignerVerifier
+{
+    private ConcurrentSignerVerifier()
+    {
+    }
+
+    /**
+     * Verify the passed in signers, returning a map of SignerId to SignerVerificationResult in
+     * signer order. Where several signers share an id the entry is the first failure among them,
+     * or the first success if they all verified.
+     */
+    static Map verify(
+        Collection                              signers,
+        final SignerInformationVerifierProvider verifierProvider,
+        Executor                                executor)
+        throws CMSException
+    {
+        List tasks = new ArrayList(signers.size());
+
+        for (Iterator it = signers.iterator(); it.hasNext();)
+        {
+            final SignerInformation signer = (SignerInformation)it.next();
+            FutureTask              task = new FutureTask(new Callable()
+            {
+                public Object call()
+                {
+                    return verify(signer, verifierProvider);
+                }
+            });
+
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        Map results = new LinkedHashMap();
+
+        for (int i = 0; i != tasks.size(); i++)
+        {
+            SignerVerificationResult result = getResult((FutureTask)tasks.get(i));
+            SignerId                 sid = result.getSigner().getSID();
+            SignerVerificationResult previous = (SignerVerificationResult)results.get(sid);
+
+            if (previous == null || (previous.isVerified() && !result.isVerified()))
+            {
+                results.put(sid, result);
+            }
+        }
+
+        return results;
+    }
+
+    private static SignerVerificationResult verify(
+        SignerInformation                 signer,
+        SignerInformationVerifierProvider verifierProvider)
+    {
+        try
+        {
+            return new SignerVerificationResult(signer, signer.verify(verifierProvider.get(signer.getSID())), null);
+        }
+        catch (OperatorCreationException e)
+        {
+            return new SignerVerificationResult(signer, false, new CMSException("can't create verifier: " + e.getMessage(), e));
+        }
+        catch (CMSException e)
+        {
+            return new SignerVerificationResult(signer, false, e);
+        }
+    }
+
+    private static SignerVerificationResult getResult(
+        FutureTask task)
+        throws CMSException
+    {
+        try
+        {
+            return (SignerVerificationResult)task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new CMSException("interrupted waiting for signer verification.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+
+            throw new CMSException("exception verifying signer: " + cause, (Exception)cause);
+        }
+    }
+}
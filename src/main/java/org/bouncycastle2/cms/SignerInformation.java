@@ -521,134 +521,13 @@ public class SignerInformation
 
         try
         {
-            if (digestCalculator != null)
-            {
-                resultDigest = digestCalculator.getDigest();
-            }
-            else
-            {
-                DigestCalculator calc = verifier.getDigestCalculator(this.getDigestAlgorithmID());
-                if (content != null)
-                {
-                    OutputStream      digOut = calc.getOutputStream();
-
-                    content.write(digOut);
-
-                    digOut.close();
-                }
-                else if (signedAttributeSet == null)
-                {
-                    // TODO Get rid of this exception and just treat content==null as empty not missing?
-                    throw new CMSException("data not encapsulated in signature - use detached constructor.");
-                }
-
-                resultDigest = calc.getDigest();
-            }
-        }
-        catch (IOException e)
-        {
-            throw new CMSException("can't process mime object to create signature.", e);
-        }
-        catch (NoSuchAlgorithmException e)
-        {
-            throw new CMSException("can't find algorithm: " + e.getMessage(), e);
+            checkContent((digestCalculator == null) ? verifier.getDigestCalculator(this.getDigestAlgorithmID()) : null);
         }
         catch (OperatorCreationException e)
         {
             throw new CMSException("can't create digest calculator: " + e.getMessage(), e);
         }
 
-        // RFC 3852 11.1 Check the content-type attribute is correct
-        {
-            DERObject validContentType = getSingleValuedSignedAttribute(
-                CMSAttributes.contentType, "content-type");
-            if (validContentType == null)
-            {
-                if (!isCounterSignature && signedAttributeSet != null)
-                {
-                    throw new CMSException("The content-type attribute type MUST be present whenever signed attributes are present in signed-data");
-                }
-            }
-            else
-            {
-                if (isCounterSignature)
-                {
-                    throw new CMSException("[For counter signatures,] the signedAttributes field MUST NOT contain a content-type attribute");
-                }
-
-                if (!(validContentType instanceof DERObjectIdentifier))
-                {
-                    throw new CMSException("content-type attribute value not of ASN.1 type 'OBJECT IDENTIFIER'");
-                }
-
-                DERObjectIdentifier signedContentType = (DERObjectIdentifier)validContentType;
-
-                if (!signedContentType.equals(contentType))
-                {
-                    throw new CMSException("content-type attribute value does not match eContentType");
-                }
-            }
-        }
-
-        // RFC 3852 11.2 Check the message-digest attribute is correct
-        {
-            DERObject validMessageDigest = getSingleValuedSignedAttribute(
-                CMSAttributes.messageDigest, "message-digest");
-            if (validMessageDigest == null)
-            {
-                if (signedAttributeSet != null)
-                {
-                    throw new CMSException("the message-digest signed attribute type MUST be present when there are any signed attributes present");
-                }
-            }
-            else
-            {
-                if (!(validMessageDigest instanceof ASN1OctetString))
-                {
-                    throw new CMSException("message-digest attribute value not of ASN.1 type 'OCTET STRING'");
-                }
-
-                ASN1OctetString signedMessageDigest = (ASN1OctetString)validMessageDigest;
-
-                /*String resultDigestStr = Base64.encodeToString(resultDigest, Base64.DEFAULT);
-                String signedMessageDigestStr = Base64.encodeToString(signedMessageDigest.getOctets(), Base64.DEFAULT);
-                
-				Log.d("SignerInformation ", ".doVerify - resultDigestStr: " + resultDigestStr
-						+ " - signedMessageDigestStr: " + signedMessageDigestStr);*/
-                
-                if (!Arrays.constantTimeAreEqual(resultDigest, signedMessageDigest.getOctets()))
-                {
-                    throw new CMSSignerDigestMismatchException("message-digest attribute value does not match calculated value");
-                }
-            }
-        }
-
-        // RFC 3852 11.4 Validate countersignature attribute(s)
-        {
-            AttributeTable signedAttrTable = this.getSignedAttributes();
-            if (signedAttrTable != null
-                && signedAttrTable.getAll(CMSAttributes.counterSignature).size() > 0)
-            {
-                throw new CMSException("A countersignature attribute MUST NOT be a signed attribute");
-            }
-
-            AttributeTable unsignedAttrTable = this.getUnsignedAttributes();
-            if (unsignedAttrTable != null)
-            {
-                ASN1EncodableVector csAttrs = unsignedAttrTable.getAll(CMSAttributes.counterSignature);
-                for (int i = 0; i < csAttrs.size(); ++i)
-                {
-                    Attribute csAttr = (Attribute)csAttrs.get(i);
-                    if (csAttr.getAttrValues().size() < 1)
-                    {
-                        throw new CMSException("A countersignature attribute MUST contain at least one AttributeValue");
-                    }
-
-                    // Note: We don't recursively validate the countersignature value
-                }
-            }
-        }
-
         try
         {
             ContentVerifier contentVerifier = verifier.getContentVerifier(sigAlgFinder.find(signatureName));
@@ -844,6 +723,205 @@ public class SignerInformation
 //        }
 //    }
     
+    /**
+     * Calculate the content digest and check the signed and unsigned attributes that
+     * RFC 3852 requires be validated before the signature is.
+     *
+     * @param calc calculator for the content digest, null if it has already been calculated.
+     */
+    private void checkContent(
+        DigestCalculator calc)
+        throws CMSException
+    {
+        try
+        {
+            if (digestCalculator != null)
+            {
+                resultDigest = digestCalculator.getDigest();
+            }
+            else
+            {
+                if (content != null)
+                {
+                    OutputStream      digOut = calc.getOutputStream();
+
+                    content.write(digOut);
+
+                    digOut.close();
+                }
+                else if (signedAttributeSet == null)
+                {
+                    // TODO Get rid of this exception and just treat content==null as empty not missing?
+                    throw new CMSException("data not encapsulated in signature - use detached constructor.");
+                }
+
+                resultDigest = calc.getDigest();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new CMSException("can't process mime object to create signature.", e);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new CMSException("can't find algorithm: " + e.getMessage(), e);
+        }
+
+        // RFC 3852 11.1 Check the content-type attribute is correct
+        {
+            DERObject validContentType = getSingleValuedSignedAttribute(
+                CMSAttributes.contentType, "content-type");
+            if (validContentType == null)
+            {
+                if (!isCounterSignature && signedAttributeSet != null)
+                {
+                    throw new CMSException("The content-type attribute type MUST be present whenever signed attributes are present in signed-data");
+                }
+            }
+            else
+            {
+                if (isCounterSignature)
+                {
+                    throw new CMSException("[For counter signatures,] the signedAttributes field MUST NOT contain a content-type attribute");
+                }
+
+                if (!(validContentType instanceof DERObjectIdentifier))
+                {
+                    throw new CMSException("content-type attribute value not of ASN.1 type 'OBJECT IDENTIFIER'");
+                }
+
+                DERObjectIdentifier signedContentType = (DERObjectIdentifier)validContentType;
+
+                if (!signedContentType.equals(contentType))
+                {
+                    throw new CMSException("content-type attribute value does not match eContentType");
+                }
+            }
+        }
+
+        // RFC 3852 11.2 Check the message-digest attribute is correct
+        {
+            DERObject validMessageDigest = getSingleValuedSignedAttribute(
+                CMSAttributes.messageDigest, "message-digest");
+            if (validMessageDigest == null)
+            {
+                if (signedAttributeSet != null)
+                {
+                    throw new CMSException("the message-digest signed attribute type MUST be present when there are any signed attributes present");
+                }
+            }
+            else
+            {
+                if (!(validMessageDigest instanceof ASN1OctetString))
+                {
+                    throw new CMSException("message-digest attribute value not of ASN.1 type 'OCTET STRING'");
+                }
+
+                ASN1OctetString signedMessageDigest = (ASN1OctetString)validMessageDigest;
+
+                /*String resultDigestStr = Base64.encodeToString(resultDigest, Base64.DEFAULT);
+                String signedMessageDigestStr = Base64.encodeToString(signedMessageDigest.getOctets(), Base64.DEFAULT);
+                
+				Log.d("SignerInformation ", ".doVerify - resultDigestStr: " + resultDigestStr
+						+ " - signedMessageDigestStr: " + signedMessageDigestStr);*/
+                
+                if (!Arrays.constantTimeAreEqual(resultDigest, signedMessageDigest.getOctets()))
+                {
+                    throw new CMSSignerDigestMismatchException("message-digest attribute value does not match calculated value");
+                }
+            }
+        }
+
+        // RFC 3852 11.4 Validate countersignature attribute(s)
+        {
+            AttributeTable signedAttrTable = this.getSignedAttributes();
+            if (signedAttrTable != null
+                && signedAttrTable.getAll(CMSAttributes.counterSignature).size() > 0)
+            {
+                throw new CMSException("A countersignature attribute MUST NOT be a signed attribute");
+            }
+
+            AttributeTable unsignedAttrTable = this.getUnsignedAttributes();
+            if (unsignedAttrTable != null)
+            {
+                ASN1EncodableVector csAttrs = unsignedAttrTable.getAll(CMSAttributes.counterSignature);
+                for (int i = 0; i < csAttrs.size(); ++i)
+                {
+                    Attribute csAttr = (Attribute)csAttrs.get(i);
+                    if (csAttr.getAttrValues().size() < 1)
+                    {
+                        throw new CMSException("A countersignature attribute MUST contain at least one AttributeValue");
+                    }
+
+                    // Note: We don't recursively validate the countersignature value
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the content and attributes of this signer as for verify(), returning the
+     * bytes covered by the signature itself. If there are no signed attributes the signature
+     * covers the content, which is not buffered - null is returned and either the content has
+     * to be passed through the verifier using writeSignedContent() or, if isDigestCalculated(),
+     * the signature checked against getContentDigest().
+     */
+    byte[] getSignedContent(
+        DigestCalculatorProvider digestProvider)
+        throws CMSException
+    {
+        try
+        {
+            checkContent((digestCalculator == null) ? digestProvider.get(this.getDigestAlgorithmID()) : null);
+
+            if (signedAttributeSet != null)
+            {
+                return this.getEncodedSignedAttributes();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new CMSException("can't process mime object to create signature.", e);
+        }
+        catch (OperatorCreationException e)
+        {
+            throw new CMSException("can't create digest calculator: " + e.getMessage(), e);
+        }
+
+        if (digestCalculator != null || content != null)
+        {
+            return null;
+        }
+
+        throw new CMSException("signed content not available for verification");
+    }
+
+    /**
+     * Return true if the content digest was calculated before this signer was created, as
+     * with signers from a CMSSignedDataParser, rather than from the content.
+     */
+    boolean isDigestCalculated()
+    {
+        return digestCalculator != null;
+    }
+
+    /**
+     * Write the content covered by the signature of a signer without signed attributes.
+     */
+    void writeSignedContent(
+        OutputStream out)
+        throws CMSException
+    {
+        try
+        {
+            content.write(out);
+        }
+        catch (IOException e)
+        {
+            throw new CMSException("can't process mime object to create signature.", e);
+        }
+    }
+
     /**
      * verify that the given public key successfully handles and confirms the
      * signature associated with this signer.
@@ -0,0 +1,298 @@
+package org.bouncycastle2.cms;
+
+import org.bouncycastle2.crypto.BatchVerifier;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.Signer;
+import org.bouncycastle2.crypto.digests.MD2Digest;
+import org.bouncycastle2.crypto.digests.MD4Digest;
+import org.bouncycastle2.crypto.digests.MD5Digest;
+import org.bouncycastle2.crypto.digests.RIPEMD128Digest;
+import org.bouncycastle2.crypto.digests.RIPEMD160Digest;
+import org.bouncycastle2.crypto.digests.RIPEMD256Digest;
+import org.bouncycastle2.crypto.digests.SHA1Digest;
+import org.bouncycastle2.crypto.digests.SHA224Digest;
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.crypto.digests.SHA384Digest;
+import org.bouncycastle2.crypto.digests.SHA512Digest;
+import org.bouncycastle2.crypto.io.SignerOutputStream;
+import org.bouncycastle2.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle2.crypto.signers.DSADigestBatchVerifier;
+import org.bouncycastle2.crypto.signers.DSADigestSigner;
+import org.bouncycastle2.crypto.signers.DSASigner;
+import org.bouncycastle2.crypto.signers.ECDSASigner;
+import org.bouncycastle2.crypto.signers.RSADigestBatchVerifier;
+import org.bouncycastle2.crypto.signers.RSADigestSigner;
+import org.bouncycastle2.operator.DigestCalculatorProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifier for the signatures on a number of SignerInformation objects at once, such as when
+ * many messages from a small set of signers need to be checked.
+ * <p>
+ * The content digest and attributes of each signer are checked as they are by
+ * {@link SignerInformation#verify(SignerInformationVerifier)}, then the signatures are passed to
+ * a {@link BatchVerifier} for their algorithm, which groups them by key so each key is only
+ * set up once. Signers without signed attributes, whose signature covers the content itself,
+ * are verified on their own, as the content is read or against the digest calculated when it
+ * was parsed, so it is never buffered.
+ * <p>
+ * Keys are given as lightweight public key parameters, see
+ * {@link org.bouncycastle2.crypto.util.PublicKeyFactory}. Signing times are validated if present,
+ * but as no certificates are involved the key's validity at the signing time is not checked.
+ */
+public class SignerInformationBatchVerifier
+{
+    private final DigestCalculatorProvider digestProvider;
+
+    private final List signers = new ArrayList();
+    private final List keys = new ArrayList();
+
+    /**
+     * Create a batch verifier.
+     *
+     * @param digestProvider provider for the calculators used for the content digests.
+     */
+    public SignerInformationBatchVerifier(DigestCalculatorProvider digestProvider)
+    {
+        this.digestProvider = digestProvider;
+    }
+
+    /**
+     * Add a signer to the batch.
+     *
+     * @param signer the signer to be verified.
+     * @param publicKey the public key of the signer.
+     * @return the index of the signer in the array returned by verify().
+     */
+    public int addSigner(SignerInformation signer, AsymmetricKeyParameter publicKey)
+    {
+        signers.add(signer);
+        keys.add(publicKey);
+
+        return signers.size() - 1;
+    }
+
+    /**
+     * Return the number of signers in the batch.
+     */
+    public int size()
+    {
+        return signers.size();
+    }
+
+    /**
+     * Remove all the signers from the batch.
+     */
+    public void reset()
+    {
+        signers.clear();
+        keys.clear();
+    }
+
+    /**
+     * Verify all the signers in the batch. A signer whose message-digest attribute does not
+     * match its content fails verification rather than causing an exception.
+     *
+     * @return an array with the result for each signer, in the order they were added.
+     * @throws CMSException if a signer cannot be processed, or its signature algorithm is not supported.
+     */
+    public boolean[] verify()
+        throws CMSException
+    {
+        boolean[]       results = new boolean[signers.size()];
+        BatchVerifier[] itemVerifiers = new BatchVerifier[signers.size()];
+        int[]           itemIndexes = new int[signers.size()];
+        Map             verifiers = new HashMap();
+
+        for (int i = 0; i != signers.size(); i++)
+        {
+            SignerInformation signer = (SignerInformation)signers.get(i);
+            byte[]            signedContent;
+
+            signer.getSigningTime();   // has to be validated if present.
+
+            try
+            {
+                signedContent = signer.getSignedContent(digestProvider);
+            }
+            catch (CMSSignerDigestMismatchException e)
+            {
+                continue;
+            }
+
+            String        digestName = CMSSignedHelper.INSTANCE.getDigestAlgName(signer.getDigestAlgOID());
+            String        encName = CMSSignedHelper.INSTANCE.getEncryptionAlgName(signer.getEncryptionAlgOID());
+            String        signatureName = digestName + "with" + encName;
+
+            if (signedContent == null)
+            {
+                results[i] = verifyContent(signer, (AsymmetricKeyParameter)keys.get(i), digestName, encName);
+                continue;
+            }
+
+            BatchVerifier verifier = (BatchVerifier)verifiers.get(signatureName);
+
+            if (verifier == null)
+            {
+                verifier = createVerifier(digestName, encName);
+                verifiers.put(signatureName, verifier);
+            }
+
+            try
+            {
+                itemIndexes[i] = verifier.addItem((AsymmetricKeyParameter)keys.get(i), signedContent, signer.getSignature());
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new CMSException("key not appropriate to signature in message.", e);
+            }
+
+            itemVerifiers[i] = verifier;
+        }
+
+        Map verifierResults = new HashMap();
+
+        for (Iterator it = verifiers.values().iterator(); it.hasNext();)
+        {
+            BatchVerifier verifier = (BatchVerifier)it.next();
+
+            verifierResults.put(verifier, verifier.verify());
+        }
+
+        for (int i = 0; i != results.length; i++)
+        {
+            if (itemVerifiers[i] != null)
+            {
+                results[i] = ((boolean[])verifierResults.get(itemVerifiers[i]))[itemIndexes[i]];
+            }
+        }
+
+        return results;
+    }
+
+    private BatchVerifier createVerifier(String digestName, String encName)
+        throws CMSException
+    {
+        Digest digest = createDigest(digestName);
+
+        if (encName.equals("RSA"))
+        {
+            return new RSADigestBatchVerifier(digest);
+        }
+        if (encName.equals("ECDSA"))
+        {
+            return new DSADigestBatchVerifier(new ECDSASigner(), digest);
+        }
+        if (encName.equals("DSA"))
+        {
+            return new DSADigestBatchVerifier(new DSASigner(), digest);
+        }
+
+        throw new CMSException("batch verification not supported for " + digestName + "with" + encName);
+    }
+
+    private static boolean verifyContent(SignerInformation signer, AsymmetricKeyParameter key, String digestName, String encName)
+        throws CMSException
+    {
+        Digest digest = createDigest(digestName);
+
+        if (signer.isDigestCalculated())
+        {
+            // the content has already been digested, check the signature against the result.
+            digest = new CalculatedDigest(digest, signer.getContentDigest());
+        }
+
+        Signer sig = createSigner(digest, encName);
+
+        try
+        {
+            sig.init(false, key);
+        }
+        catch (RuntimeException e)
+        {
+            throw new CMSException("key not appropriate to signature in message.", e);
+        }
+
+        if (!signer.isDigestCalculated())
+        {
+            signer.writeSignedContent(new SignerOutputStream(new NullOutputStream(), sig));
+        }
+
+        return sig.verifySignature(signer.getSignature());
+    }
+
+    private static Signer createSigner(Digest digest, String encName)
+        throws CMSException
+    {
+        if (encName.equals("RSA"))
+        {
+            return new RSADigestSigner(digest);
+        }
+        if (encName.equals("ECDSA"))
+        {
+            return new DSADigestSigner(new ECDSASigner(), digest);
+        }
+        if (encName.equals("DSA"))
+        {
+            return new DSADigestSigner(new DSASigner(), digest);
+        }
+
+        throw new CMSException("batch verification not supported for " + digest.getAlgorithmName() + "with" + encName);
+    }
+
+    private static Digest createDigest(String digestName)
+        throws CMSException
+    {
+        if (digestName.equals("SHA1"))
+        {
+            return new SHA1Digest();
+        }
+        if (digestName.equals("SHA224"))
+        {
+            return new SHA224Digest();
+        }
+        if (digestName.equals("SHA256"))
+        {
+            return new SHA256Digest();
+        }
+        if (digestName.equals("SHA384"))
+        {
+            return new SHA384Digest();
+        }
+        if (digestName.equals("SHA512"))
+        {
+            return new SHA512Digest();
+        }
+        if (digestName.equals("MD5"))
+        {
+            return new MD5Digest();
+        }
+        if (digestName.equals("MD4"))
+        {
+            return new MD4Digest();
+        }
+        if (digestName.equals("MD2"))
+        {
+            return new MD2Digest();
+        }
+        if (digestName.equals("RIPEMD128"))
+        {
+            return new RIPEMD128Digest();
+        }
+        if (digestName.equals("RIPEMD160"))
+        {
+            return new RIPEMD160Digest();
+        }
+        if (digestName.equals("RIPEMD256"))
+        {
+            return new RIPEMD256Digest();
+        }
+
+        throw new CMSException("can't find digest: " + digestName);
+    }
+}
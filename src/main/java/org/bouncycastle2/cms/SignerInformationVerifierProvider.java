@@ -0,0 +1,19 @@
+package org.bouncycastle2.cms;
+
+import org.bouncycastle2.operator.OperatorCreationException;
+
+/**
+ * General interface for providers of the SignerInformationVerifier to use for a signer.
+ */
+public interface SignerInformationVerifierProvider
+{
+    /**
+     * Return a SignerInformationVerifier for the signer with the passed in id.
+     *
+     * @param sid the id of the signer to be verified.
+     * @return a verifier for the signer.
+     * @throws OperatorCreationException if no verifier can be created for the signer.
+     */
+    SignerInformationVerifier get(SignerId sid)
+        throws OperatorCreationException;
+}
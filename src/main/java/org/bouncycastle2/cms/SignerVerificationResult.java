@@ -0,0 +1,50 @@
+package org.bouncycastle2.cms;
+
+/**
+ * The outcome of verifying a signer as part of a group, see
+ * {@link CMSSignedData#verifySignatures(SignerInformationVerifierProvider, java.util.concurrent.Executor)}.
+ */
+public class SignerVerificationResult
+{
+    private final SignerInformation signer;
+    private final boolean           verified;
+    private final CMSException      exception;
+
+    SignerVerificationResult(SignerInformation signer, boolean verified, CMSException exception)
+    {
+        this.signer = signer;
+        this.verified = verified;
+        this.exception = exception;
+    }
+
+    /**
+     * Return the signer the result is for.
+     *
+     * @return the SignerInformation that was verified.
+     */
+    public SignerInformation getSigner()
+    {
+        return signer;
+    }
+
+    /**
+     * Return whether the signer's signature verified.
+     *
+     * @return true if the signature verified, false if it did not or could not be processed.
+     */
+    public boolean isVerified()
+    {
+        return verified;
+    }
+
+    /**
+     * Return the exception that stopped the signer being processed, if there was one - such as a
+     * message digest mismatch, or a verifier that could not be created.
+     *
+     * @return the exception raised verifying the signer, null if verification ran to completion.
+     */
+    public CMSException getException()
+    {
+        return exception;
+    }
+}
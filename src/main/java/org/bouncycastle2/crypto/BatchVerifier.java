@@ -0,0 +1,35 @@
+package org.bouncycastle2.crypto;
+
+/**
+ * Generic interface for verifiers that check a number of signatures, possibly
+ * under different keys, in one operation.
+ */
+public interface BatchVerifier
+{
+    /**
+     * Add a signature to the batch.
+     *
+     * @param param the public key the signature should verify under.
+     * @param message the message that was signed.
+     * @param signature the signature to be checked.
+     * @return the index of the item in the array returned by verify().
+     */
+    public int addItem(CipherParameters param, byte[] message, byte[] signature);
+
+    /**
+     * Return the number of items added since the last reset.
+     */
+    public int size();
+
+    /**
+     * Verify all the items in the batch.
+     *
+     * @return an array with the result for each item, in the order the items were added.
+     */
+    public boolean[] verify();
+
+    /**
+     * reset the verifier, removing all the items.
+     */
+    public void reset();
+}
@@ -1,6 +1,7 @@
 package org.bouncycastle2.crypto.digests;
 
 import org.bouncycastle2.crypto.util.Pack;
+import org.bouncycastle2.util.Memoable;
 
 /**
  * implementation of SHA-1 as outlined in "Handbook of Applied Cryptography", pages 346 - 349.
@@ -10,6 +11,7 @@ import org.bouncycastle2.crypto.util.Pack;
  */
 public class SHA1Digest
     extends GeneralDigest
+    implements Memoable
 {
     private static final int    DIGEST_LENGTH = 20;
 
@@ -34,6 +36,13 @@ public class SHA1Digest
     {
         super(t);
 
+        copyIn(t);
+    }
+
+    private void copyIn(SHA1Digest t)
+    {
+        super.copyIn(t);
+
         H1 = t.H1;
         H2 = t.H2;
         H3 = t.H3;
@@ -283,8 +292,16 @@ public class SHA1Digest
             X[i] = 0;
         }
     }
-}
-
 
+    public Memoable copy()
+    {
+        return new SHA1Digest(this);
+    }
 
+    public void reset(Memoable other)
+    {
+        SHA1Digest d = (SHA1Digest)other;
 
+        copyIn(d);
+    }
+}
@@ -2,6 +2,7 @@ package org.bouncycastle2.crypto.digests;
 
 
 import org.bouncycastle2.crypto.util.Pack;
+import org.bouncycastle2.util.Memoable;
 
 
 /**
@@ -17,6 +18,7 @@ import org.bouncycastle2.crypto.util.Pack;
  */
 public class SHA224Digest
     extends GeneralDigest
+    implements Memoable
 {
     private static final int    DIGEST_LENGTH = 28;
 
@@ -41,6 +43,13 @@ public class SHA224Digest
     {
         super(t);
 
+        copyIn(t);
+    }
+
+    private void copyIn(SHA224Digest t)
+    {
+        super.copyIn(t);
+
         H1 = t.H1;
         H2 = t.H2;
         H3 = t.H3;
@@ -287,5 +296,16 @@ public class SHA224Digest
         0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070, 0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
         0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
     };
-}
 
+    public Memoable copy()
+    {
+        return new SHA224Digest(this);
+    }
+
+    public void reset(Memoable other)
+    {
+        SHA224Digest d = (SHA224Digest)other;
+
+        copyIn(d);
+    }
+}
@@ -1,6 +1,7 @@
 package org.bouncycastle2.crypto.digests;
 
 import org.bouncycastle2.crypto.util.Pack;
+import org.bouncycastle2.util.Memoable;
 
 
 /**
@@ -16,6 +17,7 @@ import org.bouncycastle2.crypto.util.Pack;
  */
 public class SHA384Digest
     extends LongDigest
+    implements Memoable
 {
 
     private static final int    DIGEST_LENGTH = 48;
@@ -84,4 +86,16 @@ public class SHA384Digest
         H7 = 0xdb0c2e0d64f98fa7l;
         H8 = 0x47b5481dbefa4fa4l;
     }
+
+    public Memoable copy()
+    {
+        return new SHA384Digest(this);
+    }
+
+    public void reset(Memoable other)
+    {
+        SHA384Digest d = (SHA384Digest)other;
+
+        copyIn(d);
+    }
 }
@@ -0,0 +1,380 @@
+package org.bouncycastle2.crypto.engines;
+
+import java.math.BigInteger;
+
+/**
+ * Modular exponentiation for an odd modulus using Montgomery multiplication on
+ * arrays of 32 bit words.
+ * <p>
+ * The constants for the modulus, n' = -n^-1 mod 2^32 and R^2 mod n, are worked
+ * out once when the object is created, so an instance can be kept with a key and
+ * used for every operation done with it. Each exponentiation works in a fixed set
+ * of word arrays sized to the modulus, so beyond the table of powers for the
+ * sliding window no garbage is created while it runs.
+ */
+class MontgomeryModulus
+{
+    private static final long M = 0xffffffffL;
+
+    //
+    // exponent bit lengths at which the window size goes up, as used by BigInteger.
+    //
+    private static final int[] WINDOW_THRESHOLDS = { 7, 25, 81, 241, 673, 1793 };
+
+    private final BigInteger modulus;
+    private final int        len;
+    private final int[]      n;
+    private final int        nPrime;
+    private final int[]      rSquared;
+
+    /**
+     * Base constructor.
+     *
+     * @param modulus an odd modulus greater than one.
+     */
+    MontgomeryModulus(
+        BigInteger modulus)
+    {
+        if (!modulus.testBit(0) || modulus.bitLength() < 2)
+        {
+            throw new IllegalArgumentException("modulus must be odd and greater than one");
+        }
+
+        this.modulus = modulus;
+        this.len = (modulus.bitLength() + 31) / 32;
+        this.n = toWords(modulus, len);
+        this.nPrime = -inverse(n[0]);
+        this.rSquared = toWords(BigInteger.valueOf(1).shiftLeft(64 * len).mod(modulus), len);
+    }
+
+    BigInteger getModulus()
+    {
+        return modulus;
+    }
+
+    /**
+     * Return base^exponent mod modulus.
+     *
+     * @param base the base, reduced if it is not already in the range [0, modulus).
+     * @param exponent a non-negative exponent.
+     */
+    BigInteger modPow(
+        BigInteger base,
+        BigInteger exponent)
+    {
+        if (exponent.signum() <= 0)
+        {
+            if (exponent.signum() == 0)
+            {
+                return BigInteger.valueOf(1);
+            }
+
+            throw new ArithmeticException("negative exponent");
+        }
+
+        if (base.signum() < 0 || base.compareTo(modulus) >= 0)
+        {
+            base = base.mod(modulus);
+        }
+
+        int[]   e = toWords(exponent, (exponent.bitLength() + 31) / 32);
+        int     eBits = exponent.bitLength();
+        int     wBits = getWindowBits(eBits);
+        int[]   t = new int[2 * len + 1];
+        int[]   acc = new int[len];
+        int[]   tmp = new int[len];
+        int[][] table = new int[1 << (wBits - 1)][];
+
+        //
+        // table[i] = base^(2i + 1) in Montgomery form.
+        //
+        table[0] = new int[len];
+        multiply(toWords(base, len), rSquared, t, table[0]);
+
+        if (table.length > 1)
+        {
+            int[] base2 = new int[len];
+
+            square(table[0], t, base2);
+
+            for (int i = 1; i != table.length; i++)
+            {
+                table[i] = new int[len];
+                multiply(table[i - 1], base2, t, table[i]);
+            }
+        }
+
+        //
+        // left to right sliding window, the top bit of the exponent is always set so
+        // the first window initialises the accumulator.
+        //
+        boolean started = false;
+        int     i = eBits - 1;
+
+        while (i >= 0)
+        {
+            if (!testBit(e, i))
+            {
+                square(acc, t, tmp);
+                int[] swap = acc; acc = tmp; tmp = swap;
+                i--;
+                continue;
+            }
+
+            int low = Math.max(i - wBits + 1, 0);
+
+            while (!testBit(e, low))
+            {
+                low++;
+            }
+
+            int value = 0;
+
+            for (int k = i; k >= low; k--)
+            {
+                value = (value << 1) | (testBit(e, k) ? 1 : 0);
+            }
+
+            if (!started)
+            {
+                System.arraycopy(table[value >>> 1], 0, acc, 0, len);
+                started = true;
+            }
+            else
+            {
+                for (int k = i; k >= low; k--)
+                {
+                    square(acc, t, tmp);
+                    int[] swap = acc; acc = tmp; tmp = swap;
+                }
+
+                multiply(acc, table[value >>> 1], t, tmp);
+                int[] swap = acc; acc = tmp; tmp = swap;
+            }
+
+            i = low - 1;
+        }
+
+        //
+        // convert out of Montgomery form.
+        //
+        for (int k = 0; k != t.length; k++)
+        {
+            t[k] = 0;
+        }
+        System.arraycopy(acc, 0, t, 0, len);
+        reduce(t, tmp);
+
+        return fromWords(tmp);
+    }
+
+    private static int getWindowBits(int eBits)
+    {
+        int wBits = 1;
+
+        while (wBits <= WINDOW_THRESHOLDS.length && eBits > WINDOW_THRESHOLDS[wBits - 1])
+        {
+            wBits++;
+        }
+
+        return wBits;
+    }
+
+    /**
+     * z = x * y * R^-1 mod n, using t as workspace.
+     */
+    private void multiply(int[] x, int[] y, int[] t, int[] z)
+    {
+        for (int i = 0; i != t.length; i++)
+        {
+            t[i] = 0;
+        }
+
+        for (int i = 0; i != len; i++)
+        {
+            long xi = x[i] & M;
+            long c = 0;
+
+            for (int j = 0; j != len; j++)
+            {
+                c += (t[i + j] & M) + xi * (y[j] & M);
+                t[i + j] = (int)c;
+                c >>>= 32;
+            }
+
+            t[i + len] = (int)c;
+        }
+
+        reduce(t, z);
+    }
+
+    /**
+     * z = x^2 * R^-1 mod n, using t as workspace.
+     */
+    private void square(int[] x, int[] t, int[] z)
+    {
+        for (int i = 0; i != t.length; i++)
+        {
+            t[i] = 0;
+        }
+
+        //
+        // the cross products, each of which appears twice in the square.
+        //
+        for (int i = 0; i < len - 1; i++)
+        {
+            long xi = x[i] & M;
+            long c = 0;
+
+            for (int j = i + 1; j != len; j++)
+            {
+                c += (t[i + j] & M) + xi * (x[j] & M);
+                t[i + j] = (int)c;
+                c >>>= 32;
+            }
+
+            t[i + len] = (int)c;
+        }
+
+        int top = 0;
+
+        for (int i = 0; i != 2 * len; i++)
+        {
+            int w = t[i];
+
+            t[i] = (w << 1) | top;
+            top = w >>> 31;
+        }
+
+        //
+        // add in the squares of the individual words.
+        //
+        long c = 0;
+
+        for (int i = 0; i != len; i++)
+        {
+            long xi = x[i] & M;
+            long sq = xi * xi;
+
+            c += (t[2 * i] & M) + (sq & M);
+            t[2 * i] = (int)c;
+            c >>>= 32;
+            c += (t[2 * i + 1] & M) + (sq >>> 32);
+            t[2 * i + 1] = (int)c;
+            c >>>= 32;
+        }
+
+        reduce(t, z);
+    }
+
+    /**
+     * Montgomery reduction of the 2 * len word value in t, z = t * R^-1 mod n.
+     */
+    private void reduce(int[] t, int[] z)
+    {
+        for (int i = 0; i != len; i++)
+        {
+            long m = (t[i] * nPrime) & M;
+            long c = 0;
+
+            for (int j = 0; j != len; j++)
+            {
+                c += (t[i + j] & M) + m * (n[j] & M);
+                t[i + j] = (int)c;
+                c >>>= 32;
+            }
+
+            for (int k = i + len; c != 0 && k != t.length; k++)
+            {
+                c += t[k] & M;
+                t[k] = (int)c;
+                c >>>= 32;
+            }
+        }
+
+        //
+        // the result is now in t[len..2 * len] and is less than 2n.
+        //
+        if (t[2 * len] != 0 || compareToModulus(t, len) >= 0)
+        {
+            long c = 0;
+
+            for (int j = 0; j != len; j++)
+            {
+                c += (t[len + j] & M) - (n[j] & M);
+                z[j] = (int)c;
+                c >>= 32;
+            }
+        }
+        else
+        {
+            System.arraycopy(t, len, z, 0, len);
+        }
+    }
+
+    private int compareToModulus(int[] x, int off)
+    {
+        for (int i = len - 1; i >= 0; i--)
+        {
+            int xi = x[off + i] ^ Integer.MIN_VALUE;
+            int ni = n[i] ^ Integer.MIN_VALUE;
+
+            if (xi != ni)
+            {
+                return xi < ni ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Return x^-1 mod 2^32 for odd x.
+     */
+    private static int inverse(int x)
+    {
+        int inv = x;        // correct to 3 bits
+
+        for (int i = 0; i != 4; i++)
+        {
+            inv *= 2 - x * inv;
+        }
+
+        return inv;
+    }
+
+    private static boolean testBit(int[] x, int bit)
+    {
+        return (x[bit >>> 5] & (1 << (bit & 31))) != 0;
+    }
+
+    private static int[] toWords(BigInteger x, int len)
+    {
+        byte[] bytes = x.toByteArray();
+        int[]  words = new int[len];
+
+        for (int i = 0; i != bytes.length && i < len * 4; i++)
+        {
+            words[i >>> 2] |= (bytes[bytes.length - 1 - i] & 0xff) << ((i & 3) << 3);
+        }
+
+        return words;
+    }
+
+    private static BigInteger fromWords(int[] x)
+    {
+        byte[] bytes = new byte[x.length * 4];
+
+        for (int i = 0; i != x.length; i++)
+        {
+            int w = x[x.length - 1 - i];
+
+            bytes[4 * i] = (byte)(w >>> 24);
+            bytes[4 * i + 1] = (byte)(w >>> 16);
+            bytes[4 * i + 2] = (byte)(w >>> 8);
+            bytes[4 * i + 3] = (byte)w;
+        }
+
+        return new BigInteger(1, bytes);
+    }
+}
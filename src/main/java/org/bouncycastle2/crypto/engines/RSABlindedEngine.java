@@ -10,15 +10,43 @@ import org.bouncycastle2.util.BigIntegers;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * this does your basic RSA algorithm with blinding
+ * <p>
+ * A blinding pair (r^e mod n, r^-1 mod n) is kept for each private key and thread.
+ * Between uses the pair is updated by squaring both halves, as suggested by Kocher,
+ * which replaces the exponentiation and inversion needed for a fresh pair with two
+ * modular multiplications. A new random r is generated every BLINDING_UPDATES uses.
+ * <p>
+ * Pairs are found by the key's modulus and public exponent rather than by the key
+ * parameters object, as callers such as the JCE create new parameters on each init.
  */
 public class RSABlindedEngine
     implements AsymmetricBlockCipher
 {
     private static BigInteger ONE = BigInteger.valueOf(1);
 
+    /**
+     * the number of times a blinding pair is updated by squaring before a fresh one is generated.
+     */
+    private static final int BLINDING_UPDATES = 32;
+
+    //
+    // per thread map of modulus to blinding pair. The moduli are only weakly referenced,
+    // so a pair lasts as long as the key the modulus came from - the parameters passed to
+    // init() usually share their BigIntegers with a longer lived key object.
+    //
+    private static final ThreadLocal blindingPairs = new ThreadLocal()
+    {
+        protected Object initialValue()
+        {
+            return new WeakHashMap();
+        }
+    };
+
     private RSACoreEngine    core = new RSACoreEngine();
     private RSAKeyParameters key;
     private SecureRandom     random;
@@ -102,14 +130,13 @@ public class RSABlindedEngine
             BigInteger e = k.getPublicExponent();
             if (e != null)   // can't do blinding without a public exponent
             {
-                BigInteger m = k.getModulus();
-                BigInteger r = BigIntegers.createRandomInRange(ONE, m.subtract(ONE), random);
+                BigInteger   m = k.getModulus();
+                BlindingPair pair = getBlindingPair(e, m);
 
-                BigInteger blindedInput = r.modPow(e, m).multiply(input).mod(m);
+                BigInteger blindedInput = pair.blind.multiply(input).mod(m);
                 BigInteger blindedResult = core.processBlock(blindedInput);
 
-                BigInteger rInv = r.modInverse(m);
-                result = blindedResult.multiply(rInv).mod(m);
+                result = blindedResult.multiply(pair.unblind).mod(m);
             }
             else
             {
@@ -123,4 +150,55 @@ public class RSABlindedEngine
 
         return core.convertOutput(result);
     }
+
+    private BlindingPair getBlindingPair(BigInteger e, BigInteger m)
+    {
+        Map          pairs = (Map)blindingPairs.get();
+        BlindingPair pair = (BlindingPair)pairs.get(m);
+
+        if (pair == null || !pair.exponent.equals(e) || pair.uses >= BLINDING_UPDATES)
+        {
+            BigInteger r = BigIntegers.createRandomInRange(ONE, m.subtract(ONE), random);
+
+            pair = new BlindingPair(e, r.modPow(e, m), r.modInverse(m));
+            pairs.put(m, pair);
+        }
+        else
+        {
+            pair.update(m);
+        }
+
+        pair.uses++;
+
+        return pair;
+    }
+
+    /**
+     * A blinding value r^e mod n and its unblinding value r^-1 mod n. The modulus is not
+     * kept here, as it is the key the pair is stored under.
+     */
+    private static class BlindingPair
+    {
+        final BigInteger exponent;
+
+        BigInteger blind;
+        BigInteger unblind;
+        int        uses;
+
+        BlindingPair(BigInteger exponent, BigInteger blind, BigInteger unblind)
+        {
+            this.exponent = exponent;
+            this.blind = blind;
+            this.unblind = unblind;
+        }
+
+        /**
+         * move to the pair for r^2.
+         */
+        void update(BigInteger m)
+        {
+            blind = blind.multiply(blind).mod(m);
+            unblind = unblind.multiply(unblind).mod(m);
+        }
+    }
 }
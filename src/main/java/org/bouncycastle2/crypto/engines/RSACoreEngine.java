@@ -13,9 +13,19 @@ import java.math.BigInteger;
  */
 class RSACoreEngine
 {
+    private static final boolean useMontgomery = isMontgomeryPreferred();
+
     private RSAKeyParameters key;
     private boolean          forEncryption;
 
+    //
+    // Montgomery constants for the last key we were initialised with.
+    //
+    private RSAKeyParameters  montKey;
+    private MontgomeryModulus montP;
+    private MontgomeryModulus montQ;
+    private MontgomeryModulus montN;
+
     /**
      * initialise the RSA engine.
      *
@@ -38,6 +48,78 @@ class RSACoreEngine
         }
 
         this.forEncryption = forEncryption;
+
+        if (useMontgomery && key != montKey)
+        {
+            initMontgomery();
+        }
+    }
+
+    /*
+     * BigInteger.modPow is compiled to native Montgomery code by most desktop VMs, but
+     * runs as plain Java on Android where the word based exponentiation is faster. The
+     * choice can be forced with the org.bouncycastle2.rsa.montgomery system property.
+     */
+    private static boolean isMontgomeryPreferred()
+    {
+        try
+        {
+            String prop = System.getProperty("org.bouncycastle2.rsa.montgomery");
+
+            if (prop != null)
+            {
+                return prop.equalsIgnoreCase("true");
+            }
+
+            String vmName = System.getProperty("java.vm.name");
+
+            return vmName != null && vmName.toLowerCase().indexOf("dalvik") >= 0;
+        }
+        catch (SecurityException e)
+        {
+            return false;
+        }
+    }
+
+    private void initMontgomery()
+    {
+        montP = null;
+        montQ = null;
+        montN = null;
+
+        if (key instanceof RSAPrivateCrtKeyParameters)
+        {
+            RSAPrivateCrtKeyParameters crtKey = (RSAPrivateCrtKeyParameters)key;
+
+            montP = createMontgomery(crtKey.getP());
+            montQ = createMontgomery(crtKey.getQ());
+        }
+        else
+        {
+            montN = createMontgomery(key.getModulus());
+        }
+
+        montKey = key;
+    }
+
+    private static MontgomeryModulus createMontgomery(BigInteger m)
+    {
+        if (m.testBit(0) && m.bitLength() > 1)
+        {
+            return new MontgomeryModulus(m);
+        }
+
+        return null;
+    }
+
+    private static BigInteger modPow(MontgomeryModulus mont, BigInteger base, BigInteger exponent, BigInteger m)
+    {
+        if (mont != null)
+        {
+            return mont.modPow(base, exponent);
+        }
+
+        return base.modPow(exponent, m);
     }
 
     /**
@@ -178,10 +260,10 @@ class RSACoreEngine
             BigInteger mP, mQ, h, m;
 
             // mP = ((input mod p) ^ dP)) mod p
-            mP = (input.remainder(p)).modPow(dP, p);
+            mP = modPow(montP, input.remainder(p), dP, p);
 
             // mQ = ((input mod q) ^ dQ)) mod q
-            mQ = (input.remainder(q)).modPow(dQ, q);
+            mQ = modPow(montQ, input.remainder(q), dQ, q);
 
             // h = qInv * (mP - mQ) mod p
             h = mP.subtract(mQ);
@@ -196,8 +278,7 @@ class RSACoreEngine
         }
         else
         {
-            return input.modPow(
-                        key.getExponent(), key.getModulus());
+            return modPow(montN, input, key.getExponent(), key.getModulus());
         }
     }
 }
@@ -7,6 +7,7 @@ import org.bouncycastle2.crypto.params.ECDomainParameters;
 import org.bouncycastle2.crypto.params.ECKeyGenerationParameters;
 import org.bouncycastle2.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle2.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle2.math.ec.ECAlgorithms;
 import org.bouncycastle2.math.ec.ECConstants;
 import org.bouncycastle2.math.ec.ECPoint;
 
@@ -44,7 +45,7 @@ public class ECKeyPairGenerator
         }
         while (d.equals(ZERO)  || (d.compareTo(n) >= 0));
 
-        ECPoint Q = params.getG().multiply(d);
+        ECPoint Q = ECAlgorithms.multiplyFixedPoint(params.getG(), d);
 
         return new AsymmetricCipherKeyPair(
             new ECPublicKeyParameters(Q, params),
@@ -1,16 +1,29 @@
 package org.bouncycastle2.crypto.generators;
 
 import org.bouncycastle2.crypto.CipherParameters;
+import org.bouncycastle2.crypto.Digest;
 import org.bouncycastle2.crypto.Mac;
 import org.bouncycastle2.crypto.PBEParametersGenerator;
 import org.bouncycastle2.crypto.digests.SHA1Digest;
 import org.bouncycastle2.crypto.macs.HMac;
 import org.bouncycastle2.crypto.params.KeyParameter;
 import org.bouncycastle2.crypto.params.ParametersWithIV;
+import org.bouncycastle2.util.Memoable;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Generator for PBE derived keys and ivs as defined by PKCS 5 V2.0 Scheme 2.
- * This generator uses a SHA-1 HMac as the calculation function.
+ * This generator uses an HMac as the calculation function, by default based on SHA-1.
+ * <p>
+ * The HMac is keyed with the password once per derived key, and for digests that implement
+ * Memoable every iteration after that starts from the saved states of the padded key rather
+ * than hashing the pads again. Where the derived key is longer than the digest the blocks it
+ * is made of can be calculated at the same time on an Executor, again only for digests that
+ * implement Memoable as each block needs its own copy of the digest.
  * <p>
  * The document this implementation is based on can be found at
  * <a href=http://www.rsasecurity.com/rsalabs/pkcs/pkcs-5/index.html>
@@ -19,17 +32,51 @@ import org.bouncycastle2.crypto.params.ParametersWithIV;
 public class PKCS5S2ParametersGenerator
     extends PBEParametersGenerator
 {
-    private Mac    hMac = new HMac(new SHA1Digest());
+    private final Digest   digest;
+    private final Executor executor;
+    private final Mac      hMac;
 
     /**
-     * construct a PKCS5 Scheme 2 Parameters generator.
+     * construct a PKCS5 Scheme 2 Parameters generator using SHA-1.
      */
     public PKCS5S2ParametersGenerator()
     {
+        this(new SHA1Digest());
+    }
+
+    /**
+     * construct a PKCS5 Scheme 2 Parameters generator.
+     *
+     * @param digest the digest to base the HMac used as the PRF on.
+     */
+    public PKCS5S2ParametersGenerator(
+        Digest digest)
+    {
+        this(digest, null);
     }
 
-    private void F(
-        byte[]  P,
+    /**
+     * construct a PKCS5 Scheme 2 Parameters generator which calculates the blocks
+     * of multi-block keys in parallel.
+     *
+     * @param digest the digest to base the HMac used as the PRF on.
+     * @param executor the executor to calculate blocks after the first on, may be null.
+     */
+    public PKCS5S2ParametersGenerator(
+        Digest   digest,
+        Executor executor)
+    {
+        this.digest = digest;
+        this.executor = executor;
+        this.hMac = new HMac(digest);
+    }
+
+    /**
+     * Calculate one block of the derived key, hMac must already be initialised with
+     * the password.
+     */
+    private static void F(
+        Mac     hMac,
         byte[]  S,
         int     c,
         byte[]  iBuf,
@@ -37,9 +84,6 @@ public class PKCS5S2ParametersGenerator
         int     outOff)
     {
         byte[]              state = new byte[hMac.getMacSize()];
-        CipherParameters    param = new KeyParameter(P);
-
-        hMac.init(param);
 
         if (S != null)
         {
@@ -52,14 +96,8 @@ public class PKCS5S2ParametersGenerator
 
         System.arraycopy(state, 0, out, outOff, state.length);
 
-        if (c == 0)
-        {
-            throw new IllegalArgumentException("iteration count must be at least 1.");
-        }
-        
         for (int count = 1; count < c; count++)
         {
-            hMac.init(param);
             hMac.update(state, 0, state.length);
             hMac.doFinal(state, 0);
 
@@ -70,7 +108,7 @@ public class PKCS5S2ParametersGenerator
         }
     }
 
-    private void intToOctet(
+    private static void intToOctet(
         byte[]  buf,
         int     i)
     {
@@ -85,19 +123,114 @@ public class PKCS5S2ParametersGenerator
     {
         int     hLen = hMac.getMacSize();
         int     l = (dkLen + hLen - 1) / hLen;
-        byte[]  iBuf = new byte[4];
         byte[]  out = new byte[l * hLen];
 
-        for (int i = 1; i <= l; i++)
+        if (iterationCount == 0)
+        {
+            throw new IllegalArgumentException("iteration count must be at least 1.");
+        }
+
+        CipherParameters param = new KeyParameter(password);
+
+        if (executor != null && l > 1 && digest instanceof Memoable)
+        {
+            FutureTask[] tasks = new FutureTask[l - 1];
+
+            for (int i = 2; i <= l; i++)
+            {
+                Mac blockMac = new HMac((Digest)((Memoable)digest).copy());
+
+                blockMac.init(param);
+
+                tasks[i - 2] = new FutureTask(new Block(blockMac, salt, iterationCount, i, out, (i - 1) * hLen), null);
+
+                try
+                {
+                    executor.execute(tasks[i - 2]);
+                }
+                catch (RejectedExecutionException e)
+                {
+                    // the block will be calculated on this thread below.
+                }
+            }
+
+            hMac.init(param);
+
+            new Block(hMac, salt, iterationCount, 1, out, 0).run();
+
+            //
+            // blocks the executor has yet to start are run here, running a task
+            // that has already started or finished does nothing.
+            //
+            for (int i = 0; i != tasks.length; i++)
+            {
+                tasks[i].run();
+
+                waitFor(tasks[i]);
+            }
+        }
+        else
         {
-            intToOctet(iBuf, i);
+            byte[]  iBuf = new byte[4];
+
+            hMac.init(param);
+
+            for (int i = 1; i <= l; i++)
+            {
+                intToOctet(iBuf, i);
 
-            F(password, salt, iterationCount, iBuf, out, (i - 1) * hLen);
+                F(hMac, salt, iterationCount, iBuf, out, (i - 1) * hLen);
+            }
         }
 
         return out;
     }
 
+    private static void waitFor(
+        FutureTask task)
+    {
+        boolean interrupted = false;
+
+        try
+        {
+            for (;;)
+            {
+                try
+                {
+                    task.get();
+
+                    return;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof RuntimeException)
+                    {
+                        throw (RuntimeException)cause;
+                    }
+                    if (cause instanceof Error)
+                    {
+                        throw (Error)cause;
+                    }
+
+                    throw new IllegalStateException("block calculation failed: " + cause);
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Generate a key parameter derived from the password, salt, and iteration
      * count we are currently initialised with.
@@ -148,4 +281,40 @@ public class PKCS5S2ParametersGenerator
     {
         return generateDerivedParameters(keySize);
     }
+
+    private static class Block
+        implements Runnable
+    {
+        private final Mac    hMac;
+        private final byte[] salt;
+        private final int    iterationCount;
+        private final int    index;
+        private final byte[] out;
+        private final int    outOff;
+
+        Block(
+            Mac    hMac,
+            byte[] salt,
+            int    iterationCount,
+            int    index,
+            byte[] out,
+            int    outOff)
+        {
+            this.hMac = hMac;
+            this.salt = salt;
+            this.iterationCount = iterationCount;
+            this.index = index;
+            this.out = out;
+            this.outOff = outOff;
+        }
+
+        public void run()
+        {
+            byte[] iBuf = new byte[4];
+
+            intToOctet(iBuf, index);
+
+            F(hMac, salt, iterationCount, iBuf, out, outOff);
+        }
+    }
 }
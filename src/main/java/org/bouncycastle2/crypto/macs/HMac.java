@@ -5,6 +5,7 @@ import org.bouncycastle2.crypto.Digest;
 import org.bouncycastle2.crypto.ExtendedDigest;
 import org.bouncycastle2.crypto.Mac;
 import org.bouncycastle2.crypto.params.KeyParameter;
+import org.bouncycastle2.util.Memoable;
 
 import java.util.Hashtable;
 
@@ -12,6 +13,9 @@ import java.util.Hashtable;
  * HMAC implementation based on RFC2104
  *
  * H(K XOR opad, H(K XOR ipad, text))
+ * <p>
+ * If the digest implements Memoable its state after absorbing each of the padded keys is saved
+ * at init, so reset and doFinal restore those states rather than hashing the pads again.
  */
 public class HMac
     implements Mac
@@ -25,6 +29,10 @@ public class HMac
     
     private byte[] inputPad;
     private byte[] outputPad;
+    private byte[] innerHash;
+
+    private Memoable ipadState;
+    private Memoable opadState;
 
     private static Hashtable blockLengths;
     
@@ -92,6 +100,7 @@ public class HMac
 
         inputPad = new byte[blockLength];
         outputPad = new byte[blockLength];
+        innerHash = new byte[digestSize];
     }
     
     public String getAlgorithmName()
@@ -142,7 +151,35 @@ public class HMac
             outputPad[i] ^= OPAD;
         }
 
+        if (digest instanceof Memoable)
+        {
+            opadState = saveState(opadState);
+
+            ((Digest)opadState).update(outputPad, 0, outputPad.length);
+        }
+
         digest.update(inputPad, 0, inputPad.length);
+
+        if (digest instanceof Memoable)
+        {
+            ipadState = saveState(ipadState);
+        }
+    }
+
+    /**
+     * Save the digest's current state, reusing state if it has already been allocated.
+     */
+    private Memoable saveState(
+        Memoable state)
+    {
+        if (state == null)
+        {
+            return ((Memoable)digest).copy();
+        }
+
+        state.reset((Memoable)digest);
+
+        return state;
     }
 
     public int getMacSize()
@@ -168,11 +205,18 @@ public class HMac
         byte[] out,
         int outOff)
     {
-        byte[] tmp = new byte[digestSize];
-        digest.doFinal(tmp, 0);
+        digest.doFinal(innerHash, 0);
 
-        digest.update(outputPad, 0, outputPad.length);
-        digest.update(tmp, 0, tmp.length);
+        if (opadState != null)
+        {
+            ((Memoable)digest).reset(opadState);
+        }
+        else
+        {
+            digest.update(outputPad, 0, outputPad.length);
+        }
+
+        digest.update(innerHash, 0, innerHash.length);
 
         int     len = digest.doFinal(out, outOff);
 
@@ -186,6 +230,16 @@ public class HMac
      */
     public void reset()
     {
+        if (ipadState != null)
+        {
+            /*
+             * restore the digest to its state after the input pad.
+             */
+            ((Memoable)digest).reset(ipadState);
+
+            return;
+        }
+
         /*
          * reset the underlying digest.
          */
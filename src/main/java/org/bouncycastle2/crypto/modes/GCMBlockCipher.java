@@ -4,6 +4,7 @@ import org.bouncycastle2.crypto.BlockCipher;
 import org.bouncycastle2.crypto.CipherParameters;
 import org.bouncycastle2.crypto.DataLengthException;
 import org.bouncycastle2.crypto.InvalidCipherTextException;
+import org.bouncycastle2.crypto.modes.gcm.GCMMultiBlockMultiplier;
 import org.bouncycastle2.crypto.modes.gcm.GCMMultiplier;
 import org.bouncycastle2.crypto.modes.gcm.Tables8kGCMMultiplier;
 import org.bouncycastle2.crypto.params.AEADParameters;
@@ -26,6 +27,9 @@ public class GCMBlockCipher
     private BlockCipher   cipher;
     private GCMMultiplier multiplier;
 
+    // set if the multiplier can fold several blocks into the hash at once
+    private GCMMultiBlockMultiplier multiBlockMultiplier;
+
     // These fields are set by init and not modified by processing
     private boolean             forEncryption;
     private int                 macSize;
@@ -43,6 +47,9 @@ public class GCMBlockCipher
     private byte[]      counter;
     private int         bufOff;
     private long        totalLength;
+    private byte[]      ctrBlock;
+    private byte[]      hashBlocks;
+    private int         hashOff;
 
     public GCMBlockCipher(BlockCipher c)
     {
@@ -65,6 +72,12 @@ public class GCMBlockCipher
 
         this.cipher = c;
         this.multiplier = m;
+
+        if (m instanceof GCMMultiBlockMultiplier)
+        {
+            this.multiBlockMultiplier = (GCMMultiBlockMultiplier)m;
+            this.hashBlocks = new byte[4 * BLOCK_SIZE];
+        }
     }
 
     public BlockCipher getUnderlyingCipher()
@@ -115,6 +128,7 @@ public class GCMBlockCipher
 
         int bufLength = forEncryption ? BLOCK_SIZE : (BLOCK_SIZE + macSize); 
         this.bufBlock = new byte[bufLength];
+        this.ctrBlock = new byte[BLOCK_SIZE];
 
         if (nonce == null || nonce.length < 1)
         {
@@ -159,6 +173,7 @@ public class GCMBlockCipher
         this.counter = Arrays.clone(J0);
         this.bufOff = 0;
         this.totalLength = 0;
+        this.hashOff = 0;
     }
 
     public byte[] getMac()
@@ -192,6 +207,38 @@ public class GCMBlockCipher
     {
         int resultLen = 0;
 
+        //
+        // output can be written before later input has been read, so unless the call is
+        // in place on whole blocks input overlapping the output is copied first.
+        //
+        if (in == out && !(inOff == outOff && bufOff == 0)
+            && inOff < outOff + getUpdateOutputSize(len) && outOff < inOff + len)
+        {
+            byte[] tmp = new byte[len];
+
+            System.arraycopy(in, inOff, tmp, 0, len);
+
+            in = tmp;
+            inOff = 0;
+        }
+
+        if (bufOff == 0)
+        {
+            //
+            // whole blocks can be processed straight from the input, but when decrypting
+            // enough has to be kept back to make up the tag.
+            //
+            int keep = forEncryption ? 0 : macSize;
+
+            while (len - keep >= BLOCK_SIZE)
+            {
+                gCTRBlock(in, inOff, BLOCK_SIZE, out, outOff + resultLen);
+                inOff += BLOCK_SIZE;
+                len -= BLOCK_SIZE;
+                resultLen += BLOCK_SIZE;
+            }
+        }
+
         for (int i = 0; i != len; i++)
         {
 //            resultLen += process(in[inOff + i], out, outOff + resultLen);
@@ -199,7 +246,7 @@ public class GCMBlockCipher
 
             if (bufOff == bufBlock.length)
             {
-                gCTRBlock(bufBlock, BLOCK_SIZE, out, outOff + resultLen);
+                gCTRBlock(bufBlock, 0, BLOCK_SIZE, out, outOff + resultLen);
                 if (!forEncryption)
                 {
                     System.arraycopy(bufBlock, BLOCK_SIZE, bufBlock, 0, macSize);
@@ -221,7 +268,7 @@ public class GCMBlockCipher
 
         if (bufOff == bufBlock.length)
         {
-            gCTRBlock(bufBlock, BLOCK_SIZE, out, outOff);
+            gCTRBlock(bufBlock, 0, BLOCK_SIZE, out, outOff);
             if (!forEncryption)
             {
                 System.arraycopy(bufBlock, BLOCK_SIZE, bufBlock, 0, macSize);
@@ -252,9 +299,11 @@ public class GCMBlockCipher
         {
             byte[] tmp = new byte[BLOCK_SIZE];
             System.arraycopy(bufBlock, 0, tmp, 0, extra);
-            gCTRBlock(tmp, extra, out, outOff);
+            gCTRBlock(tmp, 0, extra, out, outOff);
         }
 
+        flushHash();
+
         // Final gHASH
         byte[] X = new byte[16];
         packLength((long)A.length * 8, X, 0);
@@ -309,6 +358,7 @@ public class GCMBlockCipher
         counter = Arrays.clone(J0);
         bufOff = 0;
         totalLength = 0;
+        hashOff = 0;
 
         if (bufBlock != null)
         {
@@ -323,7 +373,7 @@ public class GCMBlockCipher
         cipher.reset();
     }
 
-    private void gCTRBlock(byte[] buf, int bufCount, byte[] out, int outOff)
+    private void gCTRBlock(byte[] buf, int bufOffset, int bufCount, byte[] out, int outOff)
     {
 //        inc(counter);
         for (int i = 15; i >= 12; --i)
@@ -337,55 +387,90 @@ public class GCMBlockCipher
             }
         }
 
-        byte[] tmp = new byte[BLOCK_SIZE];
+        byte[] tmp = ctrBlock;
         cipher.processBlock(counter, 0, tmp, 0);
 
-        byte[] hashBytes;
         if (forEncryption)
         {
             System.arraycopy(ZEROES, bufCount, tmp, bufCount, BLOCK_SIZE - bufCount);
-            hashBytes = tmp;
+
+            for (int i = bufCount - 1; i >= 0; --i)
+            {
+                tmp[i] ^= buf[bufOffset + i];
+                out[outOff + i] = tmp[i];
+            }
+
+            gHASHBlock(tmp, 0);
         }
         else
         {
-            hashBytes = buf;
+            // hash the cipher text first in case the output overwrites it
+            gHASHBlock(buf, bufOffset);
+
+            for (int i = bufCount - 1; i >= 0; --i)
+            {
+                out[outOff + i] = (byte)(tmp[i] ^ buf[bufOffset + i]);
+            }
         }
 
-        for (int i = bufCount - 1; i >= 0; --i)
+        totalLength += bufCount;
+    }
+
+    private void gHASHBlock(byte[] block, int off)
+    {
+        if (multiBlockMultiplier != null)
+        {
+            // hash four blocks at a time, the pending ones are flushed before S is used
+            System.arraycopy(block, off, hashBlocks, hashOff, BLOCK_SIZE);
+            hashOff += BLOCK_SIZE;
+
+            if (hashOff == hashBlocks.length)
+            {
+                multiBlockMultiplier.multiplyH4(S, hashBlocks, 0);
+                hashOff = 0;
+            }
+        }
+        else
         {
-            tmp[i] ^= buf[i];
-            out[outOff + i] = tmp[i];
+            xor(S, block, off, BLOCK_SIZE);
+            multiplier.multiplyH(S);
         }
+    }
 
-//        gHASHBlock(hashBytes);
-        xor(S, hashBytes);
-        multiplier.multiplyH(S);
+    private void flushHash()
+    {
+        for (int off = 0; off < hashOff; off += BLOCK_SIZE)
+        {
+            xor(S, hashBlocks, off, BLOCK_SIZE);
+            multiplier.multiplyH(S);
+        }
 
-        totalLength += bufCount;
+        hashOff = 0;
     }
 
     private byte[] gHASH(byte[] b)
     {
         byte[] Y = new byte[16];
+        int    pos = 0;
 
-        for (int pos = 0; pos < b.length; pos += 16)
+        if (multiBlockMultiplier != null)
+        {
+            for (; b.length - pos >= 4 * BLOCK_SIZE; pos += 4 * BLOCK_SIZE)
+            {
+                multiBlockMultiplier.multiplyH4(Y, b, pos);
+            }
+        }
+
+        for (; pos < b.length; pos += 16)
         {
-            byte[] X = new byte[16];
             int num = Math.min(b.length - pos, 16);
-            System.arraycopy(b, pos, X, 0, num);
-            xor(Y, X);
+            xor(Y, b, pos, num);
             multiplier.multiplyH(Y);
         }
 
         return Y;
     }
 
-//    private void gHASHBlock(byte[] block)
-//    {
-//        xor(S, block);
-//        multiplier.multiplyH(S);
-//    }
-
 //    private static void inc(byte[] block)
 //    {
 //        for (int i = 15; i >= 12; --i)
@@ -408,6 +493,14 @@ public class GCMBlockCipher
         }
     }
 
+    private static void xor(byte[] block, byte[] val, int off, int len)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            block[i] ^= val[off + i];
+        }
+    }
+
     private static void packLength(long count, byte[] bs, int off)
     {
         Pack.intToBigEndian((int)(count >>> 32), bs, off); 
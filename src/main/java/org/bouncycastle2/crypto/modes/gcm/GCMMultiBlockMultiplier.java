@@ -0,0 +1,20 @@
+package org.bouncycastle2.crypto.modes.gcm;
+
+/**
+ * A GCMMultiplier that can also fold several blocks into the hash in one call,
+ * using precomputed powers of H.
+ */
+public interface GCMMultiBlockMultiplier
+    extends GCMMultiplier
+{
+    /**
+     * Fold four consecutive blocks into the hash value x, that is compute
+     * x = (x ^ b0).H^4 ^ b1.H^3 ^ b2.H^2 ^ b3.H, which is the same as four
+     * calls of x ^= b; multiplyH(x).
+     *
+     * @param x the current hash value, replaced by the result.
+     * @param blocks array containing the four blocks.
+     * @param off offset of the first block in blocks.
+     */
+    void multiplyH4(byte[] x, byte[] blocks, int off);
+}
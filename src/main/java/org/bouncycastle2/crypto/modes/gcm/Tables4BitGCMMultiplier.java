@@ -0,0 +1,200 @@
+package org.bouncycastle2.crypto.modes.gcm;
+
+import org.bouncycastle2.crypto.util.Pack;
+
+/**
+ * GHASH multiplier using Shoup's 4-bit tables.
+ * <p>
+ * Each table holds the 16 multiples of a power of H by a 4 bit value, as pairs of
+ * longs, and a product is accumulated a nibble at a time with the reduction done by
+ * a further 16 entry table. Tables are kept for H, H^2, H^3 and H^4 so four blocks
+ * can be folded into the hash with independent multiplications, 1KB in all. No
+ * memory is allocated once the multiplier has been initialised.
+ */
+public class Tables4BitGCMMultiplier
+    implements GCMMultiBlockMultiplier
+{
+    //
+    // reduction of the 4 bits shifted out of the bottom of the accumulator,
+    // already positioned at the top of the high word.
+    //
+    private static final long[] REM_4BIT =
+    {
+        0x0000L << 48, 0x1C20L << 48, 0x3840L << 48, 0x2460L << 48,
+        0x7080L << 48, 0x6CA0L << 48, 0x48C0L << 48, 0x54E0L << 48,
+        0xE100L << 48, 0xFD20L << 48, 0xD940L << 48, 0xC560L << 48,
+        0x9180L << 48, 0x8DA0L << 48, 0xA9C0L << 48, 0xB5E0L << 48
+    };
+
+    //
+    // T[k] is the table for H^(k + 1), entry i is at T[k][2i] (high) and T[k][2i + 1] (low).
+    //
+    private final long[][] T = new long[4][32];
+
+    private long zHi;
+    private long zLo;
+
+    public void init(byte[] H)
+    {
+        long hHi = Pack.bigEndianToLong(H, 0);
+        long hLo = Pack.bigEndianToLong(H, 8);
+
+        initTable(T[0], hHi, hLo);
+
+        for (int k = 1; k != 4; k++)
+        {
+            multiply(T[k - 1], hHi, hLo);
+            initTable(T[k], zHi, zLo);
+        }
+    }
+
+    public void multiplyH(byte[] x)
+    {
+        multiply(T[0], Pack.bigEndianToLong(x, 0), Pack.bigEndianToLong(x, 8));
+
+        Pack.longToBigEndian(zHi, x, 0);
+        Pack.longToBigEndian(zLo, x, 8);
+    }
+
+    public void multiplyH4(byte[] x, byte[] blocks, int off)
+    {
+        //
+        // the four products are independent, so they are worked through together
+        // to let their dependency chains overlap.
+        //
+        long[] t0 = T[3], t1 = T[2], t2 = T[1], t3 = T[0];
+        long   hi0 = 0, lo0 = 0, hi1 = 0, lo1 = 0, hi2 = 0, lo2 = 0, hi3 = 0, lo3 = 0;
+        long   w0 = Pack.bigEndianToLong(x, 8) ^ Pack.bigEndianToLong(blocks, off + 8);
+        long   w1 = Pack.bigEndianToLong(blocks, off + 24);
+        long   w2 = Pack.bigEndianToLong(blocks, off + 40);
+        long   w3 = Pack.bigEndianToLong(blocks, off + 56);
+        int    n, rem;
+
+        for (int j = 0; j != 2; j++)
+        {
+            for (int i = 0; i != 8; i++)
+            {
+                n = ((int)w0 & 0x0f) << 1;
+                rem = (int)lo0 & 0x0f;
+                lo0 = ((hi0 << 60) | (lo0 >>> 4)) ^ t0[n + 1];
+                hi0 = (hi0 >>> 4) ^ REM_4BIT[rem] ^ t0[n];
+
+                n = ((int)w1 & 0x0f) << 1;
+                rem = (int)lo1 & 0x0f;
+                lo1 = ((hi1 << 60) | (lo1 >>> 4)) ^ t1[n + 1];
+                hi1 = (hi1 >>> 4) ^ REM_4BIT[rem] ^ t1[n];
+
+                n = ((int)w2 & 0x0f) << 1;
+                rem = (int)lo2 & 0x0f;
+                lo2 = ((hi2 << 60) | (lo2 >>> 4)) ^ t2[n + 1];
+                hi2 = (hi2 >>> 4) ^ REM_4BIT[rem] ^ t2[n];
+
+                n = ((int)w3 & 0x0f) << 1;
+                rem = (int)lo3 & 0x0f;
+                lo3 = ((hi3 << 60) | (lo3 >>> 4)) ^ t3[n + 1];
+                hi3 = (hi3 >>> 4) ^ REM_4BIT[rem] ^ t3[n];
+
+                n = ((int)w0 & 0xf0) >>> 3;
+                rem = (int)lo0 & 0x0f;
+                lo0 = ((hi0 << 60) | (lo0 >>> 4)) ^ t0[n + 1];
+                hi0 = (hi0 >>> 4) ^ REM_4BIT[rem] ^ t0[n];
+
+                n = ((int)w1 & 0xf0) >>> 3;
+                rem = (int)lo1 & 0x0f;
+                lo1 = ((hi1 << 60) | (lo1 >>> 4)) ^ t1[n + 1];
+                hi1 = (hi1 >>> 4) ^ REM_4BIT[rem] ^ t1[n];
+
+                n = ((int)w2 & 0xf0) >>> 3;
+                rem = (int)lo2 & 0x0f;
+                lo2 = ((hi2 << 60) | (lo2 >>> 4)) ^ t2[n + 1];
+                hi2 = (hi2 >>> 4) ^ REM_4BIT[rem] ^ t2[n];
+
+                n = ((int)w3 & 0xf0) >>> 3;
+                rem = (int)lo3 & 0x0f;
+                lo3 = ((hi3 << 60) | (lo3 >>> 4)) ^ t3[n + 1];
+                hi3 = (hi3 >>> 4) ^ REM_4BIT[rem] ^ t3[n];
+
+                w0 >>>= 8;
+                w1 >>>= 8;
+                w2 >>>= 8;
+                w3 >>>= 8;
+            }
+
+            w0 = Pack.bigEndianToLong(x, 0) ^ Pack.bigEndianToLong(blocks, off);
+            w1 = Pack.bigEndianToLong(blocks, off + 16);
+            w2 = Pack.bigEndianToLong(blocks, off + 32);
+            w3 = Pack.bigEndianToLong(blocks, off + 48);
+        }
+
+        Pack.longToBigEndian(hi0 ^ hi1 ^ hi2 ^ hi3, x, 0);
+        Pack.longToBigEndian(lo0 ^ lo1 ^ lo2 ^ lo3, x, 8);
+    }
+
+    private static void initTable(long[] t, long hHi, long hLo)
+    {
+        //
+        // t[8] = H, t[4] = H.P, t[2] = H.P^2, t[1] = H.P^3
+        //
+        long vHi = hHi;
+        long vLo = hLo;
+
+        for (int i = 8; i > 0; i >>= 1)
+        {
+            t[2 * i] = vHi;
+            t[2 * i + 1] = vLo;
+
+            long r = 0xE100000000000000L & -(vLo & 1);
+
+            vLo = (vHi << 63) | (vLo >>> 1);
+            vHi = (vHi >>> 1) ^ r;
+        }
+
+        for (int i = 2; i < 16; i <<= 1)
+        {
+            for (int j = 1; j < i; j++)
+            {
+                t[2 * (i + j)] = t[2 * i] ^ t[2 * j];
+                t[2 * (i + j) + 1] = t[2 * i + 1] ^ t[2 * j + 1];
+            }
+        }
+    }
+
+    /**
+     * Set (zHi, zLo) to (xHi, xLo).H^k where t is the table for H^k.
+     */
+    private void multiply(long[] t, long xHi, long xLo)
+    {
+        long hi = 0;
+        long lo = 0;
+        long w = xLo;
+
+        //
+        // work from the last byte to the first, low nibble before high nibble, multiplying
+        // the accumulator by P^4 before adding in each nibble's multiple of H^k.
+        //
+        for (int j = 0; j != 2; j++)
+        {
+            for (int i = 0; i != 8; i++)
+            {
+                int n = ((int)w & 0x0f) << 1;
+                int rem = (int)lo & 0x0f;
+
+                lo = ((hi << 60) | (lo >>> 4)) ^ t[n + 1];
+                hi = (hi >>> 4) ^ REM_4BIT[rem] ^ t[n];
+
+                n = ((int)w & 0xf0) >>> 3;
+                rem = (int)lo & 0x0f;
+
+                lo = ((hi << 60) | (lo >>> 4)) ^ t[n + 1];
+                hi = (hi >>> 4) ^ REM_4BIT[rem] ^ t[n];
+
+                w >>>= 8;
+            }
+
+            w = xHi;
+        }
+
+        zHi = hi;
+        zLo = lo;
+    }
+}
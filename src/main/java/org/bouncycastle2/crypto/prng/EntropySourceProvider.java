@@ -0,0 +1,17 @@
+package org.bouncycastle2.crypto.prng;
+
+/**
+ * Base interface describing a provider of entropy sources.
+ * <p>
+ * A provider may be shared by many DRBGs and so must be safe to call from several threads.
+ */
+public interface EntropySourceProvider
+{
+    /**
+     * Return an entropy source providing a block of entropy.
+     *
+     * @param bitsRequired the size of the block of entropy required.
+     * @return an entropy source providing bitsRequired blocks of entropy.
+     */
+    EntropySource get(int bitsRequired);
+}
@@ -0,0 +1,314 @@
+package org.bouncycastle2.crypto.prng;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An EntropySourceProvider which serves seed material from a pool kept topped up in the
+ * background.
+ * <p>
+ * The pool is filled from a single platform SecureRandom, created or passed in once, using
+ * generateSeed() on a daemon thread. When the amount in the pool falls to the low water mark the
+ * thread fills it up again, so a caller asking for seed material normally just has bytes
+ * copied out of the pool and never waits on the platform source. If a request finds the pool
+ * short - for example before the first fill has completed - the balance is made up directly
+ * from the same SecureRandom and the request is counted as a miss. If the source is marked as
+ * prediction resistant the balance comes from generateSeed(), so every byte handed out is fresh
+ * entropy and the caller may block; otherwise nextBytes(), which does not block, is used. Bytes
+ * are only ever handed out once.
+ * <p>
+ * The current fill level, the number of requests and misses, and the time taken to serve
+ * recent requests are available for monitoring.
+ */
+public class PooledEntropySourceProvider
+    implements EntropySourceProvider
+{
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int FILL_CHUNK = 64;
+
+    private final SecureRandom    source;
+    private final boolean         predictionResistant;
+    private final byte[]          pool;
+    private final int             lowWater;
+    private final Object          lock = new Object();
+
+    private final AtomicLong      requests = new AtomicLong();
+    private final AtomicLong      misses = new AtomicLong();
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+
+    private int                   head;
+    private int                   count;
+    private boolean               closed;
+
+    /**
+     * Create a provider with a 4096 byte pool filled from a new default SecureRandom, treated
+     * as prediction resistant.
+     */
+    public PooledEntropySourceProvider()
+    {
+        this(new SecureRandom(), true, 4096);
+    }
+
+    /**
+     * Create a provider filling its pool from the passed in SecureRandom.
+     *
+     * @param source the platform source of entropy.
+     * @param isPredictionResistant true if the output of source.generateSeed() is prediction resistant.
+     * @param poolSize the number of bytes of seed material to keep in the pool.
+     */
+    public PooledEntropySourceProvider(
+        SecureRandom source,
+        boolean      isPredictionResistant,
+        int          poolSize)
+    {
+        if (poolSize < FILL_CHUNK)
+        {
+            throw new IllegalArgumentException("poolSize must be at least " + FILL_CHUNK);
+        }
+
+        this.source = source;
+        this.predictionResistant = isPredictionResistant;
+        this.pool = new byte[poolSize];
+        this.lowWater = poolSize / 4;
+
+        Thread filler = new Thread(new Filler(), "PooledEntropySourceProvider");
+
+        filler.setDaemon(true);
+        filler.start();
+    }
+
+    /**
+     * Return an entropy source that will supply bitsRequired bits of entropy from the pool on
+     * each invocation of getEntropy().
+     *
+     * @param bitsRequired size (in bits) of entropy to be returned by the provided source.
+     * @return an EntropySource that returns bitsRequired bits of entropy on each call to its getEntropy() method.
+     */
+    public EntropySource get(
+        final int bitsRequired)
+    {
+        return new EntropySource()
+        {
+            public boolean isPredictionResistant()
+            {
+                return predictionResistant;
+            }
+
+            public byte[] getEntropy()
+            {
+                return getSeed((bitsRequired + 7) / 8);
+            }
+
+            public int entropySize()
+            {
+                return bitsRequired;
+            }
+        };
+    }
+
+    /**
+     * Return numBytes of seed material.
+     *
+     * @param numBytes the number of bytes required.
+     * @return a byte array of seed material.
+     */
+    public byte[] getSeed(
+        int numBytes)
+    {
+        long   start = System.nanoTime();
+        byte[] seed = new byte[numBytes];
+        int    taken;
+
+        synchronized (lock)
+        {
+            taken = Math.min(numBytes, count);
+
+            int first = Math.min(taken, pool.length - head);
+
+            System.arraycopy(pool, head, seed, 0, first);
+            System.arraycopy(pool, 0, seed, first, taken - first);
+
+            // don't leave the bytes handed out behind in the pool.
+            Arrays.fill(pool, head, head + first, (byte)0);
+            Arrays.fill(pool, 0, taken - first, (byte)0);
+
+            head = (head + taken) % pool.length;
+            count -= taken;
+
+            if (count <= lowWater)
+            {
+                lock.notifyAll();
+            }
+        }
+
+        if (taken < numBytes)
+        {
+            byte[] rest;
+
+            if (predictionResistant)
+            {
+                rest = source.generateSeed(numBytes - taken);
+            }
+            else
+            {
+                rest = new byte[numBytes - taken];
+
+                source.nextBytes(rest);
+            }
+
+            System.arraycopy(rest, 0, seed, taken, rest.length);
+
+            Arrays.fill(rest, (byte)0);
+
+            misses.incrementAndGet();
+        }
+
+        int index = (int)(requests.getAndIncrement() % LATENCY_SAMPLES);
+
+        latencies.set(index, System.nanoTime() - start);
+
+        return seed;
+    }
+
+    /**
+     * Return the number of bytes the pool can hold.
+     */
+    public int getPoolSize()
+    {
+        return pool.length;
+    }
+
+    /**
+     * Return the number of bytes currently in the pool.
+     */
+    public int getFillLevel()
+    {
+        synchronized (lock)
+        {
+            return count;
+        }
+    }
+
+    /**
+     * Return the number of requests for seed material served so far.
+     */
+    public long getRequestCount()
+    {
+        return requests.get();
+    }
+
+    /**
+     * Return the number of requests which found the pool short and had to be completed
+     * directly from the platform source.
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Return a percentile of the time taken to serve a request for seed material, over the
+     * most recent requests.
+     *
+     * @param percentile the percentile required, for example 50 or 99.
+     * @return the latency in nanoseconds, -1 if no requests have been served yet.
+     */
+    public long getSeedingLatency(
+        double percentile)
+    {
+        if (percentile <= 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("percentile must be greater than 0 and no more than 100");
+        }
+
+        int sampleCount = (int)Math.min(requests.get(), LATENCY_SAMPLES);
+
+        if (sampleCount == 0)
+        {
+            return -1;
+        }
+
+        long[] samples = new long[sampleCount];
+
+        for (int i = 0; i != sampleCount; i++)
+        {
+            samples[i] = latencies.get(i);
+        }
+
+        Arrays.sort(samples);
+
+        int index = (int)Math.ceil(percentile * sampleCount / 100) - 1;
+
+        return samples[Math.max(index, 0)];
+    }
+
+    /**
+     * Stop the background thread. Seed material is still served, from whatever is left in the
+     * pool and then directly from the platform source.
+     */
+    public void shutdown()
+    {
+        synchronized (lock)
+        {
+            closed = true;
+
+            lock.notifyAll();
+        }
+    }
+
+    private class Filler
+        implements Runnable
+    {
+        public void run()
+        {
+            try
+            {
+                for (;;)
+                {
+                    int request;
+
+                    synchronized (lock)
+                    {
+                        if (count == pool.length)
+                        {
+                            while (!closed && count > lowWater)
+                            {
+                                lock.wait();
+                            }
+                        }
+
+                        if (closed)
+                        {
+                            return;
+                        }
+
+                        request = Math.min(pool.length - count, FILL_CHUNK);
+                    }
+
+                    // the platform source may block, so it is read outside the lock.
+                    byte[] seed = source.generateSeed(request);
+
+                    synchronized (lock)
+                    {
+                        int len = Math.min(seed.length, pool.length - count);
+                        int tail = (head + count) % pool.length;
+                        int first = Math.min(len, pool.length - tail);
+
+                        System.arraycopy(seed, 0, pool, tail, first);
+                        System.arraycopy(seed, first, pool, 0, len - first);
+
+                        count += len;
+                    }
+
+                    Arrays.fill(seed, (byte)0);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // treat as a shutdown.
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.bouncycastle2.crypto.prng;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle2.crypto.prng.drbg.SP80090DRBG;
+import org.bouncycastle2.crypto.util.Pack;
+
+/**
+ * A SecureRandom backed by SP 800-90A DRBGs, one for each thread using it.
+ * <p>
+ * Each thread gets its own DRBG the first time it asks for random data, instantiated with
+ * entropy from the shared EntropySourceProvider and a personalization string unique to
+ * that DRBG. After that a thread's requests only touch its own DRBG, so unlike a SecureRandom
+ * around a synchronized generator any number of threads can draw from one of these without
+ * contending with each other. The provider is only called again when a DRBG needs to be
+ * reseeded.
+ * <p>
+ * Instances are created using an SP800SecureRandomBuilder.
+ */
+public class SP800SecureRandom
+    extends SecureRandom
+{
+    private final EntropySourceProvider entropySourceProvider;
+    private final DRBGProvider          drbgProvider;
+    private final int                   entropyBitsRequired;
+    private final boolean               predictionResistant;
+    private final int                   maxRequest;
+
+    private final ThreadLocal           drbgs;
+
+    SP800SecureRandom(
+        EntropySourceProvider entropySourceProvider,
+        int                   entropyBitsRequired,
+        DRBGProvider          drbgProvider,
+        int                   maxRequest,
+        boolean               predictionResistant)
+    {
+        super(null, null);
+
+        this.entropySourceProvider = entropySourceProvider;
+        this.entropyBitsRequired = entropyBitsRequired;
+        this.drbgProvider = drbgProvider;
+        this.maxRequest = maxRequest;
+        this.predictionResistant = predictionResistant;
+        this.drbgs = new ThreadLocal()
+        {
+            protected Object initialValue()
+            {
+                return createDRBG();
+            }
+        };
+    }
+
+    public String getAlgorithm()
+    {
+        return "SP800-90A";
+    }
+
+    public void setSeed(
+        byte[] seed)
+    {
+        if (drbgs != null)
+        {
+            getDRBG().reseed(seed);
+        }
+    }
+
+    public void setSeed(
+        long seed)
+    {
+        // this will happen when SecureRandom() is created
+        if (drbgs != null)
+        {
+            byte[] bytes = new byte[8];
+
+            Pack.longToBigEndian(seed, bytes, 0);
+
+            getDRBG().reseed(bytes);
+        }
+    }
+
+    public void nextBytes(
+        byte[] bytes)
+    {
+        SP80090DRBG drbg = getDRBG();
+
+        if (bytes.length <= maxRequest)
+        {
+            generate(drbg, bytes);
+
+            return;
+        }
+
+        byte[] block = new byte[maxRequest];
+
+        for (int off = 0; off < bytes.length; off += maxRequest)
+        {
+            int len = Math.min(maxRequest, bytes.length - off);
+
+            if (len != block.length)
+            {
+                block = new byte[len];
+            }
+
+            generate(drbg, block);
+
+            System.arraycopy(block, 0, bytes, off, len);
+        }
+    }
+
+    /**
+     * Return seed material directly from the entropy source, the DRBGs are not used.
+     */
+    public byte[] generateSeed(
+        int numBytes)
+    {
+        byte[] rv = new byte[numBytes];
+        int    off = 0;
+
+        while (off < numBytes)
+        {
+            byte[] entropy = entropySourceProvider.get((numBytes - off) * 8).getEntropy();
+            int    len = Math.min(entropy.length, numBytes - off);
+
+            System.arraycopy(entropy, 0, rv, off, len);
+
+            off += len;
+        }
+
+        return rv;
+    }
+
+    /**
+     * Force a reseed of the calling thread's DRBG, mixing in the passed in additional input.
+     *
+     * @param additionalInput additional input to be added to the DRBG, may be null.
+     */
+    public void reseed(
+        byte[] additionalInput)
+    {
+        getDRBG().reseed(additionalInput);
+    }
+
+    private SP80090DRBG createDRBG()
+    {
+        return drbgProvider.get(entropySourceProvider.get(entropyBitsRequired));
+    }
+
+    private SP80090DRBG getDRBG()
+    {
+        return (SP80090DRBG)drbgs.get();
+    }
+
+    private void generate(
+        SP80090DRBG drbg,
+        byte[]      bytes)
+    {
+        // check if a reseed is required...
+        if (drbg.generate(bytes, null, predictionResistant) < 0)
+        {
+            drbg.reseed(null);
+            drbg.generate(bytes, null, predictionResistant);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.bouncycastle2.crypto.prng;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.macs.HMac;
+import org.bouncycastle2.crypto.prng.drbg.HMacSP800DRBG;
+import org.bouncycastle2.crypto.prng.drbg.HashSP800DRBG;
+import org.bouncycastle2.crypto.prng.drbg.SP80090DRBG;
+import org.bouncycastle2.crypto.util.Pack;
+import org.bouncycastle2.util.Arrays;
+import org.bouncycastle2.util.Memoable;
+
+/**
+ * Builder class for making SecureRandom objects based on SP 800-90A Deterministic Random Bit
+ * Generators (DRBG).
+ * <p>
+ * The SecureRandom built creates a DRBG for each thread that uses it, each with its own copy of
+ * the digest passed in - which must therefore implement Memoable. Every DRBG is instantiated
+ * with the personalization string followed by a counter and the thread's id, so no two share
+ * an initial state even if the entropy source misbehaves.
+ */
+public class SP800SecureRandomBuilder
+{
+    private static final AtomicLong instanceCount = new AtomicLong();
+
+    private final EntropySourceProvider entropySourceProvider;
+
+    private byte[] personalizationString;
+    private int    securityStrength = -1;
+    private int    entropyBitsRequired = -1;
+
+    /**
+     * Basic constructor, creates a builder using an EntropySourceProvider based on the default
+     * SecureRandom with predictionResistant set to false.
+     */
+    public SP800SecureRandomBuilder()
+    {
+        this(new SecureRandom(), false);
+    }
+
+    /**
+     * Construct a builder with an EntropySourceProvider based on the passed in SecureRandom and
+     * the passed in value for prediction resistance.
+     *
+     * @param entropySource the SecureRandom to take entropy from.
+     * @param predictionResistant true if the SecureRandom is prediction resistant.
+     */
+    public SP800SecureRandomBuilder(
+        SecureRandom entropySource,
+        boolean      predictionResistant)
+    {
+        this(new BasicEntropySourceProvider(entropySource, predictionResistant));
+    }
+
+    /**
+     * Create a builder which creates the SecureRandom objects from a specified entropy
+     * source provider. The provider is shared by all the DRBGs created, so must be thread safe.
+     *
+     * @param entropySourceProvider a provider of EntropySource objects.
+     */
+    public SP800SecureRandomBuilder(
+        EntropySourceProvider entropySourceProvider)
+    {
+        this.entropySourceProvider = entropySourceProvider;
+    }
+
+    /**
+     * Set the personalization string for DRBG SecureRandoms created by this builder.
+     *
+     * @param personalizationString the personalization string for the underlying DRBGs.
+     * @return the current builder.
+     */
+    public SP800SecureRandomBuilder setPersonalizationString(
+        byte[] personalizationString)
+    {
+        this.personalizationString = Arrays.clone(personalizationString);
+
+        return this;
+    }
+
+    /**
+     * Set the security strength required for DRBGs used in building SecureRandom objects. The
+     * default is the highest strength the digest supports.
+     *
+     * @param securityStrength the security strength (in bits)
+     * @return the current builder.
+     */
+    public SP800SecureRandomBuilder setSecurityStrength(
+        int securityStrength)
+    {
+        this.securityStrength = securityStrength;
+
+        return this;
+    }
+
+    /**
+     * Set the amount of entropy bits required for seeding and reseeding DRBGs used in building
+     * SecureRandom objects. The default is the security strength.
+     *
+     * @param entropyBitsRequired the number of bits of entropy to be requested from the entropy source on each seed/reseed.
+     * @return the current builder.
+     */
+    public SP800SecureRandomBuilder setEntropyBitsRequired(
+        int entropyBitsRequired)
+    {
+        this.entropyBitsRequired = entropyBitsRequired;
+
+        return this;
+    }
+
+    /**
+     * Build a SecureRandom based on a SP 800-90A Hash DRBG.
+     *
+     * @param digest digest algorithm to use in the DRBG underneath the SecureRandom, must implement Memoable.
+     * @param predictionResistant specify whether the underlying DRBG in the resulting SecureRandom should reseed on each request for bytes.
+     * @return a SecureRandom supported by a Hash DRBG.
+     */
+    public SP800SecureRandom buildHash(
+        Digest  digest,
+        boolean predictionResistant)
+    {
+        final Memoable prototype = copyDigest(digest);
+        final int      strength = getSecurityStrength(digest);
+        final byte[]   personalization = personalizationString;
+
+        return build(new DRBGProvider()
+        {
+            public SP80090DRBG get(EntropySource entropySource)
+            {
+                return new HashSP800DRBG((Digest)prototype.copy(), strength, entropySource, createPersonalizationString(personalization), createNonce());
+            }
+        }, strength, predictionResistant);
+    }
+
+    /**
+     * Build a SecureRandom based on a SP 800-90A HMAC DRBG.
+     *
+     * @param digest digest algorithm to use in the HMac underneath the DRBG, must implement Memoable.
+     * @param predictionResistant specify whether the underlying DRBG in the resulting SecureRandom should reseed on each request for bytes.
+     * @return a SecureRandom supported by a HMAC DRBG.
+     */
+    public SP800SecureRandom buildHMAC(
+        Digest  digest,
+        boolean predictionResistant)
+    {
+        final Memoable prototype = copyDigest(digest);
+        final int      strength = getSecurityStrength(digest);
+        final byte[]   personalization = personalizationString;
+
+        return build(new DRBGProvider()
+        {
+            public SP80090DRBG get(EntropySource entropySource)
+            {
+                return new HMacSP800DRBG(new HMac((Digest)prototype.copy()), strength, entropySource, createPersonalizationString(personalization), createNonce());
+            }
+        }, strength, predictionResistant);
+    }
+
+    private SP800SecureRandom build(
+        DRBGProvider drbgProvider,
+        int          strength,
+        boolean      predictionResistant)
+    {
+        int entropyBits = (entropyBitsRequired < 0) ? strength : entropyBitsRequired;
+
+        if (entropyBits < strength)
+        {
+            throw new IllegalArgumentException("Not enough entropy for security strength required");
+        }
+
+        // check the DRBG can be instantiated now, rather than on first use.
+        drbgProvider.get(entropySourceProvider.get(entropyBits));
+
+        // SP 800-90A allows at most 2^19 bits per request, our DRBGs stop at 2^18.
+        return new SP800SecureRandom(entropySourceProvider, entropyBits, drbgProvider, (1 << (19 - 1)) / 8, predictionResistant);
+    }
+
+    private int getSecurityStrength(
+        Digest digest)
+    {
+        if (securityStrength >= 0)
+        {
+            return securityStrength;
+        }
+
+        // the SP 800-57 strength of the digests supported.
+        int size = digest.getDigestSize() * 8;
+
+        if (size < 224)
+        {
+            return 128;
+        }
+
+        return (size < 256) ? 192 : 256;
+    }
+
+    private static Memoable copyDigest(
+        Digest digest)
+    {
+        if (!(digest instanceof Memoable))
+        {
+            throw new IllegalArgumentException("digest must implement Memoable: " + digest.getAlgorithmName());
+        }
+
+        Memoable prototype = ((Memoable)digest).copy();
+
+        ((Digest)prototype).reset();
+
+        return prototype;
+    }
+
+    private static byte[] createPersonalizationString(
+        byte[] personalizationString)
+    {
+        int    pLen = (personalizationString == null) ? 0 : personalizationString.length;
+        byte[] p = new byte[pLen + 16];
+
+        if (personalizationString != null)
+        {
+            System.arraycopy(personalizationString, 0, p, 0, pLen);
+        }
+
+        Pack.longToBigEndian(instanceCount.getAndIncrement(), p, pLen);
+        Pack.longToBigEndian(Thread.currentThread().getId(), p, pLen + 8);
+
+        return p;
+    }
+
+    private static byte[] createNonce()
+    {
+        byte[] nonce = new byte[16];
+
+        Pack.longToBigEndian(System.currentTimeMillis(), nonce, 0);
+        Pack.longToBigEndian(System.nanoTime(), nonce, 8);
+
+        return nonce;
+    }
+}
@@ -1,95 +1,44 @@
 package org.bouncycastle2.crypto.prng;
 
 /**
- * A thread based seed generator - one source of randomness.
+ * A seed generator - one source of randomness.
  * <p>
- * Based on an idea from Marcus Lippert.
+ * This used to count how often a busy thread was scheduled across calls to Thread.sleep(),
+ * which took milliseconds for every byte. Seeds are now taken from a PooledEntropySourceProvider
+ * shared by all instances, which reads the platform SecureRandom in the background, so seed
+ * material is normally handed out without waiting on it.
  * </p>
  */
 public class ThreadedSeedGenerator
 {
-    private class SeedGenerator
-        implements Runnable
+    private static class Pool
     {
-        private volatile int counter = 0;
-        private volatile boolean stop = false;
-
-        public void run()
-        {
-            while (!this.stop)
-            {
-                this.counter++;
-            }
-
-        }
-
-        public byte[] generateSeed(
-            int numbytes,
-            boolean fast)
-        {
-            Thread t = new Thread(this);
-            byte[] result = new byte[numbytes];
-            this.counter = 0;
-            this.stop = false;
-            int last = 0;
-            int end;
-
-            t.start();
-            if(fast)
-            {
-                end = numbytes;
-            }
-            else
-            {
-                end = numbytes * 8;
-            }
-            for (int i = 0; i < end; i++)
-            {
-                while (this.counter == last)
-                {
-                    try
-                    {
-                        Thread.sleep(1);
-                    }
-                    catch (InterruptedException e)
-                    {
-                        // ignore
-                    }
-                }
-                last = this.counter;
-                if (fast)
-                {
-                    result[i] = (byte) (last & 0xff);
-                }
-                else
-                {
-                    int bytepos = i/8;
-                    result[bytepos] = (byte) ((result[bytepos] << 1) | (last & 1));
-                }
-
-            }
-            stop = true;
-            return result;
-        }
+        static final PooledEntropySourceProvider INSTANCE = new PooledEntropySourceProvider();
     }
 
     /**
-     * Generate seed bytes. Set fast to false for best quality.
+     * Generate seed bytes.
      * <p>
-     * If fast is set to true, the code should be round about 8 times faster when
-     * generating a long sequence of random bytes. 20 bytes of random values using
-     * the fast mode take less than half a second on a Nokia e70. If fast is set to false,
-     * it takes round about 2500 ms.
+     * The fast flag is retained for compatibility, seed material from the pool is always of
+     * full quality.
      * </p>
      * @param numBytes the number of bytes to generate
-     * @param fast true if fast mode should be used
+     * @param fast ignored
      */
     public byte[] generateSeed(
         int numBytes,
         boolean fast)
     {
-        SeedGenerator gen = new SeedGenerator();
+        return Pool.INSTANCE.getSeed(numBytes);
+    }
 
-        return gen.generateSeed(numBytes, fast);
+    /**
+     * Return the pool seeds are served from, for monitoring.
+     *
+     * @return the shared entropy pool.
+     */
+    public static PooledEntropySourceProvider getEntropyPool()
+    {
+        return Pool.INSTANCE;
     }
 }
@@ -0,0 +1,232 @@
+package org.bouncycastle2.crypto.prng.drbg;
+
+import org.bouncycastle2.crypto.Mac;
+import org.bouncycastle2.crypto.params.KeyParameter;
+import org.bouncycastle2.crypto.prng.EntropySource;
+
+/**
+ * A SP800-90A HMAC DRBG.
+ */
+public class HMacSP800DRBG
+    implements SP80090DRBG
+{
+    private final static long       RESEED_MAX = 1L << (48 - 1);
+    private final static int        MAX_BITS_REQUEST = 1 << (19 - 1);
+
+    private byte[]                  K;
+    private byte[]                  V;
+    private long                    reseedCounter;
+    private EntropySource           entropySource;
+    private Mac                     hMac;
+    private int                     securityStrength;
+
+    /**
+     * Construct a SP800-90A HMAC DRBG.
+     * <p>
+     * Minimum entropy requirement is the security strength requested.
+     * </p>
+     * @param hMac Hash MAC to base the DRBG on.
+     * @param securityStrength security strength required (in bits)
+     * @param entropySource source of entropy to use for seeding/reseeding.
+     * @param personalizationString personalization string to distinguish this DRBG (may be null).
+     * @param nonce nonce to further distinguish this DRBG (may be null).
+     */
+    public HMacSP800DRBG(
+        Mac           hMac,
+        int           securityStrength,
+        EntropySource entropySource,
+        byte[]        personalizationString,
+        byte[]        nonce)
+    {
+        if (securityStrength > Utils.getMaxSecurityStrength(hMac))
+        {
+            throw new IllegalArgumentException("Requested security strength is not supported by the derivation function");
+        }
+
+        if (entropySource.entropySize() < securityStrength)
+        {
+            throw new IllegalArgumentException("Not enough entropy for security strength required");
+        }
+
+        this.securityStrength = securityStrength;
+        this.entropySource = entropySource;
+        this.hMac = hMac;
+
+        // 1. seed_material = entropy_input || nonce || personalization_string.
+        // 2. Key = 0x00 00...00.
+        // 3. V = 0x01 01...01.
+        // 4. (Key, V) = HMAC_DRBG_Update (seed_material, Key, V).
+        // 5. reseed_counter = 1.
+        byte[] entropy = getEntropy();
+
+        K = new byte[hMac.getMacSize()];
+        V = new byte[K.length];
+
+        for (int i = 0; i != V.length; i++)
+        {
+            V[i] = 0x01;
+        }
+
+        hmac_DRBG_Update(new byte[][] { entropy, nonce, personalizationString });
+
+        reseedCounter = 1;
+    }
+
+    private void hmac_DRBG_Update(
+        byte[][] seedMaterial)
+    {
+        // 1. K = HMAC (K, V || 0x00 || provided_data).
+        // 2. V = HMAC (K, V).
+        // 3. If (provided_data = Null), then return K and V.
+        // 4. K = HMAC (K, V || 0x01 || provided_data).
+        // 5. V = HMAC (K, V).
+        // 6. Return K and V.
+        hmac_DRBG_Update_Func(seedMaterial, (byte)0x00);
+
+        if (seedMaterial != null)
+        {
+            hmac_DRBG_Update_Func(seedMaterial, (byte)0x01);
+        }
+    }
+
+    private void hmac_DRBG_Update_Func(
+        byte[][] seedMaterial,
+        byte     vValue)
+    {
+        hMac.init(new KeyParameter(K));
+
+        hMac.update(V, 0, V.length);
+        hMac.update(vValue);
+
+        if (seedMaterial != null)
+        {
+            for (int i = 0; i != seedMaterial.length; i++)
+            {
+                if (seedMaterial[i] != null)
+                {
+                    hMac.update(seedMaterial[i], 0, seedMaterial[i].length);
+                }
+            }
+        }
+
+        hMac.doFinal(K, 0);
+
+        hMac.init(new KeyParameter(K));
+        hMac.update(V, 0, V.length);
+
+        hMac.doFinal(V, 0);
+    }
+
+    /**
+     * Return the block size (in bits) of the DRBG.
+     *
+     * @return the number of bits produced on each round of the DRBG.
+     */
+    public int getBlockSize()
+    {
+        return V.length * 8;
+    }
+
+    /**
+     * Return the number of generate requests made since the DRBG was last seeded.
+     *
+     * @return the reseed counter.
+     */
+    public long getReseedCounter()
+    {
+        return reseedCounter - 1;
+    }
+
+    /**
+     * Populate a passed in array with random data.
+     *
+     * @param output output array for generated bits.
+     * @param additionalInput additional input to be added to the DRBG in this step.
+     * @param predictionResistant true if a reseed should be forced, false otherwise.
+     *
+     * @return number of bits generated, -1 if a reseed required.
+     */
+    public int generate(
+        byte[]  output,
+        byte[]  additionalInput,
+        boolean predictionResistant)
+    {
+        int numberOfBits = output.length * 8;
+
+        if (numberOfBits > MAX_BITS_REQUEST)
+        {
+            throw new IllegalArgumentException("Number of bits per request limited to " + MAX_BITS_REQUEST);
+        }
+
+        if (reseedCounter > RESEED_MAX)
+        {
+            return -1;
+        }
+
+        if (predictionResistant)
+        {
+            reseed(additionalInput);
+            additionalInput = null;
+        }
+
+        // 2.
+        if (additionalInput != null)
+        {
+            hmac_DRBG_Update(new byte[][] { additionalInput });
+        }
+
+        // 3.
+        hMac.init(new KeyParameter(K));
+
+        int m = output.length / V.length;
+
+        for (int i = 0; i != m; i++)
+        {
+            hMac.update(V, 0, V.length);
+            hMac.doFinal(V, 0);
+
+            System.arraycopy(V, 0, output, i * V.length, V.length);
+        }
+
+        if (m * V.length < output.length)
+        {
+            hMac.update(V, 0, V.length);
+            hMac.doFinal(V, 0);
+
+            System.arraycopy(V, 0, output, m * V.length, output.length - (m * V.length));
+        }
+
+        hmac_DRBG_Update(additionalInput == null ? null : new byte[][] { additionalInput });
+
+        reseedCounter++;
+
+        return numberOfBits;
+    }
+
+    /**
+     * Reseed the DRBG.
+     *
+     * @param additionalInput additional input to be added to the DRBG in this step.
+     */
+    public void reseed(
+        byte[] additionalInput)
+    {
+        byte[] entropy = getEntropy();
+
+        hmac_DRBG_Update(new byte[][] { entropy, additionalInput });
+
+        reseedCounter = 1;
+    }
+
+    private byte[] getEntropy()
+    {
+        byte[] entropy = entropySource.getEntropy();
+
+        if (entropy.length < (securityStrength + 7) / 8)
+        {
+            throw new IllegalStateException("Insufficient entropy provided by entropy source");
+        }
+
+        return entropy;
+    }
+}
@@ -0,0 +1,293 @@
+package org.bouncycastle2.crypto.prng.drbg;
+
+import java.util.Hashtable;
+
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.prng.EntropySource;
+
+/**
+ * A DRBG based on a Digest - SP 800-90A Hash_DRBG.
+ */
+public class HashSP800DRBG
+    implements SP80090DRBG
+{
+    private final static byte[]     ONE = { 0x01 };
+
+    private final static long       RESEED_MAX = 1L << (48 - 1);
+    private final static int        MAX_BITS_REQUEST = 1 << (19 - 1);
+
+    private final static Hashtable  seedlens = new Hashtable();
+
+    static
+    {
+        seedlens.put("SHA-1", new Integer(440));
+        seedlens.put("SHA-224", new Integer(440));
+        seedlens.put("SHA-256", new Integer(440));
+        seedlens.put("SHA-384", new Integer(888));
+        seedlens.put("SHA-512", new Integer(888));
+    }
+
+    private Digest                  digest;
+    private byte[]                  V;
+    private byte[]                  C;
+    private long                    reseedCounter;
+    private EntropySource           entropySource;
+    private int                     securityStrength;
+    private int                     seedLength;
+
+    /**
+     * Construct a SP800-90A Hash DRBG.
+     * <p>
+     * Minimum entropy requirement is the security strength requested.
+     * </p>
+     * @param digest  source digest to use for DRB stream.
+     * @param securityStrength security strength required (in bits)
+     * @param entropySource source of entropy to use for seeding/reseeding.
+     * @param personalizationString personalization string to distinguish this DRBG (may be null).
+     * @param nonce nonce to further distinguish this DRBG (may be null).
+     */
+    public HashSP800DRBG(
+        Digest        digest,
+        int           securityStrength,
+        EntropySource entropySource,
+        byte[]        personalizationString,
+        byte[]        nonce)
+    {
+        if (securityStrength > Utils.getMaxSecurityStrength(digest))
+        {
+            throw new IllegalArgumentException("Requested security strength is not supported by the derivation function");
+        }
+
+        if (entropySource.entropySize() < securityStrength)
+        {
+            throw new IllegalArgumentException("Not enough entropy for security strength required");
+        }
+
+        this.digest = digest;
+        this.entropySource = entropySource;
+        this.securityStrength = securityStrength;
+        this.seedLength = ((Integer)seedlens.get(digest.getAlgorithmName())).intValue();
+
+        // 1. seed_material = entropy_input || nonce || personalization_string.
+        // 2. seed = Hash_df (seed_material, seedlen).
+        // 3. V = seed.
+        // 4. C = Hash_df ((0x00 || V), seedlen). Comment: Preceed V with a byte
+        // of zeros.
+        // 5. reseed_counter = 1.
+        // 6. Return V, C, and reseed_counter as the initial_working_state
+        byte[] entropy = getEntropy();
+
+        V = Utils.hash_df(digest, new byte[][] { entropy, nonce, personalizationString }, seedLength);
+        C = Utils.hash_df(digest, new byte[][] { new byte[1], V }, seedLength);
+
+        reseedCounter = 1;
+    }
+
+    /**
+     * Return the block size (in bits) of the DRBG.
+     *
+     * @return the number of bits produced on each internal round of the DRBG.
+     */
+    public int getBlockSize()
+    {
+        return digest.getDigestSize() * 8;
+    }
+
+    /**
+     * Return the number of generate requests made since the DRBG was last seeded.
+     *
+     * @return the reseed counter.
+     */
+    public long getReseedCounter()
+    {
+        return reseedCounter - 1;
+    }
+
+    /**
+     * Populate a passed in array with random data.
+     *
+     * @param output output array for generated bits.
+     * @param additionalInput additional input to be added to the DRBG in this step.
+     * @param predictionResistant true if a reseed should be forced, false otherwise.
+     *
+     * @return number of bits generated, -1 if a reseed required.
+     */
+    public int generate(
+        byte[]  output,
+        byte[]  additionalInput,
+        boolean predictionResistant)
+    {
+        // 1. If reseed_counter > reseed_interval, then return an indication that a
+        // reseed is required.
+        // 2. If (additional_input != Null), then do
+        // 2.1 w = Hash (0x02 || V || additional_input).
+        // 2.2 V = (V + w) mod 2^seedlen
+        // .
+        // 3. (returned_bits) = Hashgen (requested_number_of_bits, V).
+        // 4. H = Hash (0x03 || V).
+        // 5. V = (V + H + C + reseed_counter) mod 2^seedlen
+        // .
+        // 6. reseed_counter = reseed_counter + 1.
+        // 7. Return SUCCESS, returned_bits, and the new values of V, C, and
+        // reseed_counter for the new_working_state.
+        int numberOfBits = output.length * 8;
+
+        if (numberOfBits > MAX_BITS_REQUEST)
+        {
+            throw new IllegalArgumentException("Number of bits per request limited to " + MAX_BITS_REQUEST);
+        }
+
+        if (reseedCounter > RESEED_MAX)
+        {
+            return -1;
+        }
+
+        if (predictionResistant)
+        {
+            reseed(additionalInput);
+            additionalInput = null;
+        }
+
+        // 2.
+        if (additionalInput != null)
+        {
+            byte[] w = new byte[digest.getDigestSize()];
+
+            digest.update((byte)0x02);
+            digest.update(V, 0, V.length);
+            digest.update(additionalInput, 0, additionalInput.length);
+            digest.doFinal(w, 0);
+
+            addTo(V, w);
+        }
+
+        // 3.
+        hashgen(V, output);
+
+        // 4.
+        byte[] H = new byte[digest.getDigestSize()];
+
+        digest.update((byte)0x03);
+        digest.update(V, 0, V.length);
+        digest.doFinal(H, 0);
+
+        // 5.
+        addTo(V, H);
+        addTo(V, C);
+
+        byte[] c = new byte[8];
+
+        c[0] = (byte)(reseedCounter >> 56);
+        c[1] = (byte)(reseedCounter >> 48);
+        c[2] = (byte)(reseedCounter >> 40);
+        c[3] = (byte)(reseedCounter >> 32);
+        c[4] = (byte)(reseedCounter >> 24);
+        c[5] = (byte)(reseedCounter >> 16);
+        c[6] = (byte)(reseedCounter >> 8);
+        c[7] = (byte)reseedCounter;
+
+        addTo(V, c);
+
+        // 6.
+        reseedCounter++;
+
+        return numberOfBits;
+    }
+
+    /**
+     * Reseed the DRBG.
+     *
+     * @param additionalInput additional input to be added to the DRBG in this step.
+     */
+    public void reseed(
+        byte[] additionalInput)
+    {
+        // 1. seed_material = 0x01 || V || entropy_input || additional_input.
+        //
+        // 2. seed = Hash_df (seed_material, seedlen).
+        //
+        // 3. V = seed.
+        //
+        // 4. C = Hash_df ((0x00 || V), seedlen).
+        //
+        // 5. reseed_counter = 1.
+        //
+        // 6. Return V, C, and reseed_counter for the new_working_state.
+        //
+        // Comment: Precede with a byte of all zeros.
+        byte[] entropy = getEntropy();
+
+        V = Utils.hash_df(digest, new byte[][] { ONE, V, entropy, additionalInput }, seedLength);
+        C = Utils.hash_df(digest, new byte[][] { new byte[1], V }, seedLength);
+
+        reseedCounter = 1;
+    }
+
+    private byte[] getEntropy()
+    {
+        byte[] entropy = entropySource.getEntropy();
+
+        if (entropy.length < (securityStrength + 7) / 8)
+        {
+            throw new IllegalStateException("Insufficient entropy provided by entropy source");
+        }
+
+        return entropy;
+    }
+
+    // add shorter to longer as big endian integers, mod 2^(8 * longer.length).
+    private void addTo(
+        byte[] longer,
+        byte[] shorter)
+    {
+        int carry = 0;
+
+        for (int i = 1; i <= shorter.length; i++)
+        {
+            int res = (longer[longer.length - i] & 0xff) + (shorter[shorter.length - i] & 0xff) + carry;
+            carry = (res > 0xff) ? 1 : 0;
+            longer[longer.length - i] = (byte)res;
+        }
+
+        for (int i = shorter.length + 1; i <= longer.length; i++)
+        {
+            int res = (longer[longer.length - i] & 0xff) + carry;
+            carry = (res > 0xff) ? 1 : 0;
+            longer[longer.length - i] = (byte)res;
+        }
+    }
+
+    private void hashgen(
+        byte[] input,
+        byte[] output)
+    {
+        // 1. m = [requested_number_of_bits / outlen]
+        // 2. data = V.
+        // 3. W = the Null string.
+        // 4. For i = 1 to m
+        // 4.1 wi = Hash (data).
+        // 4.2 W = W || wi.
+        // 4.3 data = (data + 1) mod 2^seedlen
+        // .
+        // 5. returned_bits = Leftmost (requested_no_of_bits) bits of W.
+        int digestSize = digest.getDigestSize();
+        int m = (output.length + digestSize - 1) / digestSize;
+
+        byte[] data = new byte[input.length];
+        byte[] dig = new byte[digestSize];
+
+        System.arraycopy(input, 0, data, 0, input.length);
+
+        for (int i = 0; i != m; i++)
+        {
+            digest.update(data, 0, data.length);
+            digest.doFinal(dig, 0);
+
+            int bytesToCopy = Math.min(dig.length, output.length - i * dig.length);
+
+            System.arraycopy(dig, 0, output, i * dig.length, bytesToCopy);
+
+            addTo(data, ONE);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.bouncycastle2.crypto.prng.drbg;
+
+import java.util.Hashtable;
+
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.Mac;
+
+class Utils
+{
+    static final Hashtable maxSecurityStrengths = new Hashtable();
+
+    static
+    {
+        maxSecurityStrengths.put("SHA-1", new Integer(128));
+
+        maxSecurityStrengths.put("SHA-224", new Integer(192));
+        maxSecurityStrengths.put("SHA-256", new Integer(256));
+        maxSecurityStrengths.put("SHA-384", new Integer(256));
+        maxSecurityStrengths.put("SHA-512", new Integer(256));
+    }
+
+    static int getMaxSecurityStrength(
+        Digest d)
+    {
+        return getMaxSecurityStrength(d.getAlgorithmName());
+    }
+
+    static int getMaxSecurityStrength(
+        Mac m)
+    {
+        String name = m.getAlgorithmName();
+
+        return getMaxSecurityStrength(name.substring(0, name.indexOf("/")));
+    }
+
+    private static int getMaxSecurityStrength(
+        String digestName)
+    {
+        Integer strength = (Integer)maxSecurityStrengths.get(digestName);
+
+        if (strength == null)
+        {
+            throw new IllegalArgumentException("digest not supported for DRBG: " + digestName);
+        }
+
+        return strength.intValue();
+    }
+
+    /**
+     * The Hash_df derivation function of SP 800-90A section 10.4.1, the pieces of
+     * seedMaterial are concatenated to form the input string, null pieces are skipped.
+     * seedLength is in bits and must be a multiple of 8.
+     */
+    static byte[] hash_df(
+        Digest   digest,
+        byte[][] seedMaterial,
+        int      seedLength)
+    {
+        // temp = Hash(1 || no_of_bits || input) || Hash(2 || no_of_bits || input) || ...
+        byte[] temp = new byte[(seedLength + 7) / 8];
+
+        int len = (temp.length + digest.getDigestSize() - 1) / digest.getDigestSize();
+        int counter = 1;
+
+        byte[] dig = new byte[digest.getDigestSize()];
+
+        for (int i = 0; i != len; i++)
+        {
+            digest.update((byte)counter);
+
+            digest.update((byte)(seedLength >> 24));
+            digest.update((byte)(seedLength >> 16));
+            digest.update((byte)(seedLength >> 8));
+            digest.update((byte)seedLength);
+
+            for (int j = 0; j != seedMaterial.length; j++)
+            {
+                if (seedMaterial[j] != null)
+                {
+                    digest.update(seedMaterial[j], 0, seedMaterial[j].length);
+                }
+            }
+
+            digest.doFinal(dig, 0);
+
+            int bytesToCopy = Math.min(dig.length, temp.length - i * dig.length);
+
+            System.arraycopy(dig, 0, temp, i * dig.length, bytesToCopy);
+
+            counter++;
+        }
+
+        return temp;
+    }
+
+    static boolean isTooLarge(
+        byte[] bytes,
+        int    maxBytes)
+    {
+        return bytes != null && bytes.length > maxBytes;
+    }
+}
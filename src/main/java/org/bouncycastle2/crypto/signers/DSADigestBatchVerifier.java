@@ -0,0 +1,75 @@
+package org.bouncycastle2.crypto.signers;
+
+import org.bouncycastle2.crypto.CipherParameters;
+import org.bouncycastle2.crypto.DSA;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.params.DSAPublicKeyParameters;
+import org.bouncycastle2.crypto.params.ECPublicKeyParameters;
+
+/**
+ * Batch verifier for DER encoded DSA style signatures, as produced by {@link DSADigestSigner}.
+ * <p>
+ * A DSA or ECDSA signature only carries r, the reduced x co-ordinate of the signer's commitment,
+ * so the commitment cannot be recovered unambiguously and a randomised batch equation would
+ * reject valid signatures. The items are therefore checked individually, but grouped by key so
+ * per-key precomputation, such as the cached point tables used for EC public keys, is reused
+ * across the group.
+ */
+public class DSADigestBatchVerifier
+    extends KeyGroupedBatchVerifier
+{
+    private final DSADigestSigner signer;
+
+    public DSADigestBatchVerifier(
+        DSA    signer,
+        Digest digest)
+    {
+        this.signer = new DSADigestSigner(signer, digest);
+    }
+
+    public boolean[] verify()
+    {
+        boolean[] results = new boolean[size()];
+        int[][]   groups = getGroups();
+
+        for (int i = 0; i != groups.length; i++)
+        {
+            int[] group = groups[i];
+
+            for (int j = 0; j != group.length; j++)
+            {
+                int index = group[j];
+
+                signer.init(false, getParameters(index));
+
+                byte[] message = getMessage(index);
+
+                signer.update(message, 0, message.length);
+
+                results[index] = signer.verifySignature(getSignature(index));
+            }
+        }
+
+        return results;
+    }
+
+    void checkKey(CipherParameters param)
+    {
+        // any public key the underlying DSA accepts.
+    }
+
+    Object getKeyId(CipherParameters param)
+    {
+        if (param instanceof ECPublicKeyParameters)
+        {
+            return ((ECPublicKeyParameters)param).getQ();
+        }
+
+        if (param instanceof DSAPublicKeyParameters)
+        {
+            return ((DSAPublicKeyParameters)param).getY();
+        }
+
+        return param;
+    }
+}
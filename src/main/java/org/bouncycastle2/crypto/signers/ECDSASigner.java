@@ -78,7 +78,7 @@ public class ECDSASigner
                 }
                 while (k.equals(ZERO) || k.compareTo(n) >= 0);
 
-                ECPoint p = key.getParameters().getG().multiply(k);
+                ECPoint p = ECAlgorithms.multiplyFixedPoint(key.getParameters().getG(), k);
 
                 // 5.3.3
                 BigInteger x = p.getX().toBigInteger();
@@ -0,0 +1,122 @@
+package org.bouncycastle2.crypto.signers;
+
+import org.bouncycastle2.crypto.BatchVerifier;
+import org.bouncycastle2.crypto.CipherParameters;
+import org.bouncycastle2.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle2.crypto.params.ParametersWithRandom;
+
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * Base class for batch verifiers that process their items one key at a time.
+ */
+abstract class KeyGroupedBatchVerifier
+    implements BatchVerifier
+{
+    private final Vector params = new Vector();
+    private final Vector messages = new Vector();
+    private final Vector signatures = new Vector();
+
+    public int addItem(
+        CipherParameters param,
+        byte[]           message,
+        byte[]           signature)
+    {
+        if (param instanceof ParametersWithRandom)
+        {
+            param = ((ParametersWithRandom)param).getParameters();
+        }
+
+        if (!(param instanceof AsymmetricKeyParameter) || ((AsymmetricKeyParameter)param).isPrivate())
+        {
+            throw new IllegalArgumentException("verification requires public key");
+        }
+
+        checkKey(param);
+
+        params.addElement(param);
+        messages.addElement(message);
+        signatures.addElement(signature);
+
+        return params.size() - 1;
+    }
+
+    public int size()
+    {
+        return params.size();
+    }
+
+    public void reset()
+    {
+        params.removeAllElements();
+        messages.removeAllElements();
+        signatures.removeAllElements();
+    }
+
+    CipherParameters getParameters(int index)
+    {
+        return (CipherParameters)params.elementAt(index);
+    }
+
+    byte[] getMessage(int index)
+    {
+        return (byte[])messages.elementAt(index);
+    }
+
+    byte[] getSignature(int index)
+    {
+        return (byte[])signatures.elementAt(index);
+    }
+
+    /**
+     * Return the indexes of the items, grouped by key. Groups are in the order
+     * their keys first appear, and each group is in the order its items were added.
+     */
+    int[][] getGroups()
+    {
+        Hashtable groupIndex = new Hashtable();
+        Vector    groups = new Vector();
+
+        for (int i = 0; i != params.size(); i++)
+        {
+            Object id = getKeyId(getParameters(i));
+            Vector group = (Vector)groupIndex.get(id);
+
+            if (group == null)
+            {
+                group = new Vector();
+                groupIndex.put(id, group);
+                groups.addElement(group);
+            }
+
+            group.addElement(new Integer(i));
+        }
+
+        int[][] result = new int[groups.size()][];
+
+        for (int i = 0; i != result.length; i++)
+        {
+            Vector group = (Vector)groups.elementAt(i);
+
+            result[i] = new int[group.size()];
+
+            for (int j = 0; j != result[i].length; j++)
+            {
+                result[i][j] = ((Integer)group.elementAt(j)).intValue();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Throw an IllegalArgumentException if the key is of the wrong type.
+     */
+    abstract void checkKey(CipherParameters param);
+
+    /**
+     * Return an object whose equals() and hashCode() identify the key's value.
+     */
+    abstract Object getKeyId(CipherParameters param);
+}
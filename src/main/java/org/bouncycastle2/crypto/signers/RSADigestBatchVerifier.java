@@ -0,0 +1,97 @@
+package org.bouncycastle2.crypto.signers;
+
+import org.bouncycastle2.crypto.CipherParameters;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.params.RSAKeyParameters;
+
+import java.math.BigInteger;
+
+/**
+ * Batch verifier for PKCS#1 v1.5 RSA signatures, as produced by {@link RSADigestSigner}.
+ * <p>
+ * The items are checked individually with RSADigestSigner, so the results are the same as
+ * verifying each signature on its own, but grouped by key so the key is only set up once for
+ * each group.
+ * <p>
+ * A randomised "small exponents" batch equation is deliberately not used. In Z_n* it is not
+ * sound: an element of small order, such as n - 1, can be multiplied into a valid signature
+ * and the product still passes the batch equation whenever its random exponent is even.
+ */
+public class RSADigestBatchVerifier
+    extends KeyGroupedBatchVerifier
+{
+    private final RSADigestSigner signer;
+
+    public RSADigestBatchVerifier(
+        Digest digest)
+    {
+        this.signer = new RSADigestSigner(digest);
+    }
+
+    public boolean[] verify()
+    {
+        boolean[] results = new boolean[size()];
+        int[][]   groups = getGroups();
+
+        for (int i = 0; i != groups.length; i++)
+        {
+            int[] group = groups[i];
+
+            signer.init(false, getParameters(group[0]));
+
+            for (int j = 0; j != group.length; j++)
+            {
+                int    index = group[j];
+                byte[] message = getMessage(index);
+
+                signer.update(message, 0, message.length);
+
+                results[index] = signer.verifySignature(getSignature(index));
+            }
+        }
+
+        return results;
+    }
+
+    void checkKey(CipherParameters param)
+    {
+        if (!(param instanceof RSAKeyParameters))
+        {
+            throw new IllegalArgumentException("RSA public key required");
+        }
+    }
+
+    Object getKeyId(CipherParameters param)
+    {
+        return new KeyId((RSAKeyParameters)param);
+    }
+
+    private static class KeyId
+    {
+        private final BigInteger modulus;
+        private final BigInteger exponent;
+
+        KeyId(RSAKeyParameters key)
+        {
+            this.modulus = key.getModulus();
+            this.exponent = key.getExponent();
+        }
+
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof KeyId))
+            {
+                return false;
+            }
+
+            KeyId other = (KeyId)o;
+
+            return modulus.equals(other.modulus) && exponent.equals(other.exponent);
+        }
+
+        public int hashCode()
+        {
+            return modulus.hashCode() ^ exponent.hashCode();
+        }
+    }
+}
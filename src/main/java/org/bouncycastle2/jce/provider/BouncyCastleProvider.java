@@ -523,6 +523,7 @@ public final class BouncyCastleProvider extends Provider
         put("CertPathValidator.PKIX", "org.bouncycastle2.jce.provider.PKIXCertPathValidatorSpi");
         put("CertPathBuilder.PKIX", "org.bouncycastle2.jce.provider.PKIXCertPathBuilderSpi");
         put("CertStore.Collection", "org.bouncycastle2.jce.provider.CertStoreCollectionSpi");
+        put("CertStore.IndexedCollection", "org.bouncycastle2.jce.provider.CertStoreIndexedCollectionSpi");
         put("CertStore.LDAP", "org.bouncycastle2.jce.provider.X509LDAPCertStoreSpi");
         put("CertStore.Multi", "org.bouncycastle2.jce.provider.MultiCertStoreSpi");
         put("Alg.Alias.CertStore.X509LDAP", "LDAP");
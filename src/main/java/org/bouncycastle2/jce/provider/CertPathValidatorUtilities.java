@@ -932,14 +932,22 @@ public class CertPathValidatorUtilities
         throws AnnotatedException
     {
         // use BC X509CRLObject so that indirect CRLs are supported
+        // (reusing it where we already have one keeps its serial number index)
         X509CRLObject bcCRL = null;
-        try
+        if (crl instanceof X509CRLObject)
         {
-            bcCRL = new X509CRLObject(new CertificateList((ASN1Sequence) ASN1Sequence.fromByteArray(crl.getEncoded())));
+            bcCRL = (X509CRLObject)crl;
         }
-        catch (Exception exception)
+        else
         {
-            throw new AnnotatedException("Bouncy Castle X509CRLObject could not be created.", exception);
+            try
+            {
+                bcCRL = new X509CRLObject(new CertificateList((ASN1Sequence) ASN1Sequence.fromByteArray(crl.getEncoded())));
+            }
+            catch (Exception exception)
+            {
+                throw new AnnotatedException("Bouncy Castle X509CRLObject could not be created.", exception);
+            }
         }
         // use BC X509CRLEntryObject, so that getCertificateIssuer() is
         // supported.
@@ -1341,17 +1349,91 @@ public class CertPathValidatorUtilities
         return certs;
     }
 
-    protected static void verifyX509Certificate(X509Certificate cert, PublicKey publicKey,
-        String sigProvider)
+    protected static void verifyX509Certificate(final X509Certificate cert, final PublicKey publicKey,
+        final String sigProvider)
             throws GeneralSecurityException
     {
-        if (sigProvider == null)
+        SignatureCheck check = new SignatureCheck()
         {
-            cert.verify(publicKey);
+            public void verify()
+                throws GeneralSecurityException
+            {
+                if (sigProvider == null)
+                {
+                    cert.verify(publicKey);
+                }
+                else
+                {
+                    cert.verify(publicKey, sigProvider);
+                }
+            }
+        };
+
+        // our own certificates check the signature cache themselves
+        if (cert instanceof X509CertificateObject)
+        {
+            check.verify();
         }
         else
         {
-            cert.verify(publicKey, sigProvider);
+            verifyCached(publicKey, cert.getTBSCertificate(), cert.getSignature(), check);
         }
     }
+
+    protected static void verifyX509CRL(final X509CRL crl, final PublicKey publicKey,
+        final String sigProvider)
+            throws GeneralSecurityException
+    {
+        SignatureCheck check = new SignatureCheck()
+        {
+            public void verify()
+                throws GeneralSecurityException
+            {
+                if (sigProvider == null)
+                {
+                    crl.verify(publicKey);
+                }
+                else
+                {
+                    crl.verify(publicKey, sigProvider);
+                }
+            }
+        };
+
+        // our own CRLs check the signature cache themselves
+        if (crl instanceof X509CRLObject)
+        {
+            check.verify();
+        }
+        else
+        {
+            verifyCached(publicKey, crl.getTBSCertList(), crl.getSignature(), check);
+        }
+    }
+
+    /**
+     * Run check unless the same key has already verified the same signature over the same
+     * data, recording the verification if it succeeds.
+     */
+    private static void verifyCached(PublicKey publicKey, byte[] tbs, byte[] signature,
+        SignatureCheck check)
+            throws GeneralSecurityException
+    {
+        X509SignatureCache.Fingerprint fingerprint = X509SignatureCache.getFingerprint(publicKey, tbs, signature);
+
+        if (X509SignatureCache.isVerified(fingerprint))
+        {
+            return;
+        }
+
+        check.verify();
+
+        X509SignatureCache.addVerified(fingerprint);
+    }
+
+    private interface SignatureCheck
+    {
+        void verify()
+            throws GeneralSecurityException;
+    }
 }
@@ -0,0 +1,80 @@
+package org.bouncycastle2.jce.provider;
+
+import org.bouncycastle2.cert.IndexedCertificateStore;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.cert.CRL;
+import java.security.cert.CRLSelector;
+import java.security.cert.CertSelector;
+import java.security.cert.CertStoreException;
+import java.security.cert.CertStoreParameters;
+import java.security.cert.CertStoreSpi;
+import java.security.cert.CollectionCertStoreParameters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A collection CertStore with indexed certificate look ups - see {@link IndexedCertificateStore}.
+ * <p>
+ * Unlike the "Collection" CertStore the contents of the collection are copied when the store is
+ * created, so later changes to the collection are not seen by the store.
+ */
+public class CertStoreIndexedCollectionSpi extends CertStoreSpi
+{
+    private IndexedCertificateStore certs;
+    private List                    crls;
+
+    public CertStoreIndexedCollectionSpi(CertStoreParameters params)
+        throws InvalidAlgorithmParameterException
+    {
+        super(params);
+
+        if (!(params instanceof CollectionCertStoreParameters))
+        {
+            throw new InvalidAlgorithmParameterException("org.bouncycastle2.jce.provider.CertStoreIndexedCollectionSpi: parameter must be a CollectionCertStoreParameters object\n" +  params.toString());
+        }
+
+        Collection collection = ((CollectionCertStoreParameters)params).getCollection();
+
+        this.certs = new IndexedCertificateStore(collection);
+        this.crls = new ArrayList();
+
+        for (Iterator it = collection.iterator(); it.hasNext();)
+        {
+            Object obj = it.next();
+
+            if (obj instanceof CRL)
+            {
+                crls.add(obj);
+            }
+        }
+    }
+
+    public Collection engineGetCertificates(
+        CertSelector selector)
+        throws CertStoreException
+    {
+        return certs.getCertificates(selector);
+    }
+
+    public Collection engineGetCRLs(
+        CRLSelector selector)
+        throws CertStoreException
+    {
+        List col = new ArrayList();
+
+        for (int i = 0; i != crls.size(); i++)
+        {
+            CRL crl = (CRL)crls.get(i);
+
+            if (selector == null || selector.match(crl))
+            {
+                col.add(crl);
+            }
+        }
+
+        return col;
+    }
+}
@@ -204,7 +204,7 @@ public class JDKX509CertificateFactory
             }
             else
             {
-                return readDERCertificate(new ASN1InputStream(pis, limit));
+                return readDERCertificate(new ASN1InputStream(pis, limit, true));
             }
         }
         catch (Exception e)
@@ -80,7 +80,7 @@ public class PEMUtil
 
         if (pemBuf.length() != 0)
         {
-            DERObject o = new ASN1InputStream(Base64.decode(pemBuf.toString())).readObject();
+            DERObject o = new ASN1InputStream(Base64.decode(pemBuf.toString()), true).readObject();
             if (!(o instanceof ASN1Sequence))
             {
                 throw new IOException("malformed PEM data encountered");
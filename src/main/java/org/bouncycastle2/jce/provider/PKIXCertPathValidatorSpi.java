@@ -4,7 +4,9 @@ import org.bouncycastle2.asn1.DEREncodable;
 import org.bouncycastle2.asn1.DERObjectIdentifier;
 import org.bouncycastle2.asn1.x509.AlgorithmIdentifier;
 import org.bouncycastle2.jce.exception.ExtCertPathValidatorException;
+import org.bouncycastle2.x509.CertPathValidationCache;
 import org.bouncycastle2.x509.ExtendedPKIXParameters;
+import org.bouncycastle2.x509.X509CRLStoreSelector;
 
 import javax.security.auth.x500.X500Principal;
 import java.security.InvalidAlgorithmParameterException;
@@ -19,6 +21,7 @@ import java.util.*;
 public class PKIXCertPathValidatorSpi
         extends CertPathValidatorSpi
 {
+    private static final PKIXCRLUtil CRL_UTIL = new PKIXCRLUtil();
 
     public CertPathValidatorResult engineValidate(
             CertPath certPath,
@@ -47,6 +50,26 @@ public class PKIXCertPathValidatorSpi
                     "trustAnchors is null, this is not allowed for certification path validation.");
         }
 
+        CertPathValidationCache validationCache = paramsPKIX.getValidationCache();
+
+        if (validationCache != null)
+        {
+            PKIXCertPathValidatorResult result = validationCache.getResult(certPath, paramsPKIX);
+
+            if (result != null)
+            {
+                // target constraints are not part of the cache key
+                if (paramsPKIX.getTargetConstraints() != null
+                        && !paramsPKIX.getTargetConstraints().match(certPath.getCertificates().get(0)))
+                {
+                    throw new ExtCertPathValidatorException(
+                            "Target certificate in certification path does not match targetConstraints.", null, certPath, 0);
+                }
+
+                return result;
+            }
+        }
+
         //
         // 6.1.1 - inputs
         //
@@ -408,10 +431,83 @@ public class PKIXCertPathValidatorSpi
 
         if ((explicitPolicy > 0) || (intersection != null))
         {
-            return new PKIXCertPathValidatorResult(trust, intersection, cert.getPublicKey());
+            PKIXCertPathValidatorResult result = new PKIXCertPathValidatorResult(trust, intersection, cert.getPublicKey());
+
+            if (validationCache != null)
+            {
+                validationCache.addResult(certPath, paramsPKIX, result, getResultNotAfter(certs, trust, paramsPKIX));
+            }
+
+            return result;
         }
 
         throw new CertPathValidatorException("Path processing failed on policy.", null, certPath, index);
     }
 
+    /**
+     * Work out how long a successful validation can be reused for - until the first
+     * certificate in the path expires if we are validating against the current time,
+     * and until the first of the CRLs we could have checked is due for replacement.
+     */
+    private Date getResultNotAfter(
+            List certs,
+            TrustAnchor trust,
+            ExtendedPKIXParameters paramsPKIX)
+    {
+        Date notAfter = null;
+
+        if (paramsPKIX.getDate() == null)
+        {
+            List all = new ArrayList(certs);
+
+            if (trust.getTrustedCert() != null)
+            {
+                all.add(trust.getTrustedCert());
+            }
+
+            for (int j = 0; j != all.size(); j++)
+            {
+                Date certNotAfter = ((X509Certificate)all.get(j)).getNotAfter();
+
+                if (notAfter == null || certNotAfter.before(notAfter))
+                {
+                    notAfter = certNotAfter;
+                }
+            }
+        }
+
+        if (paramsPKIX.isRevocationEnabled())
+        {
+            X509CRLStoreSelector crlSelect = new X509CRLStoreSelector();
+
+            for (int j = 0; j != certs.size(); j++)
+            {
+                crlSelect.addIssuer(((X509Certificate)certs.get(j)).getIssuerX500Principal());
+            }
+
+            Set crls;
+            try
+            {
+                crls = CRL_UTIL.findCRLs(crlSelect, paramsPKIX, new Date());
+            }
+            catch (AnnotatedException e)
+            {
+                // the CRLs were readable a moment ago, don't keep a result we can't bound.
+                return new Date(0);
+            }
+
+            for (Iterator it = crls.iterator(); it.hasNext();)
+            {
+                Date nextUpdate = ((X509CRL)it.next()).getNextUpdate();
+
+                if (nextUpdate != null && (notAfter == null || nextUpdate.before(notAfter)))
+                {
+                    notAfter = nextUpdate;
+                }
+            }
+        }
+
+        return notAfter;
+    }
+
 }
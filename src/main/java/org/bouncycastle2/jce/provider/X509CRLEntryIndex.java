@@ -0,0 +1,117 @@
+package org.bouncycastle2.jce.provider;
+
+import org.bouncycastle2.asn1.x509.TBSCertList;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Serial number index over the revoked certificate entries of a CRL.
+ * <p>
+ * The index keeps the serial numbers sorted in a single array together with the
+ * position of each entry in the original CRL so lookups are a binary search
+ * that does not allocate. Where a serial number occurs more than once (possible
+ * in indirect CRLs) the entry that appears first in the CRL is the one found.
+ */
+class X509CRLEntryIndex
+{
+    private final TBSCertList.CRLEntry[] entries;
+    private final BigInteger[]           serials;
+    private final int[]                  positions;
+
+    X509CRLEntryIndex(
+        TBSCertList.CRLEntry[] entries)
+    {
+        this.entries = entries;
+
+        final BigInteger[] values = new BigInteger[entries.length];
+        Integer[]          order = new Integer[entries.length];
+
+        for (int i = 0; i != entries.length; i++)
+        {
+            values[i] = entries[i].getUserCertificate().getValue();
+            order[i] = new Integer(i);
+        }
+
+        Arrays.sort(order, new Comparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                int i1 = ((Integer)o1).intValue();
+                int i2 = ((Integer)o2).intValue();
+                int cmp = values[i1].compareTo(values[i2]);
+
+                if (cmp != 0)
+                {
+                    return cmp;
+                }
+
+                return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+            }
+        });
+
+        this.serials = new BigInteger[entries.length];
+        this.positions = new int[entries.length];
+
+        for (int i = 0; i != order.length; i++)
+        {
+            int pos = order[i].intValue();
+
+            serials[i] = values[pos];
+            positions[i] = pos;
+        }
+    }
+
+    /**
+     * Return the number of entries in the CRL.
+     */
+    int size()
+    {
+        return entries.length;
+    }
+
+    /**
+     * Return the entry at the given position in CRL order.
+     */
+    TBSCertList.CRLEntry getEntry(int position)
+    {
+        return entries[position];
+    }
+
+    /**
+     * Return the CRL position of the first entry for serialNumber, -1 if there is none.
+     */
+    int indexOf(BigInteger serialNumber)
+    {
+        int low = 0;
+        int high = serials.length - 1;
+        int found = -1;
+
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int cmp = serials[mid].compareTo(serialNumber);
+
+            if (cmp < 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                if (cmp == 0)
+                {
+                    found = mid;       // keep looking left for the earliest duplicate
+                }
+                high = mid - 1;
+            }
+        }
+
+        return found < 0 ? -1 : positions[found];
+    }
+
+    boolean contains(BigInteger serialNumber)
+    {
+        return indexOf(serialNumber) >= 0;
+    }
+}
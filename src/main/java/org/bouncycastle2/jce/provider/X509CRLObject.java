@@ -34,6 +34,8 @@ public class X509CRLObject
     private byte[] sigAlgParams;
     private boolean isIndirect;
 
+    private volatile X509CRLEntryIndex entryIndex;
+
     public X509CRLObject(
         CertificateList c)
         throws CRLException
@@ -172,14 +174,24 @@ public class X509CRLObject
             throw new CRLException("Signature algorithm on CertificateList does not match TBSCertList.");
         }
 
-        Signature sig = Signature.getInstance(getSigAlgName(), sigProvider);
+        Signature                      sig = Signature.getInstance(getSigAlgName(), sigProvider);
+        byte[]                         tbsCertList = this.getTBSCertList();
+        byte[]                         signature = this.getSignature();
+        X509SignatureCache.Fingerprint fingerprint = X509SignatureCache.getFingerprint(key, tbsCertList, signature);
+
+        if (X509SignatureCache.isVerified(fingerprint))
+        {
+            return;
+        }
 
         sig.initVerify(key);
-        sig.update(this.getTBSCertList());
-        if (!sig.verify(this.getSignature()))
+        sig.update(tbsCertList);
+        if (!sig.verify(signature))
         {
             throw new SignatureException("CRL does not verify with supplied public key.");
         }
+
+        X509SignatureCache.addVerified(fingerprint);
     }
 
     public int getVersion()
@@ -241,25 +253,62 @@ public class X509CRLObject
         return entrySet;
     }
 
+    /**
+     * Return the serial number index for this CRL's entries, building it on first use.
+     */
+    X509CRLEntryIndex getEntryIndex()
+    {
+        X509CRLEntryIndex index = entryIndex;
+
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = entryIndex;
+                if (index == null)
+                {
+                    index = new X509CRLEntryIndex(c.getRevokedCertificates());
+                    entryIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
     public X509CRLEntry getRevokedCertificate(BigInteger serialNumber)
     {
-        Enumeration certs = c.getRevokedCertificateEnumeration();
+        X509CRLEntryIndex index = getEntryIndex();
+        int               pos = index.indexOf(serialNumber);
 
-        X500Principal previousCertificateIssuer = getIssuerX500Principal();
-        while (certs.hasMoreElements())
+        if (pos < 0)
         {
-            TBSCertList.CRLEntry entry = (TBSCertList.CRLEntry)certs.nextElement();
-            X509CRLEntryObject crlEntry = new X509CRLEntryObject(entry, isIndirect, previousCertificateIssuer);
+            return null;
+        }
 
-            if (serialNumber.equals(entry.getUserCertificate().getValue()))
+        X500Principal previousCertificateIssuer = null;
+
+        if (isIndirect)
+        {
+            //
+            // the certificate issuer carries over from the closest preceding entry
+            // with a certificate issuer extension, or is the CRL issuer if there is none.
+            //
+            previousCertificateIssuer = getIssuerX500Principal();
+            for (int i = pos - 1; i >= 0; i--)
             {
-                return crlEntry;
-            }
+                TBSCertList.CRLEntry entry = index.getEntry(i);
+                X509Extensions       exts = entry.getExtensions();
 
-            previousCertificateIssuer = crlEntry.getCertificateIssuer();
+                if (exts != null && exts.getExtension(X509Extensions.CertificateIssuer) != null)
+                {
+                    previousCertificateIssuer = new X509CRLEntryObject(entry, true, null).getCertificateIssuer();
+                    break;
+                }
+            }
         }
 
-        return null;
+        return new X509CRLEntryObject(index.getEntry(pos), isIndirect, previousCertificateIssuer);
     }
 
     public Set getRevokedCertificates()
@@ -461,22 +510,7 @@ public class X509CRLObject
             throw new RuntimeException("X.509 CRL used with non X.509 Cert");
         }
 
-        TBSCertList.CRLEntry[] certs = c.getRevokedCertificates();
-
-        if (certs != null)
-        {
-            BigInteger serial = ((X509Certificate)cert).getSerialNumber();
-
-            for (int i = 0; i < certs.length; i++)
-            {
-                if (certs[i].getUserCertificate().getValue().equals(serial))
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return getEntryIndex().contains(((X509Certificate)cert).getSerialNumber());
     }
 
     private boolean isIndirectCRL()
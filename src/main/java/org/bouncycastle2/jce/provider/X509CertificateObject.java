@@ -515,6 +515,12 @@ public class X509CertificateObject
 
         Certificate other = (Certificate)o;
 
+        // hash codes are memoised and come from the encoding, so this avoids encoding either certificate again
+        if (other instanceof X509CertificateObject && this.hashCode() != other.hashCode())
+        {
+            return false;
+        }
+
         try
         {
             byte[] b1 = this.getEncoded();
@@ -714,6 +720,15 @@ public class X509CertificateObject
             throw new CertificateException("signature algorithm in TBS cert not same as outer cert");
         }
 
+        byte[]                         tbsCert = this.getTBSCertificate();
+        byte[]                         sig = this.getSignature();
+        X509SignatureCache.Fingerprint fingerprint = X509SignatureCache.getFingerprint(key, tbsCert, sig);
+
+        if (X509SignatureCache.isVerified(fingerprint))
+        {
+            return;
+        }
+
         DEREncodable params = c.getSignatureAlgorithm().getParameters();
 
         // TODO This should go after the initVerify?
@@ -721,12 +736,14 @@ public class X509CertificateObject
 
         signature.initVerify(key);
 
-        signature.update(this.getTBSCertificate());
+        signature.update(tbsCert);
 
-        if (!signature.verify(this.getSignature()))
+        if (!signature.verify(sig))
         {
             throw new InvalidKeyException("Public key presented not for certificate signature");
         }
+
+        X509SignatureCache.addVerified(fingerprint);
     }
 
     private boolean isAlgIdEqual(AlgorithmIdentifier id1, AlgorithmIdentifier id2)
@@ -0,0 +1,149 @@
+package org.bouncycastle2.jce.provider;
+
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.util.Arrays;
+
+import java.security.PublicKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide record of certificate and CRL signatures that have been verified.
+ * <p>
+ * An entry is the SHA-256 hash of the verifying key's encoding, the signed data and the
+ * signature, so a hit means exactly the same check has already succeeded. Only successful
+ * verifications are recorded. The record is split into independently locked segments, each
+ * holding its most recently used entries, so the total size is bounded and lookups from
+ * different threads rarely contend.
+ */
+class X509SignatureCache
+{
+    private static final int SEGMENTS = 16;
+    private static final int SEGMENT_SIZE = 256;
+
+    private static final Map[] segments = new Map[SEGMENTS];
+
+    static
+    {
+        for (int i = 0; i != SEGMENTS; i++)
+        {
+            segments[i] = new LinkedHashMap(16, 0.75f, true)
+            {
+                protected boolean removeEldestEntry(Map.Entry eldest)
+                {
+                    return size() > SEGMENT_SIZE;
+                }
+            };
+        }
+    }
+
+    private X509SignatureCache()
+    {
+    }
+
+    /**
+     * Return the fingerprint identifying a verification, or null if the key has no encoding.
+     */
+    static Fingerprint getFingerprint(
+        PublicKey key,
+        byte[]    data,
+        byte[]    signature)
+    {
+        byte[] keyEnc = key.getEncoded();
+
+        if (keyEnc == null)
+        {
+            return null;
+        }
+
+        SHA256Digest digest = new SHA256Digest();
+
+        update(digest, keyEnc);
+        update(digest, data);
+        update(digest, signature);
+
+        byte[] hash = new byte[digest.getDigestSize()];
+
+        digest.doFinal(hash, 0);
+
+        return new Fingerprint(hash);
+    }
+
+    private static void update(
+        SHA256Digest digest,
+        byte[]       data)
+    {
+        int len = data.length;
+
+        digest.update((byte)(len >>> 24));
+        digest.update((byte)(len >>> 16));
+        digest.update((byte)(len >>> 8));
+        digest.update((byte)len);
+        digest.update(data, 0, len);
+    }
+
+    static boolean isVerified(
+        Fingerprint fingerprint)
+    {
+        if (fingerprint == null)
+        {
+            return false;
+        }
+
+        Map segment = getSegment(fingerprint);
+
+        synchronized (segment)
+        {
+            return segment.get(fingerprint) != null;
+        }
+    }
+
+    static void addVerified(
+        Fingerprint fingerprint)
+    {
+        if (fingerprint == null)
+        {
+            return;
+        }
+
+        Map segment = getSegment(fingerprint);
+
+        synchronized (segment)
+        {
+            segment.put(fingerprint, fingerprint);
+        }
+    }
+
+    private static Map getSegment(
+        Fingerprint fingerprint)
+    {
+        return segments[fingerprint.hashCode() & (SEGMENTS - 1)];
+    }
+
+    static class Fingerprint
+    {
+        private final byte[] hash;
+        private final int    hashCode;
+
+        private Fingerprint(byte[] hash)
+        {
+            this.hash = hash;
+            this.hashCode = (hash[0] & 0xff) << 24 | (hash[1] & 0xff) << 16 | (hash[2] & 0xff) << 8 | (hash[3] & 0xff);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Fingerprint))
+            {
+                return false;
+            }
+
+            return Arrays.areEqual(hash, ((Fingerprint)o).hash);
+        }
+    }
+}
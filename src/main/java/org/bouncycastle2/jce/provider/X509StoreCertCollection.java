@@ -1,6 +1,6 @@
 package org.bouncycastle2.jce.provider;
 
-import org.bouncycastle2.util.CollectionStore;
+import org.bouncycastle2.cert.IndexedCertificateStore;
 import org.bouncycastle2.util.Selector;
 import org.bouncycastle2.x509.X509CollectionStoreParameters;
 import org.bouncycastle2.x509.X509StoreParameters;
@@ -11,7 +11,7 @@ import java.util.Collection;
 public class X509StoreCertCollection
     extends X509StoreSpi
 {
-    private CollectionStore _store;
+    private IndexedCertificateStore _store;
 
     public X509StoreCertCollection()
     {
@@ -24,7 +24,7 @@ public class X509StoreCertCollection
             throw new IllegalArgumentException(params.toString());
         }
 
-        _store = new CollectionStore(((X509CollectionStoreParameters)params).getCollection());
+        _store = new IndexedCertificateStore(((X509CollectionStoreParameters)params).getCollection());
     }
 
     public Collection engineGetMatches(Selector selector)
@@ -4,6 +4,8 @@ import java.math.BigInteger;
 
 public class ECAlgorithms
 {
+    private static final ECMultiplier FIXED_POINT_MULTIPLIER = new FixedPointCombMultiplier();
+
     public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
         ECPoint Q, BigInteger b)
     {
@@ -23,9 +25,43 @@ public class ECAlgorithms
             }
         }
 
+        if (c instanceof ECCurve.Fp && a.signum() >= 0 && b.signum() >= 0)
+        {
+            return implInterleavedWNaf(P, a, Q, b);
+        }
+
         return implShamirsTrick(P, a, Q, b);
     }
 
+    /**
+     * Multiply a point that is used over and over again, such as the base point of
+     * a set of domain parameters. A fixed-base comb table is computed the first
+     * time a point is seen and kept for use by later calls.
+     *
+     * @param P the point to multiply.
+     * @param k the multiplicator.
+     * @return <code>k * P</code>.
+     */
+    public static ECPoint multiplyFixedPoint(ECPoint P, BigInteger k)
+    {
+        if (k.signum() < 0)
+        {
+            throw new IllegalArgumentException("The multiplicator cannot be negative");
+        }
+
+        if (P.isInfinity())
+        {
+            return P;
+        }
+
+        if (k.signum() == 0)
+        {
+            return P.getCurve().getInfinity();
+        }
+
+        return FIXED_POINT_MULTIPLIER.multiply(P, k, null);
+    }
+
     /*
      * "Shamir's Trick", originally due to E. G. Straus
      * (Addition chains of vectors. American Mathematical Monthly,
@@ -56,6 +92,64 @@ public class ECAlgorithms
         return implShamirsTrick(P, k, Q, l);
     }
 
+    /*
+     * Simultaneous multiplication with interleaved window NAFs: both scalars
+     * are recoded into width-w NAFs and processed in a single run of doublings,
+     * adding from tables of odd multiples of P and Q (kept with the points) as
+     * the digits require. The accumulator is kept in Jacobian co-ordinates,
+     * so the only inversion is the final conversion to affine form.
+     */
+    private static ECPoint implInterleavedWNaf(ECPoint P, BigInteger k,
+        ECPoint Q, BigInteger l)
+    {
+        if (P.isInfinity())
+        {
+            return Q.multiply(l);
+        }
+
+        if (Q.isInfinity())
+        {
+            return P.multiply(k);
+        }
+
+        byte      width = WNafMultiplier.getCachedWidth(P.getCurve().getFieldSize());
+        ECPoint[] preCompP = WNafMultiplier.getCachedPreComp(P, width);
+        ECPoint[] preCompQ = WNafMultiplier.getCachedPreComp(Q, width);
+
+        WNafMultiplier wnafMultiplier = new WNafMultiplier();
+        byte[] wnafK = wnafMultiplier.windowNaf(width, k);
+        byte[] wnafL = wnafMultiplier.windowNaf(width, l);
+
+        FpJacobianPoint R = FpJacobianPoint.infinity(P.getCurve());
+
+        for (int i = Math.max(wnafK.length, wnafL.length) - 1; i >= 0; --i)
+        {
+            R = R.twice();
+
+            if (i < wnafK.length && wnafK[i] != 0)
+            {
+                R = addDigit(R, wnafK[i], preCompP);
+            }
+
+            if (i < wnafL.length && wnafL[i] != 0)
+            {
+                R = addDigit(R, wnafL[i], preCompQ);
+            }
+        }
+
+        return R.toAffine();
+    }
+
+    private static FpJacobianPoint addDigit(FpJacobianPoint R, byte digit, ECPoint[] preComp)
+    {
+        if (digit > 0)
+        {
+            return R.addAffine(preComp[(digit - 1) / 2]);
+        }
+
+        return R.subtractAffine(preComp[(-digit - 1) / 2]);
+    }
+
     private static ECPoint implShamirsTrick(ECPoint P, BigInteger k,
         ECPoint Q, BigInteger l)
     {
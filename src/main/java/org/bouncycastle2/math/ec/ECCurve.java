@@ -37,10 +37,12 @@ public abstract class ECCurve
     {
         BigInteger q;
         ECPoint.Fp infinity;
+        FastFpField fastField;
 
         public Fp(BigInteger q, BigInteger a, BigInteger b)
         {
             this.q = q;
+            this.fastField = FastFpField.getInstance(q);
             this.a = fromBigInteger(a);
             this.b = fromBigInteger(b);
             this.infinity = new ECPoint.Fp(this, null, null);
@@ -58,6 +60,11 @@ public abstract class ECCurve
 
         public ECFieldElement fromBigInteger(BigInteger x)
         {
+            if (fastField != null)
+            {
+                return new FastFpFieldElement(fastField, x);
+            }
+
             return new ECFieldElement.Fp(this.q, x);
         }
 
@@ -94,7 +101,7 @@ public abstract class ECCurve
 
                 System.arraycopy(encoded, 1, i, 0, i.length);
 
-                ECFieldElement x = new ECFieldElement.Fp(this.q, new BigInteger(1, i));
+                ECFieldElement x = fromBigInteger(new BigInteger(1, i));
                 ECFieldElement alpha = x.multiply(x.square().add(a)).add(b);
                 ECFieldElement beta = alpha.sqrt();
 
@@ -115,8 +122,7 @@ public abstract class ECCurve
                 }
                 else
                 {
-                    p = new ECPoint.Fp(this, x,
-                        new ECFieldElement.Fp(this.q, q.subtract(beta.toBigInteger())), true);
+                    p = new ECPoint.Fp(this, x, fromBigInteger(q.subtract(beta.toBigInteger())), true);
                 }
                 break;
                 // uncompressed
@@ -131,8 +137,8 @@ public abstract class ECCurve
                 System.arraycopy(encoded, xEnc.length + 1, yEnc, 0, yEnc.length);
 
                 p = new ECPoint.Fp(this,
-                        new ECFieldElement.Fp(this.q, new BigInteger(1, xEnc)),
-                        new ECFieldElement.Fp(this.q, new BigInteger(1, yEnc)));
+                        fromBigInteger(new BigInteger(1, xEnc)),
+                        fromBigInteger(new BigInteger(1, yEnc)));
                 break;
             default:
                 throw new RuntimeException("Invalid point encoding 0x" + Integer.toString(encoded[0], 16));
@@ -19,6 +19,11 @@ public abstract class ECFieldElement
     public abstract ECFieldElement invert();
     public abstract ECFieldElement sqrt();
 
+    public boolean isZero()
+    {
+        return this.toBigInteger().signum() == 0;
+    }
+
     public String toString()
     {
         return this.toBigInteger().toString(2);
@@ -288,6 +293,11 @@ public abstract class ECFieldElement
                 return true;
             }
 
+            if (other instanceof FastFpFieldElement)
+            {
+                return other.equals(this);
+            }
+
             if (!(other instanceof ECFieldElement.Fp))
             {
                 return false;
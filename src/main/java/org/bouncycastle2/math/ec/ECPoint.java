@@ -3,6 +3,7 @@ package org.bouncycastle2.math.ec;
 import org.bouncycastle2.asn1.x9.X9IntegerConverter;
 
 import java.math.BigInteger;
+import java.util.Hashtable;
 
 /**
  * base class for points on elliptic curves.
@@ -19,6 +20,8 @@ public abstract class ECPoint
 
     protected PreCompInfo preCompInfo = null;
 
+    private Hashtable preCompTable = null;
+
     private static X9IntegerConverter converter = new X9IntegerConverter();
 
     protected ECPoint(ECCurve curve, ECFieldElement x, ECFieldElement y)
@@ -108,6 +111,39 @@ public abstract class ECPoint
         this.preCompInfo = preCompInfo;
     }
 
+    /**
+     * Return the <code>PreCompInfo</code> stored under the given name by one
+     * of the algorithms in <code>ECAlgorithms</code>, null if there is none.
+     * These are kept apart from the <code>PreCompInfo</code> of this point's
+     * own <code>ECMultiplier</code>.
+     * @param name The name the values were stored under.
+     */
+    synchronized PreCompInfo getPreCompInfo(String name)
+    {
+        if (preCompTable == null)
+        {
+            return null;
+        }
+
+        return (PreCompInfo)preCompTable.get(name);
+    }
+
+    /**
+     * Store a <code>PreCompInfo</code> under the given name, for use by later
+     * multiplications of this <code>ECPoint</code>.
+     * @param name The name to store the values under.
+     * @param preCompInfo The precomputed values.
+     */
+    synchronized void setPreCompInfo(String name, PreCompInfo preCompInfo)
+    {
+        if (preCompTable == null)
+        {
+            preCompTable = new Hashtable(4);
+        }
+
+        preCompTable.put(name, preCompInfo);
+    }
+
     public abstract byte[] getEncoded();
 
     public abstract ECPoint add(ECPoint b);
@@ -280,7 +316,7 @@ public abstract class ECPoint
                 return this;
             }
 
-            if (this.y.toBigInteger().signum() == 0) 
+            if (this.y.isZero())
             {
                 // if y1 == 0, then (x1, y1) == (x1, -y1)
                 // and hence this = -this and thus 2(x1, y1) == infinity
@@ -0,0 +1,273 @@
+package org.bouncycastle2.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo one of the special primes used by the NIST/SEC curves, on
+ * arrays of 32 bit words.
+ * <p>
+ * Each of these primes p has 2^(32 * len) mod p equal to a short sum of signed
+ * multiples of powers of 2^32, so the double length result of a multiplication
+ * is reduced by folding its upper half back onto the lower half (Solinas' method)
+ * rather than by a division. Fields are looked up by prime with
+ * {@link #getInstance(BigInteger)}.
+ * <p>
+ * The double length products and the accumulator used to reduce them are kept per
+ * thread, so apart from the array for its result an operation allocates nothing.
+ */
+class FastFpField
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // secp256r1, p = 2^256 - 2^224 + 2^192 + 2^96 - 1
+    private static final FastFpField SECP256R1 = new FastFpField(
+        new BigInteger("FFFFFFFF00000001000000000000000000000000FFFFFFFFFFFFFFFFFFFFFFFF", 16),
+        new int[] { 0, 3, 6, 7 }, new long[] { 1, -1, -1, 1 });
+
+    // secp384r1, p = 2^384 - 2^128 - 2^96 + 2^32 - 1
+    private static final FastFpField SECP384R1 = new FastFpField(
+        new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFFFF0000000000000000FFFFFFFF", 16),
+        new int[] { 0, 1, 3, 4 }, new long[] { 1, -1, 1, 1 });
+
+    // secp256k1, p = 2^256 - 2^32 - 977
+    private static final FastFpField SECP256K1 = new FastFpField(
+        new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F", 16),
+        new int[] { 0, 1 }, new long[] { 977, 1 });
+
+    // secp521r1, p = 2^521 - 1
+    private static final FastFpField SECP521R1 = new Mersenne521();
+
+    /**
+     * Return the fast field for q, or null if q is not one of the supported primes.
+     */
+    static FastFpField getInstance(BigInteger q)
+    {
+        int bits = q.bitLength();
+
+        if (bits == 256)
+        {
+            if (q.equals(SECP256R1.q))
+            {
+                return SECP256R1;
+            }
+            if (q.equals(SECP256K1.q))
+            {
+                return SECP256K1;
+            }
+        }
+        else if (bits == 384)
+        {
+            if (q.equals(SECP384R1.q))
+            {
+                return SECP384R1;
+            }
+        }
+        else if (bits == 521)
+        {
+            if (q.equals(SECP521R1.q))
+            {
+                return SECP521R1;
+            }
+        }
+
+        return null;
+    }
+
+    final BigInteger q;
+    final int        len;
+    final int[]      p;
+
+    // 2^(32 * len) mod p, as coefficients of the given word positions
+    private final int[]  cPos;
+    private final long[] cVal;
+
+    // scratch space for a product and its reduction, for the current thread.
+    private final ThreadLocal scratch = new ThreadLocal()
+    {
+        protected Object initialValue()
+        {
+            return new Scratch(2 * len);
+        }
+    };
+
+    FastFpField(BigInteger q, int[] cPos, long[] cVal)
+    {
+        this.q = q;
+        this.len = (q.bitLength() + 31) / 32;
+        this.p = Nat.fromBigInteger(len, q);
+        this.cPos = cPos;
+        this.cVal = cVal;
+    }
+
+    void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(len, x, y, z);
+
+        if (c != 0 || Nat.gte(len, z, p))
+        {
+            Nat.sub(len, z, p, z);
+        }
+    }
+
+    void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(len, x, y, z);
+
+        if (c != 0)
+        {
+            Nat.add(len, z, p, z);
+        }
+    }
+
+    void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(len, x))
+        {
+            for (int i = 0; i < len; i++)
+            {
+                z[i] = 0;
+            }
+        }
+        else
+        {
+            Nat.sub(len, p, x, z);
+        }
+    }
+
+    void multiply(int[] x, int[] y, int[] z)
+    {
+        Scratch s = (Scratch)scratch.get();
+
+        Nat.mul(len, x, y, s.tt);
+        reduce(s.tt, s.acc, z);
+    }
+
+    void square(int[] x, int[] z)
+    {
+        Scratch s = (Scratch)scratch.get();
+
+        Nat.square(len, x, s.tt);
+        reduce(s.tt, s.acc, z);
+    }
+
+    /**
+     * Reduce the double length value tt into z, using acc, which is overwritten.
+     */
+    void reduce(int[] tt, long[] acc, int[] z)
+    {
+        for (int i = 0; i < acc.length; i++)
+        {
+            acc[i] = tt[i] & M;
+        }
+
+        // fold the upper words down, highest first, so everything lands below
+        for (int k = acc.length - 1; k >= len; k--)
+        {
+            long v = acc[k];
+
+            if (v != 0)
+            {
+                acc[k] = 0;
+                for (int j = 0; j < cPos.length; j++)
+                {
+                    acc[k - len + cPos[j]] += v * cVal[j];
+                }
+            }
+        }
+
+        long c = propagate(acc, z);
+
+        // fold any remaining (signed) carry until the value fits in len words
+        while (c != 0)
+        {
+            for (int i = 0; i < len; i++)
+            {
+                acc[i] = z[i] & M;
+            }
+            for (int j = 0; j < cPos.length; j++)
+            {
+                acc[cPos[j]] += c * cVal[j];
+            }
+
+            c = propagate(acc, z);
+        }
+
+        if (Nat.gte(len, z, p))
+        {
+            Nat.sub(len, z, p, z);
+        }
+    }
+
+    private long propagate(long[] acc, int[] z)
+    {
+        long c = 0;
+
+        for (int i = 0; i < len; i++)
+        {
+            c += acc[i];
+            z[i] = (int)c;
+            c >>= 32;
+        }
+
+        return c;
+    }
+
+    private static class Scratch
+    {
+        final int[]  tt;
+        final long[] acc;
+
+        Scratch(int size)
+        {
+            this.tt = new int[size];
+            this.acc = new long[size];
+        }
+    }
+
+    /**
+     * The secp521r1 prime is a Mersenne prime that does not fill its top word,
+     * so reduction splits the product at bit 521 instead.
+     */
+    private static class Mersenne521
+        extends FastFpField
+    {
+        Mersenne521()
+        {
+            super(BigInteger.ONE.shiftLeft(521).subtract(BigInteger.ONE), null, null);
+        }
+
+        void reduce(int[] tt, long[] acc, int[] z)
+        {
+            // tt < 2^1042, so tt = hi * 2^521 + lo, with hi, lo < 2^521
+            long c = 0;
+
+            for (int i = 0; i < 16; i++)
+            {
+                long hi = ((tt[16 + i] >>> 9) | (tt[17 + i] << 23)) & M;
+
+                c += (tt[i] & M) + hi;
+                z[i] = (int)c;
+                c >>>= 32;
+            }
+
+            long hi16 = (tt[32] >>> 9) | (tt[33] << 23);
+            c += (tt[16] & 0x1FF) + (hi16 & M);
+
+            z[16] = (int)c & 0x1FF;
+
+            // add back the bits at and above 2^521, 2^521 = 1 mod p
+            c = (c >>> 9);
+            for (int i = 0; c != 0 && i < 17; i++)
+            {
+                c += z[i] & M;
+                z[i] = (int)c;
+                c >>>= 32;
+            }
+
+            if (Nat.gte(len, z, p))
+            {
+                Nat.sub(len, z, p, z);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.bouncycastle2.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Element of one of the special prime fields supported by {@link FastFpField}. The
+ * value is held as an array of 32 bit words so the field operations work without
+ * creating BigIntegers. {@link ECCurve.Fp} uses this class automatically when the
+ * curve's prime is one it supports.
+ */
+public class FastFpFieldElement
+    extends ECFieldElement
+{
+    private final FastFpField field;
+    private final int[]       x;
+
+    FastFpFieldElement(FastFpField field, BigInteger x)
+    {
+        if (x.compareTo(field.q) >= 0)
+        {
+            throw new IllegalArgumentException("x value too large in field element");
+        }
+
+        if (x.signum() < 0)
+        {
+            x = x.mod(field.q);
+        }
+
+        this.field = field;
+        this.x = Nat.fromBigInteger(field.len, x);
+    }
+
+    private FastFpFieldElement(FastFpField field, int[] x)
+    {
+        this.field = field;
+        this.x = x;
+    }
+
+    public BigInteger toBigInteger()
+    {
+        return Nat.toBigInteger(field.len, x);
+    }
+
+    /**
+     * return the field name for this field.
+     *
+     * @return the string "Fp".
+     */
+    public String getFieldName()
+    {
+        return "Fp";
+    }
+
+    public int getFieldSize()
+    {
+        return field.q.bitLength();
+    }
+
+    public BigInteger getQ()
+    {
+        return field.q;
+    }
+
+    public boolean isZero()
+    {
+        return Nat.isZero(field.len, x);
+    }
+
+    public ECFieldElement add(ECFieldElement b)
+    {
+        int[] z = new int[field.len];
+
+        field.add(x, words(b), z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement subtract(ECFieldElement b)
+    {
+        int[] z = new int[field.len];
+
+        field.subtract(x, words(b), z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement multiply(ECFieldElement b)
+    {
+        int[] z = new int[field.len];
+
+        field.multiply(x, words(b), z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement divide(ECFieldElement b)
+    {
+        int[] z = new int[field.len];
+
+        field.multiply(x, words(b.invert()), z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement negate()
+    {
+        int[] z = new int[field.len];
+
+        field.negate(x, z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement square()
+    {
+        int[] z = new int[field.len];
+
+        field.square(x, z);
+
+        return new FastFpFieldElement(field, z);
+    }
+
+    public ECFieldElement invert()
+    {
+        return new FastFpFieldElement(field, toBigInteger().modInverse(field.q));
+    }
+
+    public ECFieldElement sqrt()
+    {
+        ECFieldElement root = new ECFieldElement.Fp(field.q, toBigInteger()).sqrt();
+
+        if (root == null)
+        {
+            return null;
+        }
+
+        return new FastFpFieldElement(field, root.toBigInteger());
+    }
+
+    private int[] words(ECFieldElement b)
+    {
+        if (b instanceof FastFpFieldElement && ((FastFpFieldElement)b).field == field)
+        {
+            return ((FastFpFieldElement)b).x;
+        }
+
+        return Nat.fromBigInteger(field.len, b.toBigInteger().mod(field.q));
+    }
+
+    public boolean equals(Object other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+
+        if (other instanceof FastFpFieldElement)
+        {
+            FastFpFieldElement o = (FastFpFieldElement)other;
+
+            if (o.field == field)
+            {
+                for (int i = 0; i != x.length; i++)
+                {
+                    if (x[i] != o.x[i])
+                    {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+        // an element of the same field created without the fast arithmetic
+        if (other instanceof ECFieldElement.Fp)
+        {
+            ECFieldElement.Fp o = (ECFieldElement.Fp)other;
+
+            return field.q.equals(o.getQ()) && toBigInteger().equals(o.toBigInteger());
+        }
+
+        return false;
+    }
+
+    public int hashCode()
+    {
+        // consistent with ECFieldElement.Fp
+        return field.q.hashCode() ^ toBigInteger().hashCode();
+    }
+}
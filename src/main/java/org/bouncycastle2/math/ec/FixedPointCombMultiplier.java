@@ -0,0 +1,210 @@
+package org.bouncycastle2.math.ec;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class implementing the fixed-base comb multiplication algorithm (Lim-Lee) for
+ * points that are multiplied repeatedly, such as the base point of a set of
+ * domain parameters.
+ * <p>
+ * A table of 2^width - 1 points is computed once for each base point and kept
+ * with the point, after which a multiplication costs roughly bitLength/width
+ * doublings and additions. Points over Fp are accumulated in Jacobian
+ * co-ordinates.
+ */
+class FixedPointCombMultiplier implements ECMultiplier
+{
+    static final String PRECOMP_NAME = "bc_fixed_point";
+
+    private static final int WIDTH = 5;
+    private static final int MAX_BASES = 16;
+
+    /**
+     * Tables for the base points seen so far, keyed on the point's value, so a
+     * base point that is rebuilt from its domain parameters for each operation
+     * still finds its table. Only points passed in as fixed bases get here, and
+     * once full nothing is added or evicted.
+     */
+    private static final Map bases = new ConcurrentHashMap();
+
+    private final ECMultiplier fallback = new WNafMultiplier();
+
+    public ECPoint multiply(ECPoint p, BigInteger k, PreCompInfo preCompInfo)
+    {
+        FixedPointPreCompInfo combInfo;
+
+        if (preCompInfo instanceof FixedPointPreCompInfo)
+        {
+            combInfo = (FixedPointPreCompInfo)preCompInfo;
+        }
+        else
+        {
+            combInfo = getPreCompInfo(p);
+        }
+
+        int width = combInfo.getWidth();
+        int spacing = combInfo.getSpacing();
+
+        if (k.bitLength() > width * spacing)
+        {
+            // outside the range of the table - shouldn't happen for reduced scalars
+            return fallback.multiply(p, k, null);
+        }
+
+        ECPoint[] preComp = combInfo.getPreComp();
+
+        if (p instanceof ECPoint.Fp)
+        {
+            FpJacobianPoint q = FpJacobianPoint.infinity(p.getCurve());
+
+            for (int i = spacing - 1; i >= 0; i--)
+            {
+                q = q.twice();
+
+                int index = getCombIndex(k, i, width, spacing);
+                if (index != 0)
+                {
+                    q = q.addAffine(preComp[index]);
+                }
+            }
+
+            return q.toAffine();
+        }
+
+        ECPoint q = p.getCurve().getInfinity();
+
+        for (int i = spacing - 1; i >= 0; i--)
+        {
+            q = q.twice();
+
+            int index = getCombIndex(k, i, width, spacing);
+            if (index != 0)
+            {
+                q = q.add(preComp[index]);
+            }
+        }
+
+        return q;
+    }
+
+    private static int getCombIndex(BigInteger k, int column, int width, int spacing)
+    {
+        int index = 0;
+
+        for (int j = width - 1; j >= 0; j--)
+        {
+            index <<= 1;
+            if (k.testBit(column + j * spacing))
+            {
+                index |= 1;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Return the comb table for p, computing it if neither p nor an earlier base
+     * point with the same value has one.
+     */
+    static FixedPointPreCompInfo getPreCompInfo(ECPoint p)
+    {
+        FixedPointPreCompInfo info = (FixedPointPreCompInfo)p.getPreCompInfo(PRECOMP_NAME);
+
+        if (info != null)
+        {
+            return info;
+        }
+
+        info = (FixedPointPreCompInfo)bases.get(p);
+
+        if (info == null || !info.getPreComp()[1].getCurve().equals(p.getCurve()))
+        {
+            info = precompute(p);
+
+            if (bases.size() < MAX_BASES)
+            {
+                bases.put(p, info);
+            }
+        }
+
+        p.setPreCompInfo(PRECOMP_NAME, info);
+
+        return info;
+    }
+
+    private static FixedPointPreCompInfo precompute(ECPoint p)
+    {
+        int       bits = p.getCurve().getFieldSize() + 1;
+        int       spacing = (bits + WIDTH - 1) / WIDTH;
+        int       size = 1 << WIDTH;
+        ECPoint[] powers = new ECPoint[WIDTH];
+
+        // powers[j] = 2^(j * spacing) * p
+        powers[0] = p;
+        for (int j = 1; j < WIDTH; j++)
+        {
+            ECPoint t = powers[j - 1];
+
+            if (p instanceof ECPoint.Fp)
+            {
+                FpJacobianPoint jt = FpJacobianPoint.fromAffine(t);
+                for (int i = 0; i < spacing; i++)
+                {
+                    jt = jt.twice();
+                }
+                t = jt.toAffine();
+            }
+            else
+            {
+                for (int i = 0; i < spacing; i++)
+                {
+                    t = t.twice();
+                }
+            }
+
+            powers[j] = t;
+        }
+
+        ECPoint[] preComp = new ECPoint[size];
+
+        preComp[0] = p.getCurve().getInfinity();
+
+        if (p instanceof ECPoint.Fp)
+        {
+            FpJacobianPoint[] jPreComp = new FpJacobianPoint[size - 1];
+
+            for (int i = 1; i < size; i++)
+            {
+                FpJacobianPoint t = FpJacobianPoint.infinity(p.getCurve());
+
+                for (int j = 0; j < WIDTH; j++)
+                {
+                    if ((i & (1 << j)) != 0)
+                    {
+                        t = t.addAffine(powers[j]);
+                    }
+                }
+
+                jPreComp[i - 1] = t;
+            }
+
+            System.arraycopy(FpJacobianPoint.toAffine(jPreComp), 0, preComp, 1, size - 1);
+        }
+        else
+        {
+            for (int i = 1; i < size; i++)
+            {
+                // highest set bit plus the entry for the remaining bits
+                int high = Integer.highestOneBit(i);
+                int j = Integer.numberOfTrailingZeros(high);
+
+                preComp[i] = (i == high) ? powers[j] : preComp[i - high].add(powers[j]);
+            }
+        }
+
+        return new FixedPointPreCompInfo(preComp, WIDTH, spacing);
+    }
+}
@@ -0,0 +1,46 @@
+package org.bouncycastle2.math.ec;
+
+/**
+ * Class holding precomputation data for the fixed-base comb multiplication
+ * algorithm in <code>{@link FixedPointCombMultiplier}</code>.
+ */
+class FixedPointPreCompInfo implements PreCompInfo
+{
+    /**
+     * The comb table, entry i holding the sum of 2^(j * spacing) times the
+     * base point for every bit j set in i. Entry 0 is unused.
+     */
+    private final ECPoint[] preComp;
+
+    /**
+     * The number of teeth in the comb.
+     */
+    private final int width;
+
+    /**
+     * The distance in bits between the teeth of the comb.
+     */
+    private final int spacing;
+
+    FixedPointPreCompInfo(ECPoint[] preComp, int width, int spacing)
+    {
+        this.preComp = preComp;
+        this.width = width;
+        this.spacing = spacing;
+    }
+
+    ECPoint[] getPreComp()
+    {
+        return preComp;
+    }
+
+    int getWidth()
+    {
+        return width;
+    }
+
+    int getSpacing()
+    {
+        return spacing;
+    }
+}
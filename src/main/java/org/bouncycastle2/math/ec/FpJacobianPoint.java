@@ -0,0 +1,268 @@
+package org.bouncycastle2.math.ec;
+
+/**
+ * A point on an elliptic curve over Fp held in Jacobian projective co-ordinates,
+ * (X, Y, Z) representing the affine point (X/Z^2, Y/Z^3).
+ * <p>
+ * Addition and doubling in this form need no field inversion, so the multiplication
+ * algorithms accumulate their result here and convert back to affine co-ordinates with a
+ * single inversion at the end. Additions are "mixed", that is the second operand is always
+ * an affine point, which is the cheapest form of addition available.
+ */
+class FpJacobianPoint
+{
+    private static final int A_GENERAL = 0;
+    private static final int A_ZERO = 1;
+    private static final int A_MINUS_THREE = 2;
+
+    private final ECCurve        curve;
+    private final int            aForm;
+    private final ECFieldElement x;
+    private final ECFieldElement y;
+    private final ECFieldElement z;
+
+    private FpJacobianPoint(ECCurve curve, int aForm, ECFieldElement x, ECFieldElement y, ECFieldElement z)
+    {
+        this.curve = curve;
+        this.aForm = aForm;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Return the point at infinity on the passed in curve.
+     */
+    static FpJacobianPoint infinity(ECCurve curve)
+    {
+        return new FpJacobianPoint(curve, getAForm(curve), null, null, null);
+    }
+
+    /**
+     * Return the Jacobian form of an affine point, Z = 1.
+     */
+    static FpJacobianPoint fromAffine(ECPoint p)
+    {
+        ECCurve curve = p.getCurve();
+
+        if (p.isInfinity())
+        {
+            return infinity(curve);
+        }
+
+        return new FpJacobianPoint(curve, getAForm(curve), p.getX(), p.getY(), curve.fromBigInteger(ECConstants.ONE));
+    }
+
+    private static int getAForm(ECCurve curve)
+    {
+        ECFieldElement a = curve.getA();
+
+        if (a.isZero())
+        {
+            return A_ZERO;
+        }
+
+        if (a.add(curve.fromBigInteger(ECConstants.THREE)).isZero())
+        {
+            return A_MINUS_THREE;
+        }
+
+        return A_GENERAL;
+    }
+
+    boolean isInfinity()
+    {
+        return z == null;
+    }
+
+    private FpJacobianPoint getInfinity()
+    {
+        return new FpJacobianPoint(curve, aForm, null, null, null);
+    }
+
+    /**
+     * Doubling, using the usual shortcuts for curves with a = 0 or a = -3.
+     */
+    FpJacobianPoint twice()
+    {
+        if (this.isInfinity())
+        {
+            return this;
+        }
+
+        if (y.isZero())
+        {
+            return getInfinity();
+        }
+
+        ECFieldElement YY = y.square();
+        ECFieldElement ZZ = z.square();
+        ECFieldElement M;
+
+        switch (aForm)
+        {
+        case A_MINUS_THREE:
+            M = x.subtract(ZZ).multiply(x.add(ZZ));
+            M = M.add(M).add(M);
+            break;
+        case A_ZERO:
+            M = x.square();
+            M = M.add(M).add(M);
+            break;
+        default:
+            M = x.square();
+            M = M.add(M).add(M).add(curve.getA().multiply(ZZ.square()));
+            break;
+        }
+
+        ECFieldElement S = x.multiply(YY);
+        S = S.add(S);
+        S = S.add(S);
+
+        ECFieldElement YYYY8 = YY.square();
+        YYYY8 = YYYY8.add(YYYY8);
+        YYYY8 = YYYY8.add(YYYY8);
+        YYYY8 = YYYY8.add(YYYY8);
+
+        ECFieldElement X3 = M.square().subtract(S.add(S));
+        ECFieldElement Y3 = M.multiply(S.subtract(X3)).subtract(YYYY8);
+        ECFieldElement Z3 = y.multiply(z);
+        Z3 = Z3.add(Z3);
+
+        return new FpJacobianPoint(curve, aForm, X3, Y3, Z3);
+    }
+
+    /**
+     * Mixed addition of an affine point, "madd-2007-bl".
+     */
+    FpJacobianPoint addAffine(ECPoint b)
+    {
+        if (b.isInfinity())
+        {
+            return this;
+        }
+
+        if (this.isInfinity())
+        {
+            return new FpJacobianPoint(curve, aForm, b.getX(), b.getY(), curve.fromBigInteger(ECConstants.ONE));
+        }
+
+        ECFieldElement Z1Z1 = z.square();
+        ECFieldElement U2 = b.getX().multiply(Z1Z1);
+        ECFieldElement S2 = b.getY().multiply(z).multiply(Z1Z1);
+        ECFieldElement H = U2.subtract(x);
+        ECFieldElement R = S2.subtract(y);
+
+        if (H.isZero())
+        {
+            if (R.isZero())
+            {
+                // this == b, so double
+                return this.twice();
+            }
+
+            // this == -b
+            return getInfinity();
+        }
+
+        ECFieldElement HH = H.square();
+        ECFieldElement HHH = H.multiply(HH);
+        ECFieldElement V = x.multiply(HH);
+
+        ECFieldElement X3 = R.square().subtract(HHH).subtract(V.add(V));
+        ECFieldElement Y3 = R.multiply(V.subtract(X3)).subtract(y.multiply(HHH));
+        ECFieldElement Z3 = z.multiply(H);
+
+        return new FpJacobianPoint(curve, aForm, X3, Y3, Z3);
+    }
+
+    FpJacobianPoint subtractAffine(ECPoint b)
+    {
+        if (b.isInfinity())
+        {
+            return this;
+        }
+
+        return addAffine(b.negate());
+    }
+
+    /**
+     * Convert back to affine co-ordinates.
+     */
+    ECPoint toAffine()
+    {
+        if (this.isInfinity())
+        {
+            return curve.getInfinity();
+        }
+
+        ECFieldElement zInv = z.invert();
+
+        return toAffine(zInv);
+    }
+
+    private ECPoint toAffine(ECFieldElement zInv)
+    {
+        ECFieldElement zInv2 = zInv.square();
+
+        return new ECPoint.Fp(curve, x.multiply(zInv2), y.multiply(zInv2.multiply(zInv)));
+    }
+
+    /**
+     * Convert an array of points to affine co-ordinates using Montgomery's trick, so
+     * only one field inversion is done for the whole array.
+     */
+    static ECPoint[] toAffine(FpJacobianPoint[] points)
+    {
+        ECPoint[]        result = new ECPoint[points.length];
+        ECFieldElement[] c = new ECFieldElement[points.length];
+        ECFieldElement   acc = null;
+        int              last = -1;
+
+        for (int i = 0; i != points.length; i++)
+        {
+            if (!points[i].isInfinity())
+            {
+                acc = (acc == null) ? points[i].z : acc.multiply(points[i].z);
+                last = i;
+            }
+            c[i] = acc;
+        }
+
+        if (last < 0)
+        {
+            for (int i = 0; i != points.length; i++)
+            {
+                result[i] = points[i].curve.getInfinity();
+            }
+
+            return result;
+        }
+
+        ECFieldElement inv = c[last].invert();
+
+        for (int i = points.length - 1; i >= 0; i--)
+        {
+            FpJacobianPoint p = points[i];
+
+            if (p.isInfinity())
+            {
+                result[i] = p.curve.getInfinity();
+                continue;
+            }
+
+            if (i == 0 || c[i - 1] == null)
+            {
+                // first finite point in the array, inv is now its inverse
+                result[i] = p.toAffine(inv);
+            }
+            else
+            {
+                result[i] = p.toAffine(inv.multiply(c[i - 1]));
+                inv = inv.multiply(p.z);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,203 @@
+package org.bouncycastle2.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Fixed length unsigned arithmetic on little-endian arrays of 32 bit words, as
+ * used by the fast reduction prime fields.
+ */
+class Nat
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    /**
+     * z = x + y, returning the carry out (0 or 1).
+     */
+    static int add(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+
+        for (int i = 0; i < len; i++)
+        {
+            c += (x[i] & M) + (y[i] & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+
+        return (int)c;
+    }
+
+    /**
+     * z = x - y, returning the borrow out (0 or -1).
+     */
+    static int sub(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+
+        for (int i = 0; i < len; i++)
+        {
+            c += (x[i] & M) - (y[i] & M);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+
+        return (int)c;
+    }
+
+    /**
+     * zz = x * y, zz must have length 2 * len.
+     */
+    static void mul(int len, int[] x, int[] y, int[] zz)
+    {
+        // the first row sets the words it covers, so zz doesn't have to be cleared.
+        long x0 = x[0] & M;
+        long c0 = 0;
+
+        for (int j = 0; j < len; j++)
+        {
+            c0 += x0 * (y[j] & M);
+            zz[j] = (int)c0;
+            c0 >>>= 32;
+        }
+
+        zz[len] = (int)c0;
+
+        for (int i = 1; i < len; i++)
+        {
+            long xi = x[i] & M;
+            long c = 0;
+
+            for (int j = 0; j < len; j++)
+            {
+                c += xi * (y[j] & M) + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+
+            zz[i + len] = (int)c;
+        }
+    }
+
+    /**
+     * zz = x * x, zz must have length 2 * len. Each cross product is computed
+     * once and doubled.
+     */
+    static void square(int len, int[] x, int[] zz)
+    {
+        for (int i = 0; i < 2 * len; i++)
+        {
+            zz[i] = 0;
+        }
+
+        // cross products x[i] * x[j], i < j
+        for (int i = 0; i < len; i++)
+        {
+            long xi = x[i] & M;
+            long c = 0;
+
+            for (int j = i + 1; j < len; j++)
+            {
+                c += xi * (x[j] & M) + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+
+            zz[i + len] = (int)c;
+        }
+
+        // double them and add the squares
+        long c = 0;
+        int  prev = 0;
+
+        for (int i = 0; i < len; i++)
+        {
+            long xi = x[i] & M;
+            long sq = xi * xi;
+
+            int lo = zz[2 * i];
+            int hi = zz[2 * i + 1];
+
+            c += (sq & M) + (((lo << 1) | (prev >>> 31)) & M);
+            zz[2 * i] = (int)c;
+            c >>>= 32;
+
+            c += (sq >>> 32) + (((hi << 1) | (lo >>> 31)) & M);
+            zz[2 * i + 1] = (int)c;
+            c >>>= 32;
+
+            prev = hi;
+        }
+    }
+
+    /**
+     * Return true if x >= y.
+     */
+    static boolean gte(int len, int[] x, int[] y)
+    {
+        for (int i = len - 1; i >= 0; i--)
+        {
+            int xi = x[i] ^ Integer.MIN_VALUE;
+            int yi = y[i] ^ Integer.MIN_VALUE;
+
+            if (xi < yi)
+            {
+                return false;
+            }
+            if (xi > yi)
+            {
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+    static boolean isZero(int len, int[] x)
+    {
+        for (int i = 0; i < len; i++)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static int[] fromBigInteger(int len, BigInteger x)
+    {
+        if (x.signum() < 0 || x.bitLength() > len * 32)
+        {
+            throw new IllegalArgumentException("value out of range");
+        }
+
+        int[] z = new int[len];
+
+        for (int i = 0; x.signum() != 0 && i < len; i++)
+        {
+            z[i] = x.intValue();
+            x = x.shiftRight(32);
+        }
+
+        return z;
+    }
+
+    static BigInteger toBigInteger(int len, int[] x)
+    {
+        byte[] bs = new byte[len * 4];
+
+        for (int i = 0; i < len; i++)
+        {
+            int w = x[i];
+            int off = (len - 1 - i) * 4;
+
+            bs[off]     = (byte)(w >>> 24);
+            bs[off + 1] = (byte)(w >>> 16);
+            bs[off + 2] = (byte)(w >>> 8);
+            bs[off + 3] = (byte)w;
+        }
+
+        return new BigInteger(1, bs);
+    }
+}
@@ -8,6 +8,8 @@ import java.math.BigInteger;
  */
 class WNafMultiplier implements ECMultiplier
 {
+    static final String PRECOMP_NAME = "bc_wnaf";
+
     /**
      * Computes the Window NAF (non-adjacent Form) of an integer.
      * @param width The width <code>w</code> of the Window NAF. The width is
@@ -196,13 +198,32 @@ class WNafMultiplier implements ECMultiplier
             preComp = new ECPoint[reqPreCompLen];
             System.arraycopy(oldPreComp, 0, preComp, 0, preCompLen);
 
-            for (int i = preCompLen; i < reqPreCompLen; i++)
+            if (p instanceof ECPoint.Fp)
+            {
+                // Compute the new points in Jacobian co-ordinates and convert
+                // them back to affine form with a single inversion
+                FpJacobianPoint[] jPreComp = new FpJacobianPoint[reqPreCompLen - preCompLen];
+                FpJacobianPoint   last = FpJacobianPoint.fromAffine(preComp[preCompLen - 1]);
+
+                for (int i = 0; i < jPreComp.length; i++)
+                {
+                    last = last.addAffine(twiceP);
+                    jPreComp[i] = last;
+                }
+
+                ECPoint[] newPreComp = FpJacobianPoint.toAffine(jPreComp);
+                System.arraycopy(newPreComp, 0, preComp, preCompLen, newPreComp.length);
+            }
+            else
             {
-                // Compute the new ECPoints for the precomputation array.
-                // The values 1, 3, 5, ..., 2^(width-1)-1 times p are
-                // computed
-                preComp[i] = twiceP.add(preComp[i - 1]);
-            }            
+                for (int i = preCompLen; i < reqPreCompLen; i++)
+                {
+                    // Compute the new ECPoints for the precomputation array.
+                    // The values 1, 3, 5, ..., 2^(width-1)-1 times p are
+                    // computed
+                    preComp[i] = twiceP.add(preComp[i - 1]);
+                }
+            }
         }
 
         // Compute the Window NAF of the desired width
@@ -210,8 +231,50 @@ class WNafMultiplier implements ECMultiplier
         int l = wnaf.length;
 
         // Apply the Window NAF to p using the precomputed ECPoint values.
-        ECPoint q = p.getCurve().getInfinity();
-        for (int i = l - 1; i >= 0; i--)
+        ECPoint q;
+        if (p instanceof ECPoint.Fp)
+        {
+            q = multiplyJacobian(p.getCurve(), wnaf, preComp);
+        }
+        else
+        {
+            q = p.getCurve().getInfinity();
+            for (int i = l - 1; i >= 0; i--)
+            {
+                q = q.twice();
+
+                if (wnaf[i] != 0)
+                {
+                    if (wnaf[i] > 0)
+                    {
+                        q = q.add(preComp[(wnaf[i] - 1)/2]);
+                    }
+                    else
+                    {
+                        // wnaf[i] < 0
+                        q = q.subtract(preComp[(-wnaf[i] - 1)/2]);
+                    }
+                }
+            }
+        }
+
+        // Set PreCompInfo in ECPoint, such that it is available for next
+        // multiplication.
+        wnafPreCompInfo.setPreComp(preComp);
+        wnafPreCompInfo.setTwiceP(twiceP);
+        p.setPreCompInfo(wnafPreCompInfo);
+        return q;
+    }
+
+    /**
+     * Apply a Window NAF over Fp, accumulating in Jacobian co-ordinates so
+     * only the final conversion back to affine form needs an inversion.
+     */
+    private ECPoint multiplyJacobian(ECCurve curve, byte[] wnaf, ECPoint[] preComp)
+    {
+        FpJacobianPoint q = FpJacobianPoint.infinity(curve);
+
+        for (int i = wnaf.length - 1; i >= 0; i--)
         {
             q = q.twice();
 
@@ -219,22 +282,83 @@ class WNafMultiplier implements ECMultiplier
             {
                 if (wnaf[i] > 0)
                 {
-                    q = q.add(preComp[(wnaf[i] - 1)/2]);
+                    q = q.addAffine(preComp[(wnaf[i] - 1)/2]);
                 }
                 else
                 {
-                    // wnaf[i] < 0
-                    q = q.subtract(preComp[(-wnaf[i] - 1)/2]);
+                    q = q.subtractAffine(preComp[(-wnaf[i] - 1)/2]);
                 }
             }
         }
 
-        // Set PreCompInfo in ECPoint, such that it is available for next
-        // multiplication.
-        wnafPreCompInfo.setPreComp(preComp);
-        wnafPreCompInfo.setTwiceP(twiceP);
-        p.setPreCompInfo(wnafPreCompInfo);
-        return q;
+        return q.toAffine();
+    }
+
+    /**
+     * Return the window width used for the tables kept with points on a curve
+     * with the given field size.
+     */
+    static byte getCachedWidth(int fieldSize)
+    {
+        if (fieldSize < 121)
+        {
+            return 4;
+        }
+        if (fieldSize < 337)
+        {
+            return 6;
+        }
+        return 7;
     }
 
+    /**
+     * Return the odd multiples p, 3p, 5p, ..., (2^(width-1) - 1)p in affine
+     * form, using the table kept with p if it has one.
+     */
+    static ECPoint[] getCachedPreComp(ECPoint p, byte width)
+    {
+        int             reqPreCompLen = 1 << (width - 2);
+        WNafPreCompInfo info = (WNafPreCompInfo)p.getPreCompInfo(PRECOMP_NAME);
+        ECPoint[]       preComp;
+
+        if (info != null && info.getPreComp().length >= reqPreCompLen)
+        {
+            return info.getPreComp();
+        }
+
+        preComp = new ECPoint[reqPreCompLen];
+        preComp[0] = p;
+
+        if (reqPreCompLen > 1)
+        {
+            ECPoint twiceP = p.twice();
+
+            if (p instanceof ECPoint.Fp)
+            {
+                FpJacobianPoint[] jPreComp = new FpJacobianPoint[reqPreCompLen - 1];
+                FpJacobianPoint   last = FpJacobianPoint.fromAffine(p);
+
+                for (int i = 0; i < jPreComp.length; i++)
+                {
+                    last = last.addAffine(twiceP);
+                    jPreComp[i] = last;
+                }
+
+                System.arraycopy(FpJacobianPoint.toAffine(jPreComp), 0, preComp, 1, jPreComp.length);
+            }
+            else
+            {
+                for (int i = 1; i < reqPreCompLen; i++)
+                {
+                    preComp[i] = twiceP.add(preComp[i - 1]);
+                }
+            }
+        }
+
+        info = new WNafPreCompInfo();
+        info.setPreComp(preComp);
+        p.setPreCompInfo(PRECOMP_NAME, info);
+
+        return preComp;
+    }
 }
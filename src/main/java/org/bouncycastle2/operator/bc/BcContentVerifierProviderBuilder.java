@@ -23,6 +23,8 @@ public abstract class BcContentVerifierProviderBuilder
     {
         return new ContentVerifierProvider()
         {
+            private AsymmetricKeyParameter publicKey;
+
             public boolean hasAssociatedCertificate()
             {
                 return true;
@@ -36,17 +38,28 @@ public abstract class BcContentVerifierProviderBuilder
             public ContentVerifier get(AlgorithmIdentifier algorithm)
                 throws OperatorCreationException
             {
-                try
-                {
-                    AsymmetricKeyParameter publicKey = extractKeyParameters(certHolder.getSubjectPublicKeyInfo());
-                    BcSignerOutputStream stream = createSignatureStream(algorithm, publicKey);
+                BcSignerOutputStream stream = createSignatureStream(algorithm, getPublicKey());
 
-                    return new SigVerifier(algorithm, stream);
-                }
-                catch (IOException e)
+                return new SigVerifier(algorithm, stream);
+            }
+
+            // the key is only extracted once, however many verifiers are asked for.
+            private synchronized AsymmetricKeyParameter getPublicKey()
+                throws OperatorCreationException
+            {
+                if (publicKey == null)
                 {
-                    throw new OperatorCreationException("exception on setup: " + e, e);
+                    try
+                    {
+                        publicKey = extractKeyParameters(certHolder.getSubjectPublicKeyInfo());
+                    }
+                    catch (IOException e)
+                    {
+                        throw new OperatorCreationException("exception on setup: " + e, e);
+                    }
                 }
+
+                return publicKey;
             }
         };
     }
@@ -0,0 +1,40 @@
+package org.bouncycastle2.operator.bc;
+
+import org.bouncycastle2.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle2.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.Signer;
+import org.bouncycastle2.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle2.crypto.signers.DSADigestSigner;
+import org.bouncycastle2.crypto.signers.DSASigner;
+import org.bouncycastle2.crypto.util.PublicKeyFactory;
+import org.bouncycastle2.operator.DigestAlgorithmIdentifierFinder;
+import org.bouncycastle2.operator.OperatorCreationException;
+
+import java.io.IOException;
+
+public class BcDSAContentVerifierProviderBuilder
+    extends BcContentVerifierProviderBuilder
+{
+    private DigestAlgorithmIdentifierFinder digestAlgorithmFinder;
+
+    public BcDSAContentVerifierProviderBuilder(DigestAlgorithmIdentifierFinder digestAlgorithmFinder)
+    {
+        this.digestAlgorithmFinder = digestAlgorithmFinder;
+    }
+
+    protected Signer createSigner(AlgorithmIdentifier sigAlgId)
+        throws OperatorCreationException
+    {
+        AlgorithmIdentifier digAlg = digestAlgorithmFinder.find(sigAlgId);
+        Digest dig = BcUtil.createDigest(digAlg);
+
+        return new DSADigestSigner(new DSASigner(), dig);
+    }
+
+    protected AsymmetricKeyParameter extractKeyParameters(SubjectPublicKeyInfo publicKeyInfo)
+        throws IOException
+    {
+        return PublicKeyFactory.createKey(publicKeyInfo);
+    }
+}
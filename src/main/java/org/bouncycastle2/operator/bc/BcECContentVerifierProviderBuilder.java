@@ -0,0 +1,40 @@
+package org.bouncycastle2.operator.bc;
+
+import org.bouncycastle2.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle2.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle2.crypto.Digest;
+import org.bouncycastle2.crypto.Signer;
+import org.bouncycastle2.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle2.crypto.signers.DSADigestSigner;
+import org.bouncycastle2.crypto.signers.ECDSASigner;
+import org.bouncycastle2.crypto.util.PublicKeyFactory;
+import org.bouncycastle2.operator.DigestAlgorithmIdentifierFinder;
+import org.bouncycastle2.operator.OperatorCreationException;
+
+import java.io.IOException;
+
+public class BcECContentVerifierProviderBuilder
+    extends BcContentVerifierProviderBuilder
+{
+    private DigestAlgorithmIdentifierFinder digestAlgorithmFinder;
+
+    public BcECContentVerifierProviderBuilder(DigestAlgorithmIdentifierFinder digestAlgorithmFinder)
+    {
+        this.digestAlgorithmFinder = digestAlgorithmFinder;
+    }
+
+    protected Signer createSigner(AlgorithmIdentifier sigAlgId)
+        throws OperatorCreationException
+    {
+        AlgorithmIdentifier digAlg = digestAlgorithmFinder.find(sigAlgId);
+        Digest dig = BcUtil.createDigest(digAlg);
+
+        return new DSADigestSigner(new ECDSASigner(), dig);
+    }
+
+    protected AsymmetricKeyParameter extractKeyParameters(SubjectPublicKeyInfo publicKeyInfo)
+        throws IOException
+    {
+        return PublicKeyFactory.createKey(publicKeyInfo);
+    }
+}
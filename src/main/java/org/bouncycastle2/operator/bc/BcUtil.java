@@ -33,7 +33,7 @@ class BcUtil
         }
         else if (digAlg.getAlgorithm().equals(NISTObjectIdentifiers.id_sha512))
         {
-            dig = new SHA384Digest();
+            dig = new SHA512Digest();
         }
         else if (digAlg.getAlgorithm().equals(PKCSObjectIdentifiers.md5))
         {
@@ -0,0 +1,23 @@
+package org.bouncycastle2.util;
+
+/**
+ * Interface for objects whose internal state can be saved and later restored, such as
+ * a digest part way through a calculation.
+ */
+public interface Memoable
+{
+    /**
+     * Produce a copy of this object with its current state.
+     *
+     * @return a new object of the same type holding a copy of this object's state.
+     */
+    Memoable copy();
+
+    /**
+     * Restore this object to the state held by other, which must be of the same type and
+     * usually comes from an earlier call to copy().
+     *
+     * @param other the object to take the state from.
+     */
+    void reset(Memoable other);
+}
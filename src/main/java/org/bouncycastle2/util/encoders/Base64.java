@@ -1,6 +1,5 @@
 package org.bouncycastle2.util.encoders;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -16,19 +15,7 @@ public class Base64
     public static byte[] encode(
         byte[]    data)
     {
-        int len = (data.length + 2) / 3 * 4;
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream(len);
-        
-        try
-        {
-            encoder.encode(data, 0, data.length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception encoding base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.STANDARD.encode(data);
     }
 
     /**
@@ -67,19 +54,7 @@ public class Base64
     public static byte[] decode(
         byte[]    data)
     {
-        int len = data.length / 4 * 3;
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream(len);
-        
-        try
-        {
-            encoder.decode(data, 0, data.length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.STANDARD.decode(data);
     }
     
     /**
@@ -90,19 +65,7 @@ public class Base64
     public static byte[] decode(
         String    data)
     {
-        int len = data.length() / 4 * 3;
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream(len);
-        
-        try
-        {
-            encoder.decode(data, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.STANDARD.decode(data);
     }
     
     /**
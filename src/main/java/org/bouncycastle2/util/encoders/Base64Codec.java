@@ -0,0 +1,678 @@
+package org.bouncycastle2.util.encoders;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base 64 encoding and decoding between byte arrays, char arrays and ByteBuffers.
+ * <p>
+ * Unlike Base64Encoder, which writes a byte at a time to an OutputStream, the codec writes
+ * straight into the caller's output, three input bytes to four characters at a time. The
+ * exact size of the output can be found beforehand with {@link #getEncodedLength(int)} and
+ * {@link #getDecodedLength(byte[], int, int)}, so the convenience methods returning arrays
+ * never need to copy their result.
+ * <p>
+ * When decoding, whitespace (space, tab, CR and LF) is ignored. Any other character outside
+ * the alphabet, misplaced padding or a truncated final block results in an
+ * IllegalArgumentException.
+ */
+public class Base64Codec
+{
+    /**
+     * The standard alphabet, using '+', '/' and '=' padding.
+     */
+    public static final Base64Codec STANDARD = new Base64Codec('+', '/', '=');
+
+    /**
+     * The URL safe alphabet used by UrlBase64, using '-', '_' and '.' padding.
+     */
+    public static final Base64Codec URL_SAFE = new Base64Codec('-', '_', '.');
+
+    private static final int INVALID = -1;
+    private static final int WHITESPACE = -2;
+    private static final int PADDING = -3;
+
+    private static final int CHUNK_SIZE = 3 * 256;
+
+    private final byte[] encodingTable = new byte[64];
+    private final byte[] decodingTable = new byte[256];
+    private final byte   padding;
+
+    private Base64Codec(
+        char char62,
+        char char63,
+        char padding)
+    {
+        for (int i = 0; i != 26; i++)
+        {
+            encodingTable[i] = (byte)('A' + i);
+            encodingTable[i + 26] = (byte)('a' + i);
+        }
+
+        for (int i = 0; i != 10; i++)
+        {
+            encodingTable[i + 52] = (byte)('0' + i);
+        }
+
+        encodingTable[62] = (byte)char62;
+        encodingTable[63] = (byte)char63;
+
+        this.padding = (byte)padding;
+
+        for (int i = 0; i != decodingTable.length; i++)
+        {
+            decodingTable[i] = INVALID;
+        }
+
+        for (int i = 0; i != encodingTable.length; i++)
+        {
+            decodingTable[encodingTable[i]] = (byte)i;
+        }
+
+        decodingTable[' '] = WHITESPACE;
+        decodingTable['\t'] = WHITESPACE;
+        decodingTable['\r'] = WHITESPACE;
+        decodingTable['\n'] = WHITESPACE;
+        decodingTable[padding] = PADDING;
+    }
+
+    /**
+     * Return the length of the encoding of length bytes of data.
+     */
+    public int getEncodedLength(
+        int length)
+    {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * Encode the passed in data.
+     *
+     * @return a byte array containing the encoded data.
+     */
+    public byte[] encode(
+        byte[] data)
+    {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * Encode length bytes of data starting at off.
+     *
+     * @return a byte array containing the encoded data.
+     */
+    public byte[] encode(
+        byte[] data,
+        int    off,
+        int    length)
+    {
+        byte[] out = new byte[getEncodedLength(length)];
+
+        encode(data, off, length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Encode the passed in data.
+     *
+     * @return a String containing the encoded data.
+     */
+    public String encodeToString(
+        byte[] data)
+    {
+        char[] out = new char[getEncodedLength(data.length)];
+
+        encode(data, 0, data.length, out, 0);
+
+        return new String(out);
+    }
+
+    /**
+     * Encode inLen bytes of data starting at inOff into out starting at outOff, which must
+     * have room for getEncodedLength(inLen) bytes.
+     *
+     * @return the number of bytes written.
+     */
+    public int encode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        byte[] table = encodingTable;
+        int    end = inOff + inLen - inLen % 3;
+        int    o = outOff;
+
+        for (int i = inOff; i != end; i += 3)
+        {
+            int w = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8 | (in[i + 2] & 0xff);
+
+            out[o] = table[w >>> 18];
+            out[o + 1] = table[(w >>> 12) & 0x3f];
+            out[o + 2] = table[(w >>> 6) & 0x3f];
+            out[o + 3] = table[w & 0x3f];
+
+            o += 4;
+        }
+
+        switch (inLen % 3)
+        {
+        case 1:
+        {
+            int w = (in[end] & 0xff) << 16;
+
+            out[o] = table[w >>> 18];
+            out[o + 1] = table[(w >>> 12) & 0x3f];
+            out[o + 2] = padding;
+            out[o + 3] = padding;
+
+            o += 4;
+            break;
+        }
+        case 2:
+        {
+            int w = (in[end] & 0xff) << 16 | (in[end + 1] & 0xff) << 8;
+
+            out[o] = table[w >>> 18];
+            out[o + 1] = table[(w >>> 12) & 0x3f];
+            out[o + 2] = table[(w >>> 6) & 0x3f];
+            out[o + 3] = padding;
+
+            o += 4;
+            break;
+        }
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Encode inLen bytes of data starting at inOff into out starting at outOff, which must
+     * have room for getEncodedLength(inLen) characters.
+     *
+     * @return the number of characters written.
+     */
+    public int encode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        char[] out,
+        int    outOff)
+    {
+        byte[] table = encodingTable;
+        int    end = inOff + inLen - inLen % 3;
+        int    o = outOff;
+
+        for (int i = inOff; i != end; i += 3)
+        {
+            int w = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8 | (in[i + 2] & 0xff);
+
+            out[o] = (char)table[w >>> 18];
+            out[o + 1] = (char)table[(w >>> 12) & 0x3f];
+            out[o + 2] = (char)table[(w >>> 6) & 0x3f];
+            out[o + 3] = (char)table[w & 0x3f];
+
+            o += 4;
+        }
+
+        switch (inLen % 3)
+        {
+        case 1:
+        {
+            int w = (in[end] & 0xff) << 16;
+
+            out[o] = (char)table[w >>> 18];
+            out[o + 1] = (char)table[(w >>> 12) & 0x3f];
+            out[o + 2] = (char)padding;
+            out[o + 3] = (char)padding;
+
+            o += 4;
+            break;
+        }
+        case 2:
+        {
+            int w = (in[end] & 0xff) << 16 | (in[end + 1] & 0xff) << 8;
+
+            out[o] = (char)table[w >>> 18];
+            out[o + 1] = (char)table[(w >>> 12) & 0x3f];
+            out[o + 2] = (char)table[(w >>> 6) & 0x3f];
+            out[o + 3] = (char)padding;
+
+            o += 4;
+            break;
+        }
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Encode the remaining bytes of in into out, which must have room for
+     * getEncodedLength(in.remaining()) bytes. Both buffers' positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public int encode(
+        ByteBuffer in,
+        ByteBuffer out)
+    {
+        int inLen = in.remaining();
+        int outLen = getEncodedLength(inLen);
+
+        if (out.remaining() < outLen)
+        {
+            throw new IllegalArgumentException("output buffer too short");
+        }
+
+        if (in.hasArray() && out.hasArray())
+        {
+            encode(in.array(), in.arrayOffset() + in.position(), inLen, out.array(), out.arrayOffset() + out.position());
+
+            in.position(in.position() + inLen);
+            out.position(out.position() + outLen);
+
+            return outLen;
+        }
+
+        byte[] inBuf = new byte[Math.min(inLen, CHUNK_SIZE)];
+        byte[] outBuf = new byte[getEncodedLength(inBuf.length)];
+
+        while (in.hasRemaining())
+        {
+            int len = Math.min(in.remaining(), inBuf.length);
+
+            in.get(inBuf, 0, len);
+            out.put(outBuf, 0, encode(inBuf, 0, len, outBuf, 0));
+        }
+
+        return outLen;
+    }
+
+    /**
+     * Return the number of bytes the encoded data in in will decode to.
+     *
+     * @return the exact decoded length if the data is valid.
+     */
+    public int getDecodedLength(
+        byte[] in,
+        int    off,
+        int    length)
+    {
+        int count = 0;
+        int pad = 0;
+
+        for (int i = off; i != off + length; i++)
+        {
+            int b = decodingTable[in[i] & 0xff];
+
+            if (b != WHITESPACE)
+            {
+                count++;
+                pad = (b == PADDING) ? pad + 1 : 0;
+            }
+        }
+
+        return decodedLength(count, pad);
+    }
+
+    /**
+     * Return the number of bytes the encoded data in in will decode to.
+     *
+     * @return the exact decoded length if the data is valid.
+     */
+    public int getDecodedLength(
+        char[] in,
+        int    off,
+        int    length)
+    {
+        int count = 0;
+        int pad = 0;
+
+        for (int i = off; i != off + length; i++)
+        {
+            int b = lookUp(in[i]);
+
+            if (b != WHITESPACE)
+            {
+                count++;
+                pad = (b == PADDING) ? pad + 1 : 0;
+            }
+        }
+
+        return decodedLength(count, pad);
+    }
+
+    private static int decodedLength(
+        int count,
+        int pad)
+    {
+        return (count + 3) / 4 * 3 - Math.min(pad, 2);
+    }
+
+    /**
+     * Decode the passed in data, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        byte[] data)
+    {
+        return decode(data, 0, data.length);
+    }
+
+    /**
+     * Decode length bytes of encoded data starting at off, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        byte[] data,
+        int    off,
+        int    length)
+    {
+        byte[] out = new byte[getDecodedLength(data, off, length)];
+
+        decode(data, off, length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Decode the passed in String, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        String data)
+    {
+        char[] chars = data.toCharArray();
+        byte[] out = new byte[getDecodedLength(chars, 0, chars.length)];
+
+        decode(chars, 0, chars.length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Decode inLen bytes of encoded data starting at inOff into out starting at outOff, which
+     * must have room for the decoded data.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        byte[] table = decodingTable;
+        int    end = inOff + inLen;
+        int    i = inOff;
+        int    o = outOff;
+        int    bits = 0;
+        int    count = 0;
+        int    pad = 0;
+
+        for (;;)
+        {
+            if (count == 0 && pad == 0)
+            {
+                // whole blocks - all four characters checked with one test.
+                while (end - i >= 4)
+                {
+                    int b1 = table[in[i] & 0xff];
+                    int b2 = table[in[i + 1] & 0xff];
+                    int b3 = table[in[i + 2] & 0xff];
+                    int b4 = table[in[i + 3] & 0xff];
+
+                    if ((b1 | b2 | b3 | b4) < 0)
+                    {
+                        break;
+                    }
+
+                    int w = b1 << 18 | b2 << 12 | b3 << 6 | b4;
+
+                    out[o] = (byte)(w >> 16);
+                    out[o + 1] = (byte)(w >> 8);
+                    out[o + 2] = (byte)w;
+
+                    o += 3;
+                    i += 4;
+                }
+            }
+
+            if (i == end)
+            {
+                break;
+            }
+
+            int b = table[in[i++] & 0xff];
+
+            if (b >= 0)
+            {
+                if (pad != 0)
+                {
+                    throw new IllegalArgumentException("base64 data found after padding");
+                }
+
+                bits = (bits << 6) | b;
+
+                if (++count == 4)
+                {
+                    out[o] = (byte)(bits >> 16);
+                    out[o + 1] = (byte)(bits >> 8);
+                    out[o + 2] = (byte)bits;
+
+                    o += 3;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            else if (b == PADDING)
+            {
+                pad = addPadding(count, pad);
+            }
+            else if (b == INVALID)
+            {
+                throw new IllegalArgumentException("invalid character in base64 data: 0x" + Integer.toHexString(in[i - 1] & 0xff));
+            }
+        }
+
+        return o - outOff + finish(bits, count, pad, out, o);
+    }
+
+    /**
+     * Decode inLen characters of encoded data starting at inOff into out starting at outOff,
+     * which must have room for the decoded data.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        char[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        int end = inOff + inLen;
+        int i = inOff;
+        int o = outOff;
+        int bits = 0;
+        int count = 0;
+        int pad = 0;
+
+        for (;;)
+        {
+            if (count == 0 && pad == 0)
+            {
+                // whole blocks - all four characters checked with one test.
+                while (end - i >= 4)
+                {
+                    int b1 = lookUp(in[i]);
+                    int b2 = lookUp(in[i + 1]);
+                    int b3 = lookUp(in[i + 2]);
+                    int b4 = lookUp(in[i + 3]);
+
+                    if ((b1 | b2 | b3 | b4) < 0)
+                    {
+                        break;
+                    }
+
+                    int w = b1 << 18 | b2 << 12 | b3 << 6 | b4;
+
+                    out[o] = (byte)(w >> 16);
+                    out[o + 1] = (byte)(w >> 8);
+                    out[o + 2] = (byte)w;
+
+                    o += 3;
+                    i += 4;
+                }
+            }
+
+            if (i == end)
+            {
+                break;
+            }
+
+            int b = lookUp(in[i++]);
+
+            if (b >= 0)
+            {
+                if (pad != 0)
+                {
+                    throw new IllegalArgumentException("base64 data found after padding");
+                }
+
+                bits = (bits << 6) | b;
+
+                if (++count == 4)
+                {
+                    out[o] = (byte)(bits >> 16);
+                    out[o + 1] = (byte)(bits >> 8);
+                    out[o + 2] = (byte)bits;
+
+                    o += 3;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            else if (b == PADDING)
+            {
+                pad = addPadding(count, pad);
+            }
+            else if (b == INVALID)
+            {
+                throw new IllegalArgumentException("invalid character in base64 data: 0x" + Integer.toHexString(in[i - 1]));
+            }
+        }
+
+        return o - outOff + finish(bits, count, pad, out, o);
+    }
+
+    /**
+     * Decode the remaining encoded data in in into out, which must have room for the decoded
+     * data. Both buffers' positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        ByteBuffer in,
+        ByteBuffer out)
+    {
+        byte[] data;
+        int    off;
+        int    length = in.remaining();
+
+        if (in.hasArray())
+        {
+            data = in.array();
+            off = in.arrayOffset() + in.position();
+        }
+        else
+        {
+            data = new byte[length];
+            off = 0;
+
+            in.duplicate().get(data);
+        }
+
+        int outLen = getDecodedLength(data, off, length);
+
+        if (out.remaining() < outLen)
+        {
+            throw new IllegalArgumentException("output buffer too short");
+        }
+
+        if (out.hasArray())
+        {
+            decode(data, off, length, out.array(), out.arrayOffset() + out.position());
+
+            out.position(out.position() + outLen);
+        }
+        else
+        {
+            byte[] outBuf = new byte[outLen];
+
+            decode(data, off, length, outBuf, 0);
+
+            out.put(outBuf);
+        }
+
+        in.position(in.position() + length);
+
+        return outLen;
+    }
+
+    private int lookUp(
+        char c)
+    {
+        return (c < 256) ? decodingTable[c] : INVALID;
+    }
+
+    private static int addPadding(
+        int count,
+        int pad)
+    {
+        if (count < 2 || count + pad >= 4)
+        {
+            throw new IllegalArgumentException("invalid padding in base64 data");
+        }
+
+        return pad + 1;
+    }
+
+    /**
+     * Write out the last, padded, block.
+     */
+    private static int finish(
+        int    bits,
+        int    count,
+        int    pad,
+        byte[] out,
+        int    o)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        if (count + pad != 4)
+        {
+            throw new IllegalArgumentException("base64 data truncated");
+        }
+
+        if (count == 2)
+        {
+            out[o] = (byte)(bits >> 4);
+
+            return 1;
+        }
+
+        out[o] = (byte)(bits >> 10);
+        out[o + 1] = (byte)(bits >> 2);
+
+        return 2;
+    }
+}
@@ -57,19 +57,31 @@ public class Base64Encoder
         int modulus = length % 3;
         int dataLength = (length - modulus);
         int a1, a2, a3;
-        
+        byte[] buf = new byte[Math.min(dataLength / 3 * 4, 1024)];
+        int bufOff = 0;
+
         for (int i = off; i < off + dataLength; i += 3)
         {
             a1 = data[i] & 0xff;
             a2 = data[i + 1] & 0xff;
             a3 = data[i + 2] & 0xff;
 
-            out.write(encodingTable[(a1 >>> 2) & 0x3f]);
-            out.write(encodingTable[((a1 << 4) | (a2 >>> 4)) & 0x3f]);
-            out.write(encodingTable[((a2 << 2) | (a3 >>> 6)) & 0x3f]);
-            out.write(encodingTable[a3 & 0x3f]);
+            buf[bufOff] = encodingTable[(a1 >>> 2) & 0x3f];
+            buf[bufOff + 1] = encodingTable[((a1 << 4) | (a2 >>> 4)) & 0x3f];
+            buf[bufOff + 2] = encodingTable[((a2 << 2) | (a3 >>> 6)) & 0x3f];
+            buf[bufOff + 3] = encodingTable[a3 & 0x3f];
+
+            bufOff += 4;
+
+            if (bufOff == buf.length)
+            {
+                out.write(buf, 0, bufOff);
+                bufOff = 0;
+            }
         }
 
+        out.write(buf, 0, bufOff);
+
         /*
          * process the tail end.
          */
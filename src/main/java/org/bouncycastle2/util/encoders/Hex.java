@@ -1,6 +1,5 @@
 package org.bouncycastle2.util.encoders;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -29,18 +28,7 @@ public class Hex
         int       off,
         int       length)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.encode(data, off, length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception encoding Hex string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return HexCodec.INSTANCE.encode(data, off, length);
     }
 
     /**
@@ -79,18 +67,7 @@ public class Hex
     public static byte[] decode(
         byte[]    data)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.decode(data, 0, data.length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding Hex string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return HexCodec.INSTANCE.decode(data);
     }
     
     /**
@@ -101,18 +78,7 @@ public class Hex
     public static byte[] decode(
         String    data)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.decode(data, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding Hex string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return HexCodec.INSTANCE.decode(data);
     }
     
     /**
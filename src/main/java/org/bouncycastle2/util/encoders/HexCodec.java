@@ -0,0 +1,502 @@
+package org.bouncycastle2.util.encoders;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hex encoding and decoding between byte arrays, char arrays and ByteBuffers.
+ * <p>
+ * Like Base64Codec the output is written straight into the caller's arrays or buffers, and
+ * its exact size is known beforehand. Encoding produces lower case digits. When decoding,
+ * upper and lower case digits are accepted and whitespace (space, tab, CR and LF) is ignored.
+ * Any other character, or an odd number of digits, results in an IllegalArgumentException.
+ */
+public class HexCodec
+{
+    /**
+     * The codec instance - the codec holds no state so may be shared.
+     */
+    public static final HexCodec INSTANCE = new HexCodec();
+
+    private static final int INVALID = -1;
+    private static final int WHITESPACE = -2;
+
+    private static final int CHUNK_SIZE = 512;
+
+    private static final byte[] encodingTable =
+        {
+            (byte)'0', (byte)'1', (byte)'2', (byte)'3', (byte)'4', (byte)'5', (byte)'6', (byte)'7',
+            (byte)'8', (byte)'9', (byte)'a', (byte)'b', (byte)'c', (byte)'d', (byte)'e', (byte)'f'
+        };
+
+    private static final byte[] decodingTable = new byte[256];
+
+    static
+    {
+        for (int i = 0; i != decodingTable.length; i++)
+        {
+            decodingTable[i] = INVALID;
+        }
+
+        for (int i = 0; i != 10; i++)
+        {
+            decodingTable['0' + i] = (byte)i;
+        }
+
+        for (int i = 0; i != 6; i++)
+        {
+            decodingTable['a' + i] = (byte)(10 + i);
+            decodingTable['A' + i] = (byte)(10 + i);
+        }
+
+        decodingTable[' '] = WHITESPACE;
+        decodingTable['\t'] = WHITESPACE;
+        decodingTable['\r'] = WHITESPACE;
+        decodingTable['\n'] = WHITESPACE;
+    }
+
+    private HexCodec()
+    {
+    }
+
+    /**
+     * Return the length of the encoding of length bytes of data.
+     */
+    public int getEncodedLength(
+        int length)
+    {
+        return length * 2;
+    }
+
+    /**
+     * Encode the passed in data.
+     *
+     * @return a byte array containing the encoded data.
+     */
+    public byte[] encode(
+        byte[] data)
+    {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * Encode length bytes of data starting at off.
+     *
+     * @return a byte array containing the encoded data.
+     */
+    public byte[] encode(
+        byte[] data,
+        int    off,
+        int    length)
+    {
+        byte[] out = new byte[getEncodedLength(length)];
+
+        encode(data, off, length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Encode the passed in data.
+     *
+     * @return a String containing the encoded data.
+     */
+    public String encodeToString(
+        byte[] data)
+    {
+        char[] out = new char[getEncodedLength(data.length)];
+
+        encode(data, 0, data.length, out, 0);
+
+        return new String(out);
+    }
+
+    /**
+     * Encode inLen bytes of data starting at inOff into out starting at outOff, which must
+     * have room for getEncodedLength(inLen) bytes.
+     *
+     * @return the number of bytes written.
+     */
+    public int encode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        int o = outOff;
+
+        for (int i = inOff; i != inOff + inLen; i++)
+        {
+            int v = in[i] & 0xff;
+
+            out[o] = encodingTable[v >>> 4];
+            out[o + 1] = encodingTable[v & 0xf];
+
+            o += 2;
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Encode inLen bytes of data starting at inOff into out starting at outOff, which must
+     * have room for getEncodedLength(inLen) characters.
+     *
+     * @return the number of characters written.
+     */
+    public int encode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        char[] out,
+        int    outOff)
+    {
+        int o = outOff;
+
+        for (int i = inOff; i != inOff + inLen; i++)
+        {
+            int v = in[i] & 0xff;
+
+            out[o] = (char)encodingTable[v >>> 4];
+            out[o + 1] = (char)encodingTable[v & 0xf];
+
+            o += 2;
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Encode the remaining bytes of in into out, which must have room for
+     * getEncodedLength(in.remaining()) bytes. Both buffers' positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public int encode(
+        ByteBuffer in,
+        ByteBuffer out)
+    {
+        int inLen = in.remaining();
+        int outLen = getEncodedLength(inLen);
+
+        if (out.remaining() < outLen)
+        {
+            throw new IllegalArgumentException("output buffer too short");
+        }
+
+        if (in.hasArray() && out.hasArray())
+        {
+            encode(in.array(), in.arrayOffset() + in.position(), inLen, out.array(), out.arrayOffset() + out.position());
+
+            in.position(in.position() + inLen);
+            out.position(out.position() + outLen);
+
+            return outLen;
+        }
+
+        byte[] inBuf = new byte[Math.min(inLen, CHUNK_SIZE)];
+        byte[] outBuf = new byte[getEncodedLength(inBuf.length)];
+
+        while (in.hasRemaining())
+        {
+            int len = Math.min(in.remaining(), inBuf.length);
+
+            in.get(inBuf, 0, len);
+            out.put(outBuf, 0, encode(inBuf, 0, len, outBuf, 0));
+        }
+
+        return outLen;
+    }
+
+    /**
+     * Return the number of bytes the encoded data in in will decode to.
+     *
+     * @return the exact decoded length if the data is valid.
+     */
+    public int getDecodedLength(
+        byte[] in,
+        int    off,
+        int    length)
+    {
+        int count = 0;
+
+        for (int i = off; i != off + length; i++)
+        {
+            if (decodingTable[in[i] & 0xff] != WHITESPACE)
+            {
+                count++;
+            }
+        }
+
+        return count / 2;
+    }
+
+    /**
+     * Return the number of bytes the encoded data in in will decode to.
+     *
+     * @return the exact decoded length if the data is valid.
+     */
+    public int getDecodedLength(
+        char[] in,
+        int    off,
+        int    length)
+    {
+        int count = 0;
+
+        for (int i = off; i != off + length; i++)
+        {
+            if (lookUp(in[i]) != WHITESPACE)
+            {
+                count++;
+            }
+        }
+
+        return count / 2;
+    }
+
+    /**
+     * Decode the passed in data, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        byte[] data)
+    {
+        return decode(data, 0, data.length);
+    }
+
+    /**
+     * Decode length bytes of encoded data starting at off, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        byte[] data,
+        int    off,
+        int    length)
+    {
+        byte[] out = new byte[getDecodedLength(data, off, length)];
+
+        decode(data, off, length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Decode the passed in String, whitespace is ignored.
+     *
+     * @return a byte array containing the decoded data.
+     */
+    public byte[] decode(
+        String data)
+    {
+        char[] chars = data.toCharArray();
+        byte[] out = new byte[getDecodedLength(chars, 0, chars.length)];
+
+        decode(chars, 0, chars.length, out, 0);
+
+        return out;
+    }
+
+    /**
+     * Decode inLen bytes of encoded data starting at inOff into out starting at outOff, which
+     * must have room for the decoded data.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        byte[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        int end = inOff + inLen;
+        int i = inOff;
+        int o = outOff;
+        int high = -1;
+
+        while (i != end)
+        {
+            if (high < 0)
+            {
+                // whole pairs - both digits checked with one test.
+                while (end - i >= 2)
+                {
+                    int b1 = decodingTable[in[i] & 0xff];
+                    int b2 = decodingTable[in[i + 1] & 0xff];
+
+                    if ((b1 | b2) < 0)
+                    {
+                        break;
+                    }
+
+                    out[o++] = (byte)(b1 << 4 | b2);
+                    i += 2;
+                }
+
+                if (i == end)
+                {
+                    break;
+                }
+            }
+
+            int b = decodingTable[in[i++] & 0xff];
+
+            if (b >= 0)
+            {
+                if (high < 0)
+                {
+                    high = b;
+                }
+                else
+                {
+                    out[o++] = (byte)(high << 4 | b);
+                    high = -1;
+                }
+            }
+            else if (b == INVALID)
+            {
+                throw new IllegalArgumentException("invalid character in hex data: 0x" + Integer.toHexString(in[i - 1] & 0xff));
+            }
+        }
+
+        if (high >= 0)
+        {
+            throw new IllegalArgumentException("odd number of digits in hex data");
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Decode inLen characters of encoded data starting at inOff into out starting at outOff,
+     * which must have room for the decoded data.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        char[] in,
+        int    inOff,
+        int    inLen,
+        byte[] out,
+        int    outOff)
+    {
+        int end = inOff + inLen;
+        int i = inOff;
+        int o = outOff;
+        int high = -1;
+
+        while (i != end)
+        {
+            if (high < 0)
+            {
+                // whole pairs - both digits checked with one test.
+                while (end - i >= 2)
+                {
+                    int b1 = lookUp(in[i]);
+                    int b2 = lookUp(in[i + 1]);
+
+                    if ((b1 | b2) < 0)
+                    {
+                        break;
+                    }
+
+                    out[o++] = (byte)(b1 << 4 | b2);
+                    i += 2;
+                }
+
+                if (i == end)
+                {
+                    break;
+                }
+            }
+
+            int b = lookUp(in[i++]);
+
+            if (b >= 0)
+            {
+                if (high < 0)
+                {
+                    high = b;
+                }
+                else
+                {
+                    out[o++] = (byte)(high << 4 | b);
+                    high = -1;
+                }
+            }
+            else if (b == INVALID)
+            {
+                throw new IllegalArgumentException("invalid character in hex data: 0x" + Integer.toHexString(in[i - 1]));
+            }
+        }
+
+        if (high >= 0)
+        {
+            throw new IllegalArgumentException("odd number of digits in hex data");
+        }
+
+        return o - outOff;
+    }
+
+    /**
+     * Decode the remaining encoded data in in into out, which must have room for the decoded
+     * data. Both buffers' positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public int decode(
+        ByteBuffer in,
+        ByteBuffer out)
+    {
+        byte[] data;
+        int    off;
+        int    length = in.remaining();
+
+        if (in.hasArray())
+        {
+            data = in.array();
+            off = in.arrayOffset() + in.position();
+        }
+        else
+        {
+            data = new byte[length];
+            off = 0;
+
+            in.duplicate().get(data);
+        }
+
+        int outLen = getDecodedLength(data, off, length);
+
+        if (out.remaining() < outLen)
+        {
+            throw new IllegalArgumentException("output buffer too short");
+        }
+
+        if (out.hasArray())
+        {
+            decode(data, off, length, out.array(), out.arrayOffset() + out.position());
+
+            out.position(out.position() + outLen);
+        }
+        else
+        {
+            byte[] outBuf = new byte[outLen];
+
+            decode(data, off, length, outBuf, 0);
+
+            out.put(outBuf);
+        }
+
+        in.position(in.position() + length);
+
+        return outLen;
+    }
+
+    private static int lookUp(
+        char c)
+    {
+        return (c < 256) ? decodingTable[c] : INVALID;
+    }
+}
@@ -49,14 +49,27 @@ public class HexEncoder
         OutputStream    out) 
         throws IOException
     {        
+        byte[] buf = new byte[Math.min(length * 2, 1024)];
+        int    bufOff = 0;
+
         for (int i = off; i < (off + length); i++)
         {
             int    v = data[i] & 0xff;
 
-            out.write(encodingTable[(v >>> 4)]);
-            out.write(encodingTable[v & 0xf]);
+            buf[bufOff] = encodingTable[(v >>> 4)];
+            buf[bufOff + 1] = encodingTable[v & 0xf];
+
+            bufOff += 2;
+
+            if (bufOff == buf.length)
+            {
+                out.write(buf, 0, bufOff);
+                bufOff = 0;
+            }
         }
 
+        out.write(buf, 0, bufOff);
+
         return length * 2;
     }
 
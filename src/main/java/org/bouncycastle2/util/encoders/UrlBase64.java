@@ -1,6 +1,5 @@
 package org.bouncycastle2.util.encoders;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -28,18 +27,7 @@ public class UrlBase64
     public static byte[] encode(
         byte[]    data)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.encode(data, 0, data.length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception encoding URL safe base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.URL_SAFE.encode(data);
     }
 
     /**
@@ -63,18 +51,7 @@ public class UrlBase64
     public static byte[] decode(
         byte[]    data)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.decode(data, 0, data.length, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding URL safe base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.URL_SAFE.decode(data);
     }
     
     /**
@@ -99,18 +76,7 @@ public class UrlBase64
     public static byte[] decode(
         String    data)
     {
-        ByteArrayOutputStream    bOut = new ByteArrayOutputStream();
-        
-        try
-        {
-            encoder.decode(data, bOut);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("exception decoding URL safe base64 string: " + e);
-        }
-        
-        return bOut.toByteArray();
+        return Base64Codec.URL_SAFE.decode(data);
     }
     
     /**
@@ -0,0 +1,197 @@
+package org.bouncycastle2.util.io.pem;
+
+import java.io.IOException;
+
+/**
+ * Incremental base64 decoder for the body of a PEM object. Characters can be passed in
+ * in pieces of any size - a line, part of a line or several lines at a time - and are decoded
+ * straight into a buffer that is kept for the next object.
+ */
+class PemBase64Decoder
+{
+    private static final byte[] decodingTable = new byte[128];
+
+    static
+    {
+        for (int i = 0; i != decodingTable.length; i++)
+        {
+            decodingTable[i] = -1;
+        }
+
+        for (int i = 'A'; i <= 'Z'; i++)
+        {
+            decodingTable[i] = (byte)(i - 'A');
+        }
+
+        for (int i = 'a'; i <= 'z'; i++)
+        {
+            decodingTable[i] = (byte)(i - 'a' + 26);
+        }
+
+        for (int i = '0'; i <= '9'; i++)
+        {
+            decodingTable[i] = (byte)(i - '0' + 52);
+        }
+
+        decodingTable['+'] = 62;
+        decodingTable['/'] = 63;
+    }
+
+    private final int maxLength;
+
+    private byte[] buf;
+    private int    length;
+    private int    bits;
+    private int    count;
+    private int    padding;
+
+    PemBase64Decoder(
+        int maxLength)
+    {
+        this.maxLength = maxLength;
+        this.buf = new byte[Math.min(1024, maxLength)];
+    }
+
+    /**
+     * Start a new object, the buffer is kept.
+     */
+    void reset()
+    {
+        length = 0;
+        bits = 0;
+        count = 0;
+        padding = 0;
+    }
+
+    void decode(
+        String data)
+        throws IOException
+    {
+        for (int i = 0; i != data.length(); i++)
+        {
+            decode(data.charAt(i));
+        }
+    }
+
+    void decode(
+        char[] data,
+        int    off,
+        int    len)
+        throws IOException
+    {
+        for (int i = off; i != off + len; i++)
+        {
+            decode(data[i]);
+        }
+    }
+
+    private void decode(
+        char c)
+        throws IOException
+    {
+        if (c == ' ' || c == '\t')
+        {
+            return;
+        }
+
+        if (c == '=')
+        {
+            if (count < 2 || count + padding == 4)
+            {
+                throw new IOException("invalid padding in base64 data");
+            }
+
+            padding++;
+
+            if (count + padding == 4)
+            {
+                if (count == 2)
+                {
+                    append((byte)(bits >> 4));
+                }
+                else
+                {
+                    append((byte)(bits >> 10));
+                    append((byte)(bits >> 2));
+                }
+            }
+
+            return;
+        }
+
+        int b = (c < 128) ? decodingTable[c] : -1;
+
+        if (b < 0)
+        {
+            throw new IOException("invalid character in base64 data: 0x" + Integer.toHexString(c));
+        }
+        if (padding != 0)
+        {
+            throw new IOException("base64 data found after padding");
+        }
+
+        bits = (bits << 6) | b;
+
+        if (++count == 4)
+        {
+            append((byte)(bits >> 16));
+            append((byte)(bits >> 8));
+            append((byte)bits);
+
+            bits = 0;
+            count = 0;
+        }
+    }
+
+    private void append(
+        byte b)
+        throws IOException
+    {
+        if (length == buf.length)
+        {
+            if (length >= maxLength)
+            {
+                throw new IOException("PEM object content exceeds " + maxLength + " bytes");
+            }
+
+            byte[] tmp = new byte[(int)Math.min((long)length * 2, maxLength)];
+
+            System.arraycopy(buf, 0, tmp, 0, length);
+
+            buf = tmp;
+        }
+
+        buf[length++] = b;
+    }
+
+    /**
+     * Check all the data passed in has been decoded.
+     */
+    void finish()
+        throws IOException
+    {
+        if (count != 0 && count + padding != 4)
+        {
+            throw new IOException("base64 data truncated");
+        }
+    }
+
+    byte[] getBuffer()
+    {
+        return buf;
+    }
+
+    int getLength()
+    {
+        return length;
+    }
+
+    byte[] toByteArray()
+    {
+        byte[] data = new byte[length];
+
+        System.arraycopy(buf, 0, data, 0, length);
+
+        return data;
+    }
+}
@@ -0,0 +1,534 @@
+package org.bouncycastle2.util.io.pem;
+
+import org.bouncycastle2.asn1.ASN1BufferParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A streaming decoder for files made up of any number of PEM objects, such as CA bundles
+ * and key dumps.
+ * <p>
+ * Each call to {@link #next()} moves to the next object. Text outside of the BEGIN and END
+ * lines is skipped. The base64 body is decoded as it is read, straight into a buffer that is
+ * reused for every object, so apart from the type and any headers nothing is allocated per
+ * object and memory use is bounded by the largest object in the input. The content can be
+ * read as a view of that buffer, handed to an {@link ASN1BufferParser} without copying, or
+ * copied out as a PemObject.
+ * <p>
+ * Input can come from a Reader, or from a ReadableByteChannel in which case the bytes are
+ * taken to be ASCII. Channels must be in blocking mode.
+ */
+public class PemDecoder
+{
+    private static final String BEGIN = "-----BEGIN ";
+    private static final String END = "-----END ";
+
+    private static final int LINE_LIMIT = 256;
+
+    private final Reader              reader;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer          bytes;
+    private final char[]              chars = new char[8192];
+    private final char[]              line = new char[LINE_LIMIT];
+    private final PemBase64Decoder    decoder;
+
+    private int     pos;
+    private int     limit;
+    private int     lineLength;
+    private boolean lineOverflow;
+    private boolean eof;
+
+    private String  type;
+    private List    headers;
+
+    /**
+     * Create a decoder reading from a Reader.
+     *
+     * @param reader the source of the PEM data.
+     */
+    public PemDecoder(
+        Reader reader)
+    {
+        this(reader, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a decoder reading from a Reader, with a limit on the size of a single object.
+     *
+     * @param reader the source of the PEM data.
+     * @param maxContentLength the largest decoded object content to accept.
+     */
+    public PemDecoder(
+        Reader reader,
+        int    maxContentLength)
+    {
+        this.reader = reader;
+        this.channel = null;
+        this.bytes = null;
+        this.decoder = new PemBase64Decoder(maxContentLength);
+    }
+
+    /**
+     * Create a decoder reading from a channel.
+     *
+     * @param channel the source of the PEM data.
+     */
+    public PemDecoder(
+        ReadableByteChannel channel)
+    {
+        this(channel, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a decoder reading from a channel, with a limit on the size of a single object.
+     *
+     * @param channel the source of the PEM data.
+     * @param maxContentLength the largest decoded object content to accept.
+     */
+    public PemDecoder(
+        ReadableByteChannel channel,
+        int                 maxContentLength)
+    {
+        this.reader = null;
+        this.channel = channel;
+        this.bytes = ByteBuffer.allocate(chars.length);
+        this.decoder = new PemBase64Decoder(maxContentLength);
+    }
+
+    /**
+     * Move to the next PEM object in the input.
+     *
+     * @return true if an object was read, false if the end of the input has been reached.
+     * @throws IOException if the object is malformed or larger than the limit, or on a read error.
+     */
+    public boolean next()
+        throws IOException
+    {
+        type = null;
+        headers = null;
+        decoder.reset();
+
+        String objType = findBegin();
+
+        if (objType == null)
+        {
+            return false;
+        }
+
+        String endMarker = END + objType;
+        List   objHeaders = new ArrayList();
+
+        //
+        // headers come first, then the body - a body line too long to be a header is
+        // decoded in place rather than buffered.
+        //
+        boolean inBody = false;
+
+        for (;;)
+        {
+            if (inBody)
+            {
+                int c = peek();
+
+                // indentation is skipped here, as it is everywhere else, so an indented END
+                // line is still recognised.
+                while (c >= 0 && isWhitespace((char)c))
+                {
+                    pos++;
+                    c = peek();
+                }
+
+                if (c < 0)
+                {
+                    throw new IOException(endMarker + " not found");
+                }
+
+                if (c != '-')
+                {
+                    decodeRestOfLine();
+                    continue;
+                }
+            }
+
+            if (!readLine())
+            {
+                throw new IOException(endMarker + " not found");
+            }
+
+            if (lineOverflow)
+            {
+                decoder.decode(line, 0, lineLength);
+                decodeRestOfLine();
+                inBody = true;
+                continue;
+            }
+
+            int start = 0;
+            int end = lineLength;
+
+            while (start < end && isWhitespace(line[start]))
+            {
+                start++;
+            }
+            while (end > start && isWhitespace(line[end - 1]))
+            {
+                end--;
+            }
+
+            if (start == end)
+            {
+                continue;
+            }
+
+            if (line[start] == '-')
+            {
+                if (new String(line, start, end - start).startsWith(endMarker))
+                {
+                    break;
+                }
+
+                throw new IOException(endMarker + " not found");
+            }
+
+            if (!inBody)
+            {
+                int index = indexOf(line, start, end, ':');
+
+                if (index >= 0)
+                {
+                    String hdr = new String(line, start, index - start);
+                    String value = new String(line, index + 1, end - index - 1).trim();
+
+                    objHeaders.add(new PemHeader(hdr, value));
+
+                    continue;
+                }
+            }
+
+            decoder.decode(line, start, end - start);
+            inBody = true;
+        }
+
+        decoder.finish();
+
+        type = objType;
+        headers = Collections.unmodifiableList(objHeaders);
+
+        return true;
+    }
+
+    /**
+     * Return the type of the current object, for example "CERTIFICATE".
+     */
+    public String getType()
+    {
+        checkCurrent();
+
+        return type;
+    }
+
+    /**
+     * Return the headers of the current object.
+     *
+     * @return a possibly empty list of PemHeader objects.
+     */
+    public List getHeaders()
+    {
+        checkCurrent();
+
+        return headers;
+    }
+
+    /**
+     * Return the length of the current object's decoded content.
+     */
+    public int getContentLength()
+    {
+        checkCurrent();
+
+        return decoder.getLength();
+    }
+
+    /**
+     * Return a read-only view of the current object's decoded content. The view is only
+     * valid until the next call to next().
+     *
+     * @return the decoded content.
+     */
+    public ByteBuffer getContent()
+    {
+        checkCurrent();
+
+        return ByteBuffer.wrap(decoder.getBuffer(), 0, decoder.getLength()).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Return an ASN.1 parser over the current object's decoded content. The parser is only
+     * valid until the next call to next().
+     *
+     * @return a parser for the decoded content.
+     */
+    public ASN1BufferParser getContentParser()
+    {
+        return new ASN1BufferParser(getContent());
+    }
+
+    /**
+     * Return a copy of the current object.
+     *
+     * @return a PemObject holding the current object's type, headers and content.
+     */
+    public PemObject getPemObject()
+    {
+        checkCurrent();
+
+        return new PemObject(type, headers, decoder.toByteArray());
+    }
+
+    /**
+     * Close the underlying Reader or channel.
+     *
+     * @throws IOException on a close error.
+     */
+    public void close()
+        throws IOException
+    {
+        if (reader != null)
+        {
+            reader.close();
+        }
+        else
+        {
+            channel.close();
+        }
+    }
+
+    private void checkCurrent()
+    {
+        if (type == null)
+        {
+            throw new IllegalStateException("no current PEM object");
+        }
+    }
+
+    /**
+     * Skip to the next BEGIN line and return the type it gives, null if there isn't one.
+     */
+    private String findBegin()
+        throws IOException
+    {
+        while (readLine())
+        {
+            if (lineOverflow)
+            {
+                skipRestOfLine();
+            }
+
+            int start = 0;
+
+            while (start < lineLength && isWhitespace(line[start]))
+            {
+                start++;
+            }
+
+            if (lineLength - start > BEGIN.length() && line[start] == '-')
+            {
+                String text = new String(line, start, lineLength - start);
+
+                if (text.startsWith(BEGIN))
+                {
+                    text = text.substring(BEGIN.length());
+
+                    int index = text.indexOf('-');
+
+                    if (index > 0)
+                    {
+                        return text.substring(0, index);
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read up to LINE_LIMIT characters of the next line into line, leaving the rest of the
+     * line in the input if it is longer.
+     *
+     * @return false if the end of the input has been reached.
+     */
+    private boolean readLine()
+        throws IOException
+    {
+        lineLength = 0;
+        lineOverflow = false;
+
+        for (;;)
+        {
+            if (pos == limit && !fill())
+            {
+                return lineLength != 0;
+            }
+
+            char c = chars[pos];
+
+            if (c == '\n' || c == '\r')
+            {
+                pos++;
+
+                return true;
+            }
+
+            if (lineLength == LINE_LIMIT)
+            {
+                lineOverflow = true;
+
+                return true;
+            }
+
+            line[lineLength++] = c;
+            pos++;
+        }
+    }
+
+    private void decodeRestOfLine()
+        throws IOException
+    {
+        for (;;)
+        {
+            if (pos == limit && !fill())
+            {
+                return;
+            }
+
+            int start = pos;
+
+            while (pos < limit && chars[pos] != '\n' && chars[pos] != '\r')
+            {
+                pos++;
+            }
+
+            decoder.decode(chars, start, pos - start);
+
+            if (pos < limit)
+            {
+                pos++;
+
+                return;
+            }
+        }
+    }
+
+    private void skipRestOfLine()
+        throws IOException
+    {
+        for (;;)
+        {
+            if (pos == limit && !fill())
+            {
+                return;
+            }
+
+            while (pos < limit)
+            {
+                char c = chars[pos++];
+
+                if (c == '\n' || c == '\r')
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the next character without consuming it, -1 at the end of the input.
+     */
+    private int peek()
+        throws IOException
+    {
+        if (pos == limit && !fill())
+        {
+            return -1;
+        }
+
+        return chars[pos];
+    }
+
+    private boolean fill()
+        throws IOException
+    {
+        if (eof)
+        {
+            return false;
+        }
+
+        int count;
+
+        if (reader != null)
+        {
+            do
+            {
+                count = reader.read(chars, 0, chars.length);
+            }
+            while (count == 0);
+        }
+        else
+        {
+            bytes.clear();
+
+            do
+            {
+                count = channel.read(bytes);
+            }
+            while (count == 0);
+
+            for (int i = 0; i < count; i++)
+            {
+                chars[i] = (char)(bytes.get(i) & 0xff);
+            }
+        }
+
+        if (count < 0)
+        {
+            eof = true;
+
+            return false;
+        }
+
+        pos = 0;
+        limit = count;
+
+        return true;
+    }
+
+    private static boolean isWhitespace(
+        char c)
+    {
+        return c == ' ' || c == '\t';
+    }
+
+    private static int indexOf(
+        char[] data,
+        int    start,
+        int    end,
+        char   c)
+    {
+        for (int i = start; i != end; i++)
+        {
+            if (data[i] == c)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -1,7 +1,5 @@
 package org.bouncycastle2.util.io.pem;
 
-import org.bouncycastle2.util.encoders.Base64;
-
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
@@ -14,6 +12,8 @@ public class PemReader
     private static final String BEGIN = "-----BEGIN ";
     private static final String END = "-----END ";
 
+    private final PemBase64Decoder decoder = new PemBase64Decoder(Integer.MAX_VALUE);
+
     public PemReader(Reader reader)
     {
         super(reader);
@@ -44,9 +44,10 @@ public class PemReader
     {
         String          line;
         String          endMarker = END + type;
-        StringBuffer    buf = new StringBuffer();
         List            headers = new ArrayList();
 
+        decoder.reset();
+
         while ((line = readLine()) != null)
         {
             if (line.indexOf(":") >= 0)
@@ -65,7 +66,7 @@ public class PemReader
                 break;
             }
             
-            buf.append(line.trim());
+            decoder.decode(line.trim());
         }
 
         if (line == null)
@@ -73,7 +74,9 @@ public class PemReader
             throw new IOException(endMarker + " not found");
         }
 
-        return new PemObject(type, headers, Base64.decode(buf.toString()));
+        decoder.finish();
+
+        return new PemObject(type, headers, decoder.toByteArray());
     }
 
 }
@@ -0,0 +1,345 @@
+package org.bouncycastle2.x509;
+
+import org.bouncycastle2.crypto.digests.SHA256Digest;
+import org.bouncycastle2.util.Arrays;
+
+import javax.security.auth.x500.X500Principal;
+import java.security.cert.CertPath;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.PKIXCertPathValidatorResult;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded cache of successful certification path validations.
+ * <p>
+ * The cache is opt-in: it is only used by the PKIX CertPathValidator when it has been set on the
+ * parameters with {@link ExtendedPKIXParameters#setValidationCache(CertPathValidationCache)}. A result
+ * is reused if the same chain (compared by the SHA-256 hash of its encoding) is validated against the
+ * same trust anchors, with the same validation date and with equivalent parameters. Stores and trust
+ * anchors are compared by identity, so the same store and anchor objects need to be passed in for the
+ * cache to be hit.
+ * <p>
+ * Entries are evicted least recently used first once the cache is full, and expire at the earliest of
+ * the time the validator says the result can be relied on to (the earliest notAfter date in the chain
+ * and the earliest nextUpdate of the CRLs checked) and the maximum lifetime given to the constructor.
+ * If new CRLs are made available to the validator before then, {@link #invalidate(X509CRL)} or
+ * {@link #clear()} should be called so revoked certificates are not accepted from the cache.
+ * <p>
+ * Paths validated with PKIXCertPathCheckers set are never cached, as the checkers may hold state.
+ * Failed validations are not cached either.
+ */
+public class CertPathValidationCache
+{
+    private final int  maxEntries;
+    private final long maxLifetime;
+    private final Map  entries;
+
+    /**
+     * Create a cache.
+     *
+     * @param maxEntries the maximum number of validation results to hold.
+     * @param maxLifetime the maximum time, in milliseconds, a result will be reused for.
+     */
+    public CertPathValidationCache(
+        int  maxEntries,
+        long maxLifetime)
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        if (maxLifetime <= 0)
+        {
+            throw new IllegalArgumentException("maxLifetime must be greater than zero");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxLifetime = maxLifetime;
+        this.entries = new LinkedHashMap(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry eldest)
+            {
+                return size() > CertPathValidationCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Return the validation result held for a path, if there is one.
+     *
+     * @param certPath the path being validated.
+     * @param params the parameters the path is being validated with.
+     * @return a copy of the cached result, null if there is no usable entry.
+     */
+    public PKIXCertPathValidatorResult getResult(
+        CertPath               certPath,
+        ExtendedPKIXParameters params)
+    {
+        if (!isCacheable(params))
+        {
+            return null;
+        }
+
+        Object key = createKey(certPath, params);
+
+        if (key == null)
+        {
+            return null;
+        }
+
+        synchronized (this)
+        {
+            Entry entry = (Entry)entries.get(key);
+
+            if (entry == null)
+            {
+                return null;
+            }
+
+            if (entry.expiry <= System.currentTimeMillis())
+            {
+                entries.remove(key);
+
+                return null;
+            }
+
+            return (PKIXCertPathValidatorResult)entry.result.clone();
+        }
+    }
+
+    /**
+     * Add the result of a successful validation to the cache.
+     *
+     * @param certPath the path that was validated.
+     * @param params the parameters the path was validated with.
+     * @param result the result of the validation.
+     * @param notAfter the last time the result may be reused, null if there is no limit
+     * other than the cache's maximum lifetime.
+     */
+    public void addResult(
+        CertPath                    certPath,
+        ExtendedPKIXParameters      params,
+        PKIXCertPathValidatorResult result,
+        Date                        notAfter)
+    {
+        if (!isCacheable(params))
+        {
+            return;
+        }
+
+        Object key = createKey(certPath, params);
+
+        if (key == null)
+        {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long expiry = now + maxLifetime;
+
+        if (notAfter != null && notAfter.getTime() < expiry)
+        {
+            expiry = notAfter.getTime();
+        }
+
+        if (expiry <= now)
+        {
+            return;
+        }
+
+        Set  issuers = new HashSet();
+        List certs = certPath.getCertificates();
+
+        for (int i = 0; i != certs.size(); i++)
+        {
+            issuers.add(((X509Certificate)certs.get(i)).getIssuerX500Principal());
+        }
+
+        synchronized (this)
+        {
+            entries.put(key, new Entry((PKIXCertPathValidatorResult)result.clone(), expiry, issuers));
+        }
+    }
+
+    /**
+     * Remove any results for paths containing a certificate issued by the issuer of the
+     * passed in CRL. Indirect CRLs may cover certificates from other issuers, in which case
+     * {@link #clear()} should be used instead.
+     *
+     * @param crl a new or updated CRL.
+     */
+    public synchronized void invalidate(
+        X509CRL crl)
+    {
+        X500Principal issuer = crl.getIssuerX500Principal();
+
+        for (Iterator it = entries.values().iterator(); it.hasNext();)
+        {
+            if (((Entry)it.next()).issuers.contains(issuer))
+            {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove all results from the cache.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Return the number of results currently held, including any that have expired but
+     * have not been looked up since.
+     *
+     * @return the number of entries in the cache.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    private boolean isCacheable(
+        ExtendedPKIXParameters params)
+    {
+        return params.getCertPathCheckers().isEmpty();
+    }
+
+    private Object createKey(
+        CertPath               certPath,
+        ExtendedPKIXParameters params)
+    {
+        List         certs = certPath.getCertificates();
+        SHA256Digest digest = new SHA256Digest();
+        byte[]       len = new byte[4];
+
+        try
+        {
+            for (int i = 0; i != certs.size(); i++)
+            {
+                byte[] enc = ((X509Certificate)certs.get(i)).getEncoded();
+
+                len[0] = (byte)(enc.length >>> 24);
+                len[1] = (byte)(enc.length >>> 16);
+                len[2] = (byte)(enc.length >>> 8);
+                len[3] = (byte)enc.length;
+
+                digest.update(len, 0, len.length);
+                digest.update(enc, 0, enc.length);
+            }
+        }
+        catch (CertificateEncodingException e)
+        {
+            return null;        // path will fail validation anyway.
+        }
+
+        byte[] chainHash = new byte[digest.getDigestSize()];
+
+        digest.doFinal(chainHash, 0);
+
+        return new Key(chainHash, params);
+    }
+
+    private static class Entry
+    {
+        final PKIXCertPathValidatorResult result;
+        final long                        expiry;
+        final Set                         issuers;
+
+        Entry(PKIXCertPathValidatorResult result, long expiry, Set issuers)
+        {
+            this.result = result;
+            this.expiry = expiry;
+            this.issuers = issuers;
+        }
+    }
+
+    /**
+     * Lookup key - the chain hash, and everything in the parameters that can change the
+     * outcome of a validation. Additional stores are left out as the validator adds to them
+     * from the chain's own distribution points as it goes.
+     */
+    private static class Key
+    {
+        private final byte[] chainHash;
+        private final Set    trustAnchors;
+        private final Date   date;
+        private final Set    initialPolicies;
+        private final int    flags;
+        private final int    validityModel;
+        private final String sigProvider;
+        private final List   stores;
+        private final int    hashCode;
+
+        Key(byte[] chainHash, ExtendedPKIXParameters params)
+        {
+            this.chainHash = chainHash;
+            this.trustAnchors = params.getTrustAnchors();
+            this.date = params.getDate();
+            this.initialPolicies = params.getInitialPolicies();
+            this.flags = (params.isRevocationEnabled() ? 0x01 : 0)
+                | (params.isExplicitPolicyRequired() ? 0x02 : 0)
+                | (params.isAnyPolicyInhibited() ? 0x04 : 0)
+                | (params.isPolicyMappingInhibited() ? 0x08 : 0)
+                | (params.getPolicyQualifiersRejected() ? 0x10 : 0)
+                | (params.isUseDeltasEnabled() ? 0x20 : 0)
+                | (params.isAdditionalLocationsEnabled() ? 0x40 : 0);
+            this.validityModel = params.getValidityModel();
+            this.sigProvider = params.getSigProvider();
+            this.stores = new ArrayList(params.getStores());
+            this.stores.addAll(params.getCertStores());
+
+            int hc = Arrays.hashCode(chainHash);
+
+            hc = hc * 31 + trustAnchors.hashCode();
+            hc = hc * 31 + (date != null ? date.hashCode() : 0);
+            hc = hc * 31 + initialPolicies.hashCode();
+            hc = hc * 31 + flags;
+            hc = hc * 31 + validityModel;
+            hc = hc * 31 + stores.hashCode();
+
+            this.hashCode = hc;
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (o == this)
+            {
+                return true;
+            }
+
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+
+            Key other = (Key)o;
+
+            return hashCode == other.hashCode
+                && Arrays.areEqual(chainHash, other.chainHash)
+                && flags == other.flags
+                && validityModel == other.validityModel
+                && (date == null ? other.date == null : date.equals(other.date))
+                && (sigProvider == null ? other.sigProvider == null : sigProvider.equals(other.sigProvider))
+                && initialPolicies.equals(other.initialPolicies)
+                && stores.equals(other.stores)
+                && trustAnchors.equals(other.trustAnchors);
+        }
+    }
+}
@@ -30,6 +30,8 @@ public class ExtendedPKIXParameters
 
     private Set attrCertCheckers;
 
+    private CertPathValidationCache validationCache;
+
     /**
      * Creates an instance of <code>PKIXParameters</code> with the specified
      * <code>Set</code> of most-trusted CAs. Each element of the set is a
@@ -122,6 +124,7 @@ public class ExtendedPKIXParameters
             prohibitedACAttributes = new HashSet(_params.prohibitedACAttributes);
             necessaryACAttributes = new HashSet(_params.necessaryACAttributes);
             attrCertCheckers = new HashSet(_params.attrCertCheckers);
+            validationCache = _params.validationCache;
         }
     }
 
@@ -326,6 +329,29 @@ public class ExtendedPKIXParameters
         this.validityModel = validityModel;
     }
 
+    /**
+     * Returns the cache used to hold the results of successful path validations.
+     * 
+     * @return the validation cache, or <code>null</code> if results are not cached.
+     * @see #setValidationCache(CertPathValidationCache)
+     */
+    public CertPathValidationCache getValidationCache()
+    {
+        return validationCache;
+    }
+
+    /**
+     * Sets a cache for the results of successful path validations. Caching is off by
+     * default. The cache is shared, not copied, when these parameters are cloned.
+     * 
+     * @param validationCache the cache to use, <code>null</code> to switch caching off.
+     * @see CertPathValidationCache
+     */
+    public void setValidationCache(CertPathValidationCache validationCache)
+    {
+        this.validationCache = validationCache;
+    }
+
     public Object clone()
     {
         ExtendedPKIXParameters params;
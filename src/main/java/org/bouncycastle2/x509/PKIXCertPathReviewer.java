@@ -2136,7 +2136,7 @@ public class PKIXCertPathReviewer extends CertPathValidatorUtilities
             {
                 try
                 {
-                    crl.verify(workingPublicKey, "BC");
+                    verifyX509CRL(crl, workingPublicKey, "BC");
                 }
                 catch (Exception e)
                 {
@@ -0,0 +1,66 @@
+package org.bouncycastle2.asn1;
+
+import junit.framework.TestCase;
+
+import org.bouncycastle2.util.encoders.Hex;
+
+public class DERSequenceTest
+    extends TestCase
+{
+    /**
+     * an element whose value can change between encodings.
+     */
+    private static class Counter
+        extends ASN1Encodable
+    {
+        int value;
+
+        public DERObject toASN1Object()
+        {
+            return new DERInteger(value);
+        }
+    }
+
+    /**
+     * the resolved elements are only kept until the body is written, so a change to an
+     * element shows up in the next encoding.
+     */
+    public void testChangedElementReencoded()
+        throws Exception
+    {
+        Counter     counter = new Counter();
+        DERSequence seq = new DERSequence(counter);
+
+        assertEquals("3003020100", new String(Hex.encode(seq.getEncoded())));
+
+        counter.value = 0x80;
+
+        assertEquals("300402020080", new String(Hex.encode(seq.getEncoded())));
+    }
+
+    public void testChangedElementReencodedInSet()
+        throws Exception
+    {
+        Counter counter = new Counter();
+        DERSet  set = new DERSet(counter);
+
+        assertEquals("3103020100", new String(Hex.encode(set.getEncoded())));
+
+        counter.value = 0x80;
+
+        assertEquals("310402020080", new String(Hex.encode(set.getEncoded())));
+    }
+
+    public void testChangedElementReencodedImplicitlyTagged()
+        throws Exception
+    {
+        Counter         counter = new Counter();
+        DERTaggedObject tagged = new DERTaggedObject(false, 0, new DERSequence(counter));
+
+        assertEquals("a003020100", new String(Hex.encode(tagged.getEncoded())));
+
+        counter.value = 0x80;
+
+        assertEquals("a00402020080", new String(Hex.encode(tagged.getEncoded())));
+    }
+}
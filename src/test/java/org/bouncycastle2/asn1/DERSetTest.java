@@ -0,0 +1,35 @@
+package org.bouncycastle2.asn1;
+
+import junit.framework.TestCase;
+
+import org.bouncycastle2.util.encoders.Hex;
+
+public class DERSetTest
+    extends TestCase
+{
+    /**
+     * the encodings kept from sorting are written out as they are, so they must be DER
+     * even when an element's BER encoding is different.
+     */
+    public void testBERElementEncodedAsDER()
+        throws Exception
+    {
+        DERSet set = new DERSet(new ASN1Encodable[] { new DERInteger(1), BERNull.INSTANCE });
+
+        assertEquals("31050201010500", new String(Hex.encode(set.getEncoded())));
+        assertEquals("31050201010500", new String(Hex.encode(set.getDEREncoded())));
+
+        set = new DERSet(new ASN1Encodable[] { BERNull.INSTANCE, new DERInteger(1) });
+
+        assertEquals("31050201010500", new String(Hex.encode(set.getEncoded())));
+    }
+
+    public void testBERSequenceElementEncodedAsDER()
+        throws Exception
+    {
+        BERSequence seq = new BERSequence(new DERInteger(2));
+        DERSet      set = new DERSet(new ASN1Encodable[] { seq, new DERInteger(1) });
+
+        assertEquals("31080201013003020102", new String(Hex.encode(set.getEncoded())));
+    }
+}